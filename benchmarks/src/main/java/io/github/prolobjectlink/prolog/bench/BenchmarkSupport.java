@@ -0,0 +1,134 @@
+/*-
+ * #%L
+ * prolobjectlink-jpi
+ * %%
+ * Copyright (C) 2020 - 2021 Prolobjectlink Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package io.github.prolobjectlink.prolog.bench;
+
+import io.github.prolobjectlink.prolog.Prolog;
+import io.github.prolobjectlink.prolog.PrologEngine;
+import io.github.prolobjectlink.prolog.PrologProvider;
+import io.github.prolobjectlink.prolog.PrologTerm;
+import io.github.prolobjectlink.prolog.bench.ref.RefProvider;
+
+/**
+ * Common support for the benchmarks. Resolve the benchmarked provider and
+ * build the terms and programs used by the benchmarks. The provider class name
+ * is taken from the benchmark parameter if it is not empty or from the
+ * {@code jpi.provider} system property in other case. When none of them is
+ * given the in-memory {@link RefProvider} is used.
+ * 
+ * @author Jose Zalacain
+ * @since 1.2
+ */
+final class BenchmarkSupport {
+
+	static final String PROVIDER_PROPERTY = "jpi.provider";
+
+	private BenchmarkSupport() {
+	}
+
+	/**
+	 * Create the benchmarked provider.
+	 * 
+	 * @param className provider class name benchmark parameter
+	 * @return the benchmarked provider
+	 */
+	static PrologProvider provider(String className) {
+		String name = className;
+		if (name == null || name.length() == 0) {
+			name = System.getProperty(PROVIDER_PROPERTY);
+		}
+		if (name == null || name.length() == 0) {
+			return new RefProvider();
+		}
+		PrologProvider provider = Prolog.getProvider(name);
+		if (provider == null) {
+			throw new IllegalStateException("Can't create the provider " + name);
+		}
+		return provider;
+	}
+
+	/**
+	 * Create a compound term with the given nesting depth and width. Every
+	 * structure level have width arguments, the last argument is the next level
+	 * and the rest are atomic. The term size grow linearly with depth and width.
+	 * When the variables flag is true, the atomic arguments of the deepest level
+	 * are variables.
+	 * 
+	 * @param provider  terms provider
+	 * @param depth     nesting depth
+	 * @param width     arguments number in every level
+	 * @param variables true to use variables in the deepest level
+	 * @return compound term with the given depth and width
+	 */
+	static PrologTerm compound(PrologProvider provider, int depth, int width, boolean variables) {
+		PrologTerm[] arguments = new PrologTerm[width];
+		for (int i = 0; i < width; i++) {
+			if (variables) {
+				arguments[i] = provider.newVariable("X" + i, i);
+			} else if (i % 2 == 0) {
+				arguments[i] = provider.newAtom("a" + i);
+			} else {
+				arguments[i] = provider.newInteger(i);
+			}
+		}
+		PrologTerm term = provider.newStructure("leaf", arguments);
+		for (int level = 1; level < depth; level++) {
+			arguments = new PrologTerm[width];
+			for (int i = 0; i < width - 1; i++) {
+				arguments[i] = i % 2 == 0 ? provider.newAtom("a" + i) : provider.newInteger(level * i);
+			}
+			arguments[width - 1] = term;
+			term = provider.newStructure("node", arguments);
+		}
+		return term;
+	}
+
+	/**
+	 * Add to the given engine the facts {@code fact(I, aI, I)} for I from 0 to
+	 * the given size minus one.
+	 * 
+	 * @param engine engine where the facts are added
+	 * @param size   number of facts
+	 */
+	static void facts(PrologEngine engine, int size) {
+		PrologProvider provider = engine.getProvider();
+		for (int i = 0; i < size; i++) {
+			engine.assertz(fact(provider, i));
+		}
+	}
+
+	/**
+	 * Create the fact {@code fact(I, aI, I)}.
+	 * 
+	 * @param provider terms provider
+	 * @param i        fact number
+	 * @return the fact term
+	 */
+	static PrologTerm fact(PrologProvider provider, int i) {
+		return provider.newStructure("fact", provider.newInteger(i), provider.newAtom("a" + i),
+				provider.newInteger(i));
+	}
+
+}
@@ -0,0 +1,140 @@
+/*-
+ * #%L
+ * prolobjectlink-jpi
+ * %%
+ * Copyright (C) 2020 - 2021 Prolobjectlink Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package io.github.prolobjectlink.prolog.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.prolobjectlink.prolog.PrologProvider;
+import io.github.prolobjectlink.prolog.PrologTerm;
+
+/**
+ * Iterative compound unification and comparison compared with the recursive
+ * baseline over deep terms (a chain of nested {@code '.'/2} cells, like the
+ * lists of most engines) and wide terms (a single structure with many
+ * arguments). The recursive baseline overflow the default Java stack for very
+ * deep terms, so the depth values are kept in the range both implementations
+ * can run.
+ * 
+ * @author Jose Zalacain
+ * @since 1.2
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompoundsBenchmark {
+
+	@Param({ "" })
+	public String provider;
+
+	@Param({ "16", "1024", "8192" })
+	public int size;
+
+	private PrologTerm deep;
+	private PrologTerm deepCopy;
+	private PrologTerm wide;
+	private PrologTerm wideCopy;
+
+	@Setup
+	public void setup() {
+		PrologProvider p = BenchmarkSupport.provider(provider);
+		deep = chain(p, size);
+		deepCopy = chain(p, size);
+		wide = row(p, size);
+		wideCopy = row(p, size);
+	}
+
+	private static PrologTerm chain(PrologProvider provider, int size) {
+		PrologTerm term = provider.newAtom("[]");
+		for (int i = size - 1; i >= 0; i--) {
+			term = provider.newStructure(".", provider.newInteger(i), term);
+		}
+		return term;
+	}
+
+	private static PrologTerm row(PrologProvider provider, int size) {
+		PrologTerm[] arguments = new PrologTerm[size];
+		for (int i = 0; i < size; i++) {
+			arguments[i] = provider.newStructure("cell", provider.newInteger(i));
+		}
+		return provider.newStructure("row", arguments);
+	}
+
+	@Benchmark
+	public boolean unifyDeepIterative() {
+		return deep.unify(deepCopy);
+	}
+
+	@Benchmark
+	public boolean unifyDeepRecursive() {
+		return RecursiveCompounds.unify(deep, deepCopy);
+	}
+
+	@Benchmark
+	public int compareDeepIterative() {
+		return deep.compareTo(deepCopy);
+	}
+
+	@Benchmark
+	public int compareDeepRecursive() {
+		return RecursiveCompounds.compare(deep, deepCopy);
+	}
+
+	@Benchmark
+	public boolean unifyWideIterative() {
+		return wide.unify(wideCopy);
+	}
+
+	@Benchmark
+	public boolean unifyWideRecursive() {
+		return RecursiveCompounds.unify(wide, wideCopy);
+	}
+
+	@Benchmark
+	public int compareWideIterative() {
+		return wide.compareTo(wideCopy);
+	}
+
+	@Benchmark
+	public int compareWideRecursive() {
+		return RecursiveCompounds.compare(wide, wideCopy);
+	}
+
+}
@@ -0,0 +1,101 @@
+/*-
+ * #%L
+ * prolobjectlink-jpi
+ * %%
+ * Copyright (C) 2020 - 2021 Prolobjectlink Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package io.github.prolobjectlink.prolog.bench;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.prolobjectlink.prolog.PrologConverter;
+import io.github.prolobjectlink.prolog.PrologProvider;
+import io.github.prolobjectlink.prolog.PrologTerm;
+
+/**
+ * Conversion of native engine solutions maps to prolog terms maps using the
+ * provider converter parameterized by the solution count and the variables
+ * number in every solution.
+ * 
+ * @author Jose Zalacain
+ * @since 1.2
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConverterBenchmark {
+
+	@Param({ "" })
+	public String provider;
+
+	@Param({ "1", "100", "10000" })
+	public int solutions;
+
+	@Param({ "2", "8" })
+	public int variables;
+
+	private PrologConverter<Object> converter;
+	private Map<String, Object>[] maps;
+
+	@Setup
+	@SuppressWarnings("unchecked")
+	public void setup() {
+		PrologProvider p = BenchmarkSupport.provider(provider);
+		converter = p.getConverter();
+		maps = (Map<String, Object>[]) new Map<?, ?>[solutions];
+		for (int i = 0; i < solutions; i++) {
+			maps[i] = new HashMap<String, Object>();
+			for (int j = 0; j < variables; j++) {
+				PrologTerm value = j % 2 == 0 ? p.newAtom("a" + i) : p.newInteger(i);
+				maps[i].put("X" + j, converter.fromTerm(value));
+			}
+		}
+	}
+
+	@Benchmark
+	public Map<String, PrologTerm> toTermMap() {
+		return converter.toTermMap(maps[0]);
+	}
+
+	@Benchmark
+	public Map<String, PrologTerm>[] toTermMapArray() {
+		return converter.toTermMapArray(maps);
+	}
+
+}
@@ -0,0 +1,117 @@
+/*-
+ * #%L
+ * prolobjectlink-jpi
+ * %%
+ * Copyright (C) 2020 - 2021 Prolobjectlink Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package io.github.prolobjectlink.prolog.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.prolobjectlink.prolog.PrologJavaConverter;
+import io.github.prolobjectlink.prolog.PrologProvider;
+import io.github.prolobjectlink.prolog.PrologTerm;
+
+/**
+ * Conversion between Java objects and prolog terms using the provider Java
+ * converter parameterized by the converted array width.
+ * 
+ * @author Jose Zalacain
+ * @since 1.2
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JavaConverterBenchmark {
+
+	@Param({ "" })
+	public String provider;
+
+	@Param({ "1", "16", "256" })
+	public int width;
+
+	private PrologJavaConverter converter;
+	private Object[] objects;
+	private PrologTerm[] terms;
+	private PrologTerm list;
+
+	@Setup
+	public void setup() {
+		PrologProvider p = BenchmarkSupport.provider(provider);
+		converter = p.getJavaConverter();
+		objects = new Object[width];
+		for (int i = 0; i < width; i++) {
+			switch (i % 4) {
+			case 0:
+				objects[i] = "atom" + i;
+				break;
+			case 1:
+				objects[i] = Integer.valueOf(i);
+				break;
+			case 2:
+				objects[i] = Long.valueOf(i);
+				break;
+			default:
+				objects[i] = Double.valueOf(i);
+				break;
+			}
+		}
+		terms = converter.toTermsArray(objects);
+		list = converter.toTerm(objects);
+	}
+
+	@Benchmark
+	public PrologTerm[] toTermsArray() {
+		return converter.toTermsArray(objects);
+	}
+
+	@Benchmark
+	public PrologTerm toTermList() {
+		return converter.toTerm(objects);
+	}
+
+	@Benchmark
+	public Object[] toObjectsArray() {
+		return converter.toObjectsArray(terms);
+	}
+
+	@Benchmark
+	public Object toObjectList() {
+		return converter.toObject(list);
+	}
+
+}
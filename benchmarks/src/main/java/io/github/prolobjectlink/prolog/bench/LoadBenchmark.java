@@ -0,0 +1,115 @@
+/*-
+ * #%L
+ * prolobjectlink-jpi
+ * %%
+ * Copyright (C) 2020 - 2021 Prolobjectlink Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package io.github.prolobjectlink.prolog.bench;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.annotations.Level;
+
+import io.github.prolobjectlink.prolog.PrologClause;
+import io.github.prolobjectlink.prolog.PrologEngine;
+import io.github.prolobjectlink.prolog.PrologProvider;
+
+/**
+ * Program loading throughput parameterized by the number of facts. Every
+ * invocation load all facts in an empty engine, so the clauses per second are
+ * the facts number divided by the measured time.
+ * 
+ * @author Jose Zalacain
+ * @since 1.2
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LoadBenchmark {
+
+	@Param({ "" })
+	public String provider;
+
+	@Param({ "10000", "1000000" })
+	public int facts;
+
+	private PrologProvider prologProvider;
+	private List<PrologClause> clauses;
+	private PrologEngine engine;
+	private String text;
+
+	@Setup(Level.Trial)
+	public void setupTrial() {
+		prologProvider = BenchmarkSupport.provider(provider);
+		PrologEngine source = prologProvider.newEngine();
+		BenchmarkSupport.facts(source, facts);
+		clauses = new ArrayList<PrologClause>(source.getProgramClauses());
+		StringWriter writer = new StringWriter();
+		source.persist(writer);
+		text = writer.toString();
+		source.dispose();
+	}
+
+	@Setup(Level.Invocation)
+	public void setupInvocation() {
+		engine = prologProvider.newEngine();
+	}
+
+	@Benchmark
+	public PrologEngine assertz() {
+		for (PrologClause clause : clauses) {
+			engine.assertz(clause.getHead(), clause.getBody());
+		}
+		return engine;
+	}
+
+	@Benchmark
+	public PrologEngine assertzAll() {
+		engine.assertzAll(clauses);
+		return engine;
+	}
+
+	@Benchmark
+	public PrologEngine includeStream() {
+		engine.include(new StringReader(text), null);
+		return engine;
+	}
+
+}
@@ -0,0 +1,102 @@
+/*-
+ * #%L
+ * prolobjectlink-jpi
+ * %%
+ * Copyright (C) 2020 - 2021 Prolobjectlink Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package io.github.prolobjectlink.prolog.bench;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.prolobjectlink.prolog.PrologEngine;
+import io.github.prolobjectlink.prolog.PrologProvider;
+import io.github.prolobjectlink.prolog.PrologTerm;
+
+/**
+ * Throughput of {@link PrologEngine#match(PrologTerm, PrologTerm)}. The ground
+ * versus pattern and the pattern versus pattern matches are resolved in
+ * process. The string baseline is the previous implementation that format and
+ * parse the {@code t1 = t2} goal.
+ * 
+ * @author Jose Zalacain
+ * @since 1.2
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MatchBenchmark {
+
+	@Param({ "" })
+	public String provider;
+
+	@Param({ "1", "8" })
+	public int depth;
+
+	@Param({ "4" })
+	public int width;
+
+	private PrologEngine engine;
+	private PrologTerm ground;
+	private PrologTerm pattern;
+	private PrologTerm other;
+
+	@Setup
+	public void setup() {
+		PrologProvider p = BenchmarkSupport.provider(provider);
+		engine = p.newEngine();
+		ground = BenchmarkSupport.compound(p, depth, width, false);
+		pattern = BenchmarkSupport.compound(p, depth, width, true);
+		other = BenchmarkSupport.compound(p, depth, width, true);
+	}
+
+	@Benchmark
+	public Map<String, PrologTerm> matchGround() {
+		return engine.match(pattern, ground);
+	}
+
+	@Benchmark
+	public Map<String, PrologTerm> matchPatterns() {
+		return engine.match(pattern, other);
+	}
+
+	@Benchmark
+	public Map<String, PrologTerm> matchString() {
+		return engine.queryOne(pattern + "=" + ground);
+	}
+
+}
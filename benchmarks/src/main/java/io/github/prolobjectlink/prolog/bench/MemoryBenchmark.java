@@ -0,0 +1,128 @@
+/*-
+ * #%L
+ * prolobjectlink-jpi
+ * %%
+ * Copyright (C) 2020 - 2021 Prolobjectlink Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package io.github.prolobjectlink.prolog.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.prolobjectlink.prolog.PrologEngine;
+import io.github.prolobjectlink.prolog.PrologProvider;
+import io.github.prolobjectlink.prolog.PrologTerm;
+import io.github.prolobjectlink.prolog.bench.ref.RefProvider;
+
+/**
+ * Retained heap of a fact base dominated by repeated atoms with and without
+ * the provider terms cache. Every invocation create a fresh reference provider
+ * interning at most the given number of atoms (zero disable the cache) and
+ * load facts {@code item(I, vA, vB, vC)} where the atoms are taken from a
+ * small vocabulary. The retained bytes after a full garbage collection are
+ * reported as the {@code retainedBytes} auxiliary counter. The measured time
+ * include the garbage collections and is not meaningful.
+ * 
+ * @author Jose Zalacain
+ * @since 1.2
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = { "-Xms1g", "-Xmx1g" })
+public class MemoryBenchmark {
+
+	@Param({ "0", "65536" })
+	public int internedAtoms;
+
+	@Param({ "100000" })
+	public int facts;
+
+	@Param({ "64" })
+	public int vocabulary;
+
+	private PrologEngine engine;
+
+	/**
+	 * Retained heap counters reported by JMH with the benchmark results.
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class Heap {
+
+		public long retainedBytes;
+		public long atoms;
+
+	}
+
+	@Setup(Level.Invocation)
+	public void setupInvocation() {
+		if (engine != null) {
+			engine.dispose();
+			engine = null;
+		}
+		usedHeap();
+	}
+
+	@Benchmark
+	public PrologEngine load(Heap heap) {
+		long before = usedHeap();
+		RefProvider provider = new RefProvider(internedAtoms);
+		PrologEngine e = provider.newEngine();
+		for (int i = 0; i < facts; i++) {
+			e.assertz(item(provider, i));
+		}
+		heap.retainedBytes = usedHeap() - before;
+		heap.atoms = provider.getInternedAtoms();
+		engine = e;
+		return e;
+	}
+
+	private PrologTerm item(PrologProvider provider, int i) {
+		return provider.newStructure("item", provider.newInteger(i), provider.newAtom("v" + i % vocabulary),
+				provider.newAtom("v" + (i / vocabulary) % vocabulary), provider.newAtom("v" + (i * 31) % vocabulary));
+	}
+
+	private static long usedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+}
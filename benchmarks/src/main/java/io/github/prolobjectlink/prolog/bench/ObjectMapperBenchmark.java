@@ -0,0 +1,125 @@
+/*-
+ * #%L
+ * prolobjectlink-jpi
+ * %%
+ * Copyright (C) 2020 - 2021 Prolobjectlink Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package io.github.prolobjectlink.prolog.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.prolobjectlink.prolog.PrologObjectMapper;
+import io.github.prolobjectlink.prolog.PrologProvider;
+import io.github.prolobjectlink.prolog.PrologTerm;
+
+/**
+ * Bulk export of an entity table as Prolog structures using the object mapper
+ * compared with the equivalent hand-written structures creation.
+ * 
+ * @author Jose Zalacain
+ * @since 1.2
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ObjectMapperBenchmark {
+
+	@Param({ "" })
+	public String provider;
+
+	@Param({ "1000" })
+	public int rows;
+
+	private PrologProvider prologProvider;
+	private PrologObjectMapper mapper;
+	private List<Employee> employees;
+
+	/**
+	 * Benchmark entity mapped to {@code employee(Department, Id, Name, Salary)},
+	 * the mapper field order.
+	 */
+	public static final class Employee {
+
+		private String department;
+		private long id;
+		private String name;
+		private double salary;
+
+		// the mapper create the objects with this constructor
+		Employee() {
+		}
+
+		public Employee(String department, long id, String name, double salary) {
+			this.department = department;
+			this.id = id;
+			this.name = name;
+			this.salary = salary;
+		}
+
+	}
+
+	@Setup(Level.Trial)
+	public void setupTrial() {
+		prologProvider = BenchmarkSupport.provider(provider);
+		mapper = prologProvider.newObjectMapper();
+		employees = new ArrayList<Employee>(rows);
+		for (int i = 0; i < rows; i++) {
+			employees.add(new Employee("dept" + i % 16, i, "employee" + i, 1000.0 + i));
+		}
+	}
+
+	@Benchmark
+	public PrologTerm[] mapper() {
+		return mapper.toTerms(employees);
+	}
+
+	@Benchmark
+	public PrologTerm[] handWritten() {
+		PrologTerm[] terms = new PrologTerm[employees.size()];
+		int i = 0;
+		for (Employee e : employees) {
+			terms[i++] = prologProvider.newStructure("employee", prologProvider.newAtom(e.department),
+					prologProvider.newLong(e.id), prologProvider.newAtom(e.name),
+					prologProvider.newDouble(e.salary));
+		}
+		return terms;
+	}
+
+}
@@ -0,0 +1,113 @@
+/*-
+ * #%L
+ * prolobjectlink-jpi
+ * %%
+ * Copyright (C) 2020 - 2021 Prolobjectlink Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package io.github.prolobjectlink.prolog.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.prolobjectlink.prolog.PrologClause;
+import io.github.prolobjectlink.prolog.PrologEngine;
+import io.github.prolobjectlink.prolog.PrologParser;
+import io.github.prolobjectlink.prolog.PrologProvider;
+import io.github.prolobjectlink.prolog.PrologTerm;
+
+/**
+ * Parsing of a hot query string and a clause. The clause parsed by the
+ * provider without engine is compared with the previous form that assert the
+ * clause in a new engine. The query string is parsed by the provider and by a
+ * parser with a parse cache.
+ * 
+ * @author Jose Zalacain
+ * @since 1.2
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark {
+
+	private static final String CLAUSE = "grandparent(X, Z) :- parent(X, Y), parent(Y, Z).";
+	private static final String QUERY = "member(X, [a, b, c, d]), append(L, [X], [e, f, g, X])";
+	private static final String GROUND = "person(jose, 'Zalacain', [programmer, author], 1.2)";
+
+	@Param({ "" })
+	public String provider;
+
+	private PrologProvider prologProvider;
+	private PrologParser cached;
+
+	@Setup
+	public void setup() {
+		prologProvider = BenchmarkSupport.provider(provider);
+		cached = prologProvider.newParser(128);
+	}
+
+	@Benchmark
+	public PrologClause parseClause() {
+		return prologProvider.parseClause(CLAUSE);
+	}
+
+	@Benchmark
+	public PrologClause parseClauseEngine() {
+		PrologEngine engine = prologProvider.newEngine();
+		engine.asserta(CLAUSE);
+		return engine.iterator().next();
+	}
+
+	@Benchmark
+	public PrologTerm parseQuery() {
+		return prologProvider.parseTerm(QUERY);
+	}
+
+	@Benchmark
+	public PrologTerm parseQueryCached() {
+		return cached.parseTerm(QUERY);
+	}
+
+	@Benchmark
+	public PrologTerm parseGround() {
+		return prologProvider.parseTerm(GROUND);
+	}
+
+	@Benchmark
+	public PrologTerm parseGroundCached() {
+		return cached.parseTerm(GROUND);
+	}
+
+}
@@ -0,0 +1,111 @@
+/*-
+ * #%L
+ * prolobjectlink-jpi
+ * %%
+ * Copyright (C) 2020 - 2021 Prolobjectlink Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package io.github.prolobjectlink.prolog.bench;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.prolobjectlink.prolog.PrologClause;
+import io.github.prolobjectlink.prolog.PrologEngine;
+import io.github.prolobjectlink.prolog.PrologProvider;
+import io.github.prolobjectlink.prolog.PrologTerm;
+
+/**
+ * Program inspection and fact lookup parameterized by the program size. With
+ * a provider that maintain the program index, the measured times must not
+ * depend of the program size.
+ * 
+ * @author Jose Zalacain
+ * @since 1.2
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProgramBenchmark {
+
+	@Param({ "" })
+	public String provider;
+
+	@Param({ "1000", "100000", "1000000" })
+	public int facts;
+
+	private PrologEngine engine;
+	private PrologTerm present;
+	private PrologTerm absent;
+
+	@Setup
+	public void setup() {
+		PrologProvider p = BenchmarkSupport.provider(provider);
+		engine = p.newEngine();
+		BenchmarkSupport.facts(engine, facts);
+		// ground goals, resolved by the fact index without a query
+		present = BenchmarkSupport.fact(p, facts / 2);
+		absent = BenchmarkSupport.fact(p, -1);
+	}
+
+	@Benchmark
+	public Map<String, List<PrologClause>> getProgramMap() {
+		return engine.getProgramMap();
+	}
+
+	@Benchmark
+	public Set<PrologClause> getProgramClauses() {
+		return engine.getProgramClauses();
+	}
+
+	@Benchmark
+	public boolean isProgramEmpty() {
+		return engine.isProgramEmpty();
+	}
+
+	@Benchmark
+	public boolean containsPresent() {
+		return engine.contains(present);
+	}
+
+	@Benchmark
+	public boolean containsAbsent() {
+		return engine.contains(absent);
+	}
+
+}
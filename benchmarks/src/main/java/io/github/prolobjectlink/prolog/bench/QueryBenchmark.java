@@ -0,0 +1,157 @@
+/*-
+ * #%L
+ * prolobjectlink-jpi
+ * %%
+ * Copyright (C) 2020 - 2021 Prolobjectlink Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package io.github.prolobjectlink.prolog.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.prolobjectlink.prolog.PrologColumns;
+import io.github.prolobjectlink.prolog.PrologCursor;
+import io.github.prolobjectlink.prolog.PrologEngine;
+import io.github.prolobjectlink.prolog.PrologQuery;
+import io.github.prolobjectlink.prolog.PrologTerm;
+
+/**
+ * Query solutions retrieval and results conversion parameterized by the
+ * solutions count.
+ * 
+ * @author Jose Zalacain
+ * @since 1.2
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryBenchmark {
+
+	private static final String GOAL = "fact(X, Y, Z)";
+
+	@Param({ "" })
+	public String provider;
+
+	@Param({ "1", "100", "10000" })
+	public int solutions;
+
+	private PrologEngine engine;
+
+	@Setup
+	public void setup() {
+		engine = BenchmarkSupport.provider(provider).newEngine();
+		BenchmarkSupport.facts(engine, solutions);
+	}
+
+	@Benchmark
+	public List<Map<String, PrologTerm>> all() {
+		PrologQuery query = engine.query(GOAL);
+		List<Map<String, PrologTerm>> all = query.all();
+		query.dispose();
+		return all;
+	}
+
+	@Benchmark
+	public List<List<Object>> allResults() {
+		PrologQuery query = engine.query(GOAL);
+		List<List<Object>> all = query.allResults();
+		query.dispose();
+		return all;
+	}
+
+	@Benchmark
+	public List<Map<String, Object>> allVariablesResults() {
+		PrologQuery query = engine.query(GOAL);
+		List<Map<String, Object>> all = query.allVariablesResults();
+		query.dispose();
+		return all;
+	}
+
+	@Benchmark
+	public PrologColumns allColumns() {
+		PrologQuery query = engine.query(GOAL);
+		PrologColumns all = query.allColumns();
+		query.dispose();
+		return all;
+	}
+
+	@Benchmark
+	public List<Map<String, PrologTerm>> distinctVariables() {
+		PrologQuery query = engine.query(GOAL);
+		List<Map<String, PrologTerm>> distinct = query.distinctVariables();
+		query.dispose();
+		return distinct;
+	}
+
+	@Benchmark
+	public List<Map<String, PrologTerm>> distinctLinearScan() {
+		// deduplication baseline, quadratic in the solutions count
+		PrologQuery query = engine.query(GOAL);
+		List<Map<String, PrologTerm>> distinct = new ArrayList<Map<String, PrologTerm>>();
+		for (Map<String, PrologTerm> solution : query.all()) {
+			if (!distinct.contains(solution)) {
+				distinct.add(solution);
+			}
+		}
+		query.dispose();
+		return distinct;
+	}
+
+	@Benchmark
+	public List<Map<String, PrologTerm>> firstSolution() {
+		// bounded fetch, the cost must not depend of the solutions count
+		PrologQuery query = engine.query(GOAL);
+		List<Map<String, PrologTerm>> one = query.nths(1);
+		query.dispose();
+		return one;
+	}
+
+	@Benchmark
+	public int cursor() {
+		int count = 0;
+		PrologCursor cursor = engine.query(GOAL).cursor();
+		while (cursor.hasNext()) {
+			cursor.next();
+			count++;
+		}
+		cursor.close();
+		return count;
+	}
+
+}
@@ -0,0 +1,114 @@
+/*-
+ * #%L
+ * prolobjectlink-jpi
+ * %%
+ * Copyright (C) 2020 - 2021 Prolobjectlink Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package io.github.prolobjectlink.prolog.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.prolobjectlink.prolog.PrologEngine;
+import io.github.prolobjectlink.prolog.PrologProvider;
+import io.github.prolobjectlink.prolog.PrologQuery;
+import io.github.prolobjectlink.prolog.PrologQueryBuilder;
+import io.github.prolobjectlink.prolog.PrologTerm;
+
+/**
+ * Query building with the engine query builder parameterized by the number of
+ * conjunctive goals. The built query is solved from the built terms and
+ * compared with the previous form that format the query and parse it again.
+ * 
+ * @author Jose Zalacain
+ * @since 1.2
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryBuilderBenchmark {
+
+	@Param({ "" })
+	public String provider;
+
+	@Param({ "1", "8", "64" })
+	public int goals;
+
+	private PrologEngine engine;
+	private PrologTerm[] terms;
+
+	@Setup
+	public void setup() {
+		PrologProvider p = BenchmarkSupport.provider(provider);
+		engine = p.newEngine();
+		terms = new PrologTerm[goals];
+		for (int i = 0; i < goals; i++) {
+			terms[i] = p.newStructure("goal" + i, p.newVariable("X", 0), p.newAtom("a" + i));
+			engine.assertz(p.newStructure("goal" + i, p.newAtom("x"), p.newAtom("a" + i)));
+		}
+	}
+
+	private PrologQueryBuilder build() {
+		PrologQueryBuilder builder = engine.newQueryBuilder();
+		builder.begin(terms[0]);
+		for (int i = 1; i < terms.length; i++) {
+			builder.comma(terms[i]);
+		}
+		return builder;
+	}
+
+	@Benchmark
+	public String queryString() {
+		return build().getQueryString();
+	}
+
+	@Benchmark
+	public boolean solveTerms() {
+		PrologQuery query = build().query();
+		boolean solution = query.hasSolution();
+		query.dispose();
+		return solution;
+	}
+
+	@Benchmark
+	public boolean solveString() {
+		PrologQuery query = engine.query(build().getQueryString());
+		boolean solution = query.hasSolution();
+		query.dispose();
+		return solution;
+	}
+
+}
@@ -0,0 +1,115 @@
+/*-
+ * #%L
+ * prolobjectlink-jpi
+ * %%
+ * Copyright (C) 2020 - 2021 Prolobjectlink Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package io.github.prolobjectlink.prolog.bench;
+
+import io.github.prolobjectlink.prolog.PrologTerm;
+
+/**
+ * Recursive compound unification and comparison as implemented before the
+ * explicit work stack in {@code AbstractCompounds}. Used as baseline by
+ * {@link CompoundsBenchmark} only, it overflow the Java stack for deep terms.
+ * 
+ * @author Jose Zalacain
+ * @since 1.2
+ */
+final class RecursiveCompounds {
+
+	private RecursiveCompounds() {
+	}
+
+	static int compare(PrologTerm thisCompound, PrologTerm otherCompound) {
+		if (!thisCompound.isCompound()) {
+			return thisCompound.compareTo(otherCompound);
+		}
+
+		if (!otherCompound.isCompound()) {
+			if (otherCompound.isEmptyList() && thisCompound.isEmptyList()) {
+				return 0;
+			}
+			return 1;
+		}
+
+		if (otherCompound.isEmptyList() && thisCompound.isEmptyList()) {
+			return 0;
+		}
+
+		if (thisCompound.getArity() < otherCompound.getArity()) {
+			return -1;
+		} else if (thisCompound.getArity() > otherCompound.getArity()) {
+			return 1;
+		}
+
+		int result = thisCompound.getFunctor().compareTo(otherCompound.getFunctor());
+		if (result < 0) {
+			return -1;
+		} else if (result > 0) {
+			return 1;
+		}
+
+		PrologTerm[] thisArguments = thisCompound.getArguments();
+		PrologTerm[] otherArguments = otherCompound.getArguments();
+		for (int i = 0; i < thisArguments.length; i++) {
+			PrologTerm thisArgument = thisArguments[i];
+			PrologTerm otherArgument = otherArguments[i];
+			if (thisArgument != null && otherArgument != null) {
+				result = compare(thisArgument, otherArgument);
+				if (result != 0) {
+					return result;
+				}
+			}
+		}
+		return 0;
+	}
+
+	static boolean unify(PrologTerm thisTerm, PrologTerm otherTerm) {
+		if (!thisTerm.isCompound()) {
+			return thisTerm.unify(otherTerm);
+		} else if (thisTerm == otherTerm) {
+			return true;
+		} else if (otherTerm.isVariable()) {
+			if (otherTerm == otherTerm.getTerm()) {
+				return true;
+			}
+			return unify(otherTerm.getTerm(), thisTerm);
+		} else if (otherTerm.isCompound()) {
+			if (thisTerm.getFunctor().equals(otherTerm.getFunctor()) && thisTerm.getArity() == otherTerm.getArity()) {
+				PrologTerm[] thisArguments = thisTerm.getArguments();
+				PrologTerm[] otherArguments = otherTerm.getArguments();
+				if (thisArguments.length == otherArguments.length) {
+					for (int i = 0; i < thisArguments.length; i++) {
+						if (thisArguments[i] != null && otherArguments[i] != null
+								&& !unify(thisArguments[i], otherArguments[i])) {
+							return false;
+						}
+					}
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+}
@@ -0,0 +1,124 @@
+/*-
+ * #%L
+ * prolobjectlink-jpi
+ * %%
+ * Copyright (C) 2020 - 2021 Prolobjectlink Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package io.github.prolobjectlink.prolog.bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.TearDown;
+
+import io.github.prolobjectlink.prolog.PrologEngine;
+import io.github.prolobjectlink.prolog.PrologFormat;
+import io.github.prolobjectlink.prolog.PrologProvider;
+
+/**
+ * Cold start and dump of a fact base using the text and the binary snapshot
+ * formats parameterized by the number of clauses.
+ * 
+ * @author Jose Zalacain
+ * @since 1.2
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class SnapshotBenchmark {
+
+	@Param({ "" })
+	public String provider;
+
+	@Param({ "100000", "1000000", "10000000" })
+	public int clauses;
+
+	private PrologProvider prologProvider;
+	private PrologEngine source;
+	private PrologEngine engine;
+	private File text;
+	private File binary;
+
+	@Setup(Level.Trial)
+	public void setupTrial() throws IOException {
+		prologProvider = BenchmarkSupport.provider(provider);
+		source = prologProvider.newEngine();
+		BenchmarkSupport.facts(source, clauses);
+		text = File.createTempFile("facts", ".pl");
+		binary = File.createTempFile("facts", ".bin");
+		source.persist(text.getPath(), PrologFormat.TEXT);
+		source.persist(binary.getPath(), PrologFormat.BINARY);
+	}
+
+	@Setup(Level.Invocation)
+	public void setupInvocation() {
+		engine = prologProvider.newEngine();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		source.dispose();
+		text.delete();
+		binary.delete();
+	}
+
+	@Benchmark
+	public PrologEngine consultText() {
+		engine.consult(text.getPath(), PrologFormat.TEXT);
+		return engine;
+	}
+
+	@Benchmark
+	public PrologEngine consultBinary() {
+		engine.consult(binary.getPath(), PrologFormat.BINARY);
+		return engine;
+	}
+
+	@Benchmark
+	public File persistText() {
+		source.persist(text.getPath(), PrologFormat.TEXT);
+		return text;
+	}
+
+	@Benchmark
+	public File persistBinary() {
+		source.persist(binary.getPath(), PrologFormat.BINARY);
+		return binary;
+	}
+
+}
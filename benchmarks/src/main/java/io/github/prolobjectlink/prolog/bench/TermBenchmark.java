@@ -0,0 +1,118 @@
+/*-
+ * #%L
+ * prolobjectlink-jpi
+ * %%
+ * Copyright (C) 2020 - 2021 Prolobjectlink Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package io.github.prolobjectlink.prolog.bench;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.prolobjectlink.prolog.PrologProvider;
+import io.github.prolobjectlink.prolog.PrologTerm;
+
+/**
+ * Unification and standard order comparison of compound terms parameterized
+ * by term depth and width.
+ * 
+ * @author Jose Zalacain
+ * @since 1.2
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TermBenchmark {
+
+	@Param({ "" })
+	public String provider;
+
+	@Param({ "1", "8", "64" })
+	public int depth;
+
+	@Param({ "2", "8" })
+	public int width;
+
+	private PrologTerm ground;
+	private PrologTerm copy;
+	private PrologTerm pattern;
+
+	@Setup
+	public void setup() {
+		PrologProvider p = BenchmarkSupport.provider(provider);
+		ground = BenchmarkSupport.compound(p, depth, width, false);
+		copy = BenchmarkSupport.compound(p, depth, width, false);
+		pattern = BenchmarkSupport.compound(p, depth, width, true);
+	}
+
+	@Benchmark
+	public boolean unifyGround() {
+		return ground.unify(copy);
+	}
+
+	@Benchmark
+	public boolean unifyPattern() {
+		return pattern.unify(ground);
+	}
+
+	@Benchmark
+	public int compareTo() {
+		return ground.compareTo(copy);
+	}
+
+	@Benchmark
+	public Map<String, PrologTerm> matchPattern() {
+		return pattern.match(ground);
+	}
+
+	@Benchmark
+	public int hashCodeGround() {
+		// cached after the first invocation for ground compounds
+		return ground.hashCode();
+	}
+
+	@Benchmark
+	public boolean equalsGround() {
+		return ground.equals(copy);
+	}
+
+	@Benchmark
+	public boolean equalsPattern() {
+		return ground.equals(pattern);
+	}
+
+}
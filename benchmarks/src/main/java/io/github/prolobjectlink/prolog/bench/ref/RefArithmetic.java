@@ -0,0 +1,225 @@
+/*-
+ * #%L
+ * prolobjectlink-jpi
+ * %%
+ * Copyright (C) 2020 - 2021 Prolobjectlink Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package io.github.prolobjectlink.prolog.bench.ref;
+
+import io.github.prolobjectlink.prolog.PrologError;
+import io.github.prolobjectlink.prolog.PrologNumber;
+import io.github.prolobjectlink.prolog.PrologTerm;
+
+/**
+ * Arithmetic evaluation of the reference engine. Integral values are
+ * evaluated as {@link Long} and floating values as {@link Double}. The
+ * division of two integral values is integral when the division is exact.
+ * 
+ * @author Jose Zalacain
+ * @since 1.2
+ */
+final class RefArithmetic {
+
+	private RefArithmetic() {
+	}
+
+	/**
+	 * Compare the values of two arithmetic expressions.
+	 * 
+	 * @param a first expression
+	 * @param b second expression
+	 * @return negative, zero or positive number if the first value is less,
+	 *         equal or greater than the second value
+	 */
+	static int compare(PrologTerm a, PrologTerm b) {
+		Number x = evaluate(a);
+		Number y = evaluate(b);
+		if (x instanceof Long && y instanceof Long) {
+			long i = x.longValue();
+			long j = y.longValue();
+			return i < j ? -1 : i == j ? 0 : 1;
+		}
+		return Double.compare(x.doubleValue(), y.doubleValue());
+	}
+
+	/**
+	 * Evaluate the given arithmetic expression.
+	 * 
+	 * @param expression expression to evaluate
+	 * @return the expression value
+	 * @throws PrologError if the expression is not evaluable
+	 */
+	static Number evaluate(PrologTerm expression) {
+		PrologTerm term = RefTerms.deref(expression);
+		if (term.isVariable()) {
+			throw new PrologError("Instantiation error evaluating " + term);
+		} else if (term.isNumber()) {
+			PrologNumber number = (PrologNumber) term;
+			if (RefTerms.isIntegral(term)) {
+				return Long.valueOf(number.getLongValue());
+			}
+			return Double.valueOf(number.getDoubleValue());
+		}
+		String functor = term.getFunctor();
+		switch (RefTerms.arity(term)) {
+		case 0:
+			return constant(functor);
+		case 1:
+			return unary(functor, evaluate(RefTerms.argument(term, 0)));
+		case 2:
+			return binary(functor, evaluate(RefTerms.argument(term, 0)), evaluate(RefTerms.argument(term, 1)));
+		default:
+			throw error(term);
+		}
+	}
+
+	private static PrologError error(Object term) {
+		return new PrologError("Type error, " + term + " is not evaluable");
+	}
+
+	private static Number constant(String name) {
+		if (name.equals("pi")) {
+			return Double.valueOf(Math.PI);
+		} else if (name.equals("e")) {
+			return Double.valueOf(Math.E);
+		} else if (name.equals("max_tagged_integer")) {
+			return Long.valueOf(Long.MAX_VALUE);
+		}
+		throw error(name);
+	}
+
+	private static Number unary(String name, Number x) {
+		boolean integral = x instanceof Long;
+		if (name.equals("-")) {
+			return integral ? (Number) Long.valueOf(-x.longValue()) : Double.valueOf(-x.doubleValue());
+		} else if (name.equals("+")) {
+			return x;
+		} else if (name.equals("abs")) {
+			return integral ? (Number) Long.valueOf(Math.abs(x.longValue())) : Double.valueOf(Math.abs(x.doubleValue()));
+		} else if (name.equals("sign")) {
+			return integral ? (Number) Long.valueOf(Long.signum(x.longValue()))
+					: Double.valueOf(Math.signum(x.doubleValue()));
+		} else if (name.equals("\\") && integral) {
+			return Long.valueOf(~x.longValue());
+		} else if (name.equals("float")) {
+			return Double.valueOf(x.doubleValue());
+		} else if (name.equals("integer")) {
+			return Long.valueOf(Math.round(x.doubleValue()));
+		} else if (name.equals("truncate")) {
+			return Long.valueOf(x.longValue());
+		} else if (name.equals("round")) {
+			return integral ? x : Long.valueOf(Math.round(x.doubleValue()));
+		} else if (name.equals("floor")) {
+			return integral ? x : Long.valueOf((long) Math.floor(x.doubleValue()));
+		} else if (name.equals("ceiling")) {
+			return integral ? x : Long.valueOf((long) Math.ceil(x.doubleValue()));
+		} else if (name.equals("sqrt")) {
+			return Double.valueOf(Math.sqrt(x.doubleValue()));
+		} else if (name.equals("sin")) {
+			return Double.valueOf(Math.sin(x.doubleValue()));
+		} else if (name.equals("cos")) {
+			return Double.valueOf(Math.cos(x.doubleValue()));
+		} else if (name.equals("exp")) {
+			return Double.valueOf(Math.exp(x.doubleValue()));
+		} else if (name.equals("log")) {
+			return Double.valueOf(Math.log(x.doubleValue()));
+		}
+		throw error(name + "/1");
+	}
+
+	private static Number binary(String name, Number x, Number y) {
+		boolean integral = x instanceof Long && y instanceof Long;
+		if (integral) {
+			long a = x.longValue();
+			long b = y.longValue();
+			if (name.equals("+")) {
+				return Long.valueOf(a + b);
+			} else if (name.equals("-")) {
+				return Long.valueOf(a - b);
+			} else if (name.equals("*")) {
+				return Long.valueOf(a * b);
+			} else if (name.equals("/")) {
+				checkDivisor(b);
+				return a % b == 0 ? (Number) Long.valueOf(a / b) : Double.valueOf((double) a / b);
+			} else if (name.equals("//")) {
+				checkDivisor(b);
+				return Long.valueOf(a / b);
+			} else if (name.equals("mod")) {
+				checkDivisor(b);
+				long m = a % b;
+				return Long.valueOf(m != 0 && (m ^ b) < 0 ? m + b : m);
+			} else if (name.equals("rem")) {
+				checkDivisor(b);
+				return Long.valueOf(a % b);
+			} else if (name.equals("div")) {
+				checkDivisor(b);
+				long q = a / b;
+				return Long.valueOf((a % b != 0 && (a ^ b) < 0) ? q - 1 : q);
+			} else if (name.equals("min")) {
+				return Long.valueOf(Math.min(a, b));
+			} else if (name.equals("max")) {
+				return Long.valueOf(Math.max(a, b));
+			} else if (name.equals(">>")) {
+				return Long.valueOf(a >> b);
+			} else if (name.equals("<<")) {
+				return Long.valueOf(a << b);
+			} else if (name.equals("/\\")) {
+				return Long.valueOf(a & b);
+			} else if (name.equals("\\/")) {
+				return Long.valueOf(a | b);
+			} else if (name.equals("xor")) {
+				return Long.valueOf(a ^ b);
+			} else if (name.equals("^") && b >= 0) {
+				long r = 1;
+				for (long i = 0; i < b; i++) {
+					r *= a;
+				}
+				return Long.valueOf(r);
+			}
+		}
+		double a = x.doubleValue();
+		double b = y.doubleValue();
+		if (name.equals("+")) {
+			return Double.valueOf(a + b);
+		} else if (name.equals("-")) {
+			return Double.valueOf(a - b);
+		} else if (name.equals("*")) {
+			return Double.valueOf(a * b);
+		} else if (name.equals("/")) {
+			return Double.valueOf(a / b);
+		} else if (name.equals("min")) {
+			return a <= b ? x : y;
+		} else if (name.equals("max")) {
+			return a >= b ? x : y;
+		} else if (name.equals("**") || name.equals("^")) {
+			return Double.valueOf(Math.pow(a, b));
+		}
+		throw error(name + "/2");
+	}
+
+	private static void checkDivisor(long divisor) {
+		if (divisor == 0) {
+			throw new PrologError("Evaluation error, zero divisor");
+		}
+	}
+
+}
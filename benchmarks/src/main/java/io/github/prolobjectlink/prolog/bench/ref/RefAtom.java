@@ -0,0 +1,110 @@
+/*-
+ * #%L
+ * prolobjectlink-jpi
+ * %%
+ * Copyright (C) 2020 - 2021 Prolobjectlink Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package io.github.prolobjectlink.prolog.bench.ref;
+
+import static io.github.prolobjectlink.prolog.PrologTermType.ATOM_TYPE;
+import static io.github.prolobjectlink.prolog.PrologTermType.FALSE_TYPE;
+import static io.github.prolobjectlink.prolog.PrologTermType.NIL_TYPE;
+import static io.github.prolobjectlink.prolog.PrologTermType.TRUE_TYPE;
+
+import io.github.prolobjectlink.prolog.PrologAtom;
+import io.github.prolobjectlink.prolog.PrologProvider;
+
+/**
+ * Reference atom. The special atoms {@code true}, {@code false}, {@code fail},
+ * {@code !} and {@code nil} are atoms with its own term type. The special atoms
+ * and the atoms interned by the provider are shared, so they are immutable.
+ * 
+ * @author Jose Zalacain
+ * @since 1.2
+ */
+final class RefAtom extends RefTerm implements PrologAtom {
+
+	private String value;
+
+	// true for the atoms shared by the provider
+	private volatile boolean shared;
+
+	RefAtom(PrologProvider provider, String value) {
+		this(ATOM_TYPE, provider, value);
+	}
+
+	RefAtom(int type, PrologProvider provider, String value) {
+		super(type, provider);
+		this.value = value;
+	}
+
+	public String getStringValue() {
+		return value;
+	}
+
+	public void setStringValue(String value) {
+		if (shared) {
+			throw new UnsupportedOperationException("setStringValue on shared atom " + this.value);
+		}
+		this.value = value;
+	}
+
+	/**
+	 * Mark this atom as shared by the provider.
+	 * 
+	 * @return this atom
+	 */
+	RefAtom share() {
+		shared = true;
+		return this;
+	}
+
+	public String getFunctor() {
+		return value;
+	}
+
+	@Override
+	public boolean isAtom() {
+		return true;
+	}
+
+	@Override
+	public boolean isAtomic() {
+		return true;
+	}
+
+	@Override
+	public boolean isNil() {
+		return type == NIL_TYPE;
+	}
+
+	@Override
+	public boolean isTrueType() {
+		return type == TRUE_TYPE;
+	}
+
+	@Override
+	public boolean isFalseType() {
+		return type == FALSE_TYPE;
+	}
+
+}
@@ -0,0 +1,50 @@
+/*-
+ * #%L
+ * prolobjectlink-jpi
+ * %%
+ * Copyright (C) 2020 - 2021 Prolobjectlink Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package io.github.prolobjectlink.prolog.bench.ref;
+
+import io.github.prolobjectlink.prolog.AbstractCompounds;
+import io.github.prolobjectlink.prolog.PrologProvider;
+
+/**
+ * Base class for the reference compound terms. Define the text representation
+ * shared by structures and lists. The structural equality and the cached hash
+ * code are inherited from {@link AbstractCompounds}.
+ * 
+ * @author Jose Zalacain
+ * @since 1.2
+ */
+abstract class RefCompound extends AbstractCompounds {
+
+	RefCompound(int type, PrologProvider provider) {
+		super(type, provider);
+	}
+
+	@Override
+	public final String toString() {
+		return RefFormatter.format(this);
+	}
+
+}
@@ -0,0 +1,69 @@
+/*-
+ * #%L
+ * prolobjectlink-jpi
+ * %%
+ * Copyright (C) 2020 - 2021 Prolobjectlink Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package io.github.prolobjectlink.prolog.bench.ref;
+
+import io.github.prolobjectlink.prolog.AbstractConverter;
+import io.github.prolobjectlink.prolog.PrologConverter;
+import io.github.prolobjectlink.prolog.PrologProvider;
+import io.github.prolobjectlink.prolog.PrologTerm;
+
+/**
+ * Reference terms converter. The reference provider native terms are the
+ * {@link PrologTerm} themselves, so the conversion is the identity.
+ * 
+ * @author Jose Zalacain
+ * @since 1.2
+ */
+final class RefConverter extends AbstractConverter<PrologTerm> implements PrologConverter<PrologTerm> {
+
+	public PrologTerm toTerm(PrologTerm term) {
+		return term;
+	}
+
+	public PrologTerm fromTerm(PrologTerm term) {
+		return term;
+	}
+
+	public PrologTerm[] fromTermArray(PrologTerm[] terms) {
+		return terms;
+	}
+
+	public PrologTerm fromTerm(PrologTerm head, PrologTerm[] body) {
+		if (body == null || body.length == 0) {
+			return head;
+		}
+		PrologTerm conjunction = body[body.length - 1];
+		for (int i = body.length - 2; i >= 0; i--) {
+			conjunction = provider.newStructure(",", body[i], conjunction);
+		}
+		return provider.newStructure(":-", head, conjunction);
+	}
+
+	public PrologProvider createProvider() {
+		return new RefProvider(this);
+	}
+
+}
@@ -0,0 +1,403 @@
+/*-
+ * #%L
+ * prolobjectlink-jpi
+ * %%
+ * Copyright (C) 2020 - 2021 Prolobjectlink Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package io.github.prolobjectlink.prolog.bench.ref;
+
+import static io.github.prolobjectlink.prolog.PrologLogger.IO;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import io.github.prolobjectlink.prolog.AbstractEngine;
+import io.github.prolobjectlink.prolog.PrologClause;
+import io.github.prolobjectlink.prolog.PrologEngine;
+import io.github.prolobjectlink.prolog.PrologIndicator;
+import io.github.prolobjectlink.prolog.PrologOperator;
+import io.github.prolobjectlink.prolog.PrologProgram;
+import io.github.prolobjectlink.prolog.PrologQuery;
+import io.github.prolobjectlink.prolog.PrologTerm;
+
+/**
+ * Reference in-memory engine. The program clauses are stored by predicate
+ * indicator in assertion order. The engine enable the program index so the
+ * goals with bound first argument only try the matching clauses. Every query
+ * see the clauses present when the goal was called (logical update view).
+ * 
+ * @author Jose Zalacain
+ * @since 1.2
+ */
+final class RefEngine extends AbstractEngine implements PrologEngine {
+
+	private final Map<String, List<RefClause>> program;
+	private int size;
+
+	RefEngine(RefProvider provider) {
+		super(provider);
+		this.program = new LinkedHashMap<String, List<RefClause>>();
+		setProgramIndexing(true);
+	}
+
+	/**
+	 * Snapshot of the clauses that can match the given goal.
+	 * 
+	 * @param goal goal to be resolved
+	 * @return candidates clauses in program order
+	 */
+	List<RefClause> candidates(PrologTerm goal) {
+		List<RefClause> clauses = program.get(goal.getIndicator());
+		if (clauses == null) {
+			return Collections.emptyList();
+		}
+		List<PrologClause> indexed = indexLookup(bound(goal));
+		if (indexed == null) {
+			return new ArrayList<RefClause>(clauses);
+		}
+		List<RefClause> candidates = new ArrayList<RefClause>(indexed.size());
+		for (PrologClause clause : indexed) {
+			candidates.add((RefClause) clause);
+		}
+		return candidates;
+	}
+
+	/**
+	 * Shallow copy of the goal with the arguments dereferenced, so the program
+	 * index see the values of the bound arguments.
+	 */
+	private PrologTerm bound(PrologTerm goal) {
+		if (!(goal instanceof RefStructure)) {
+			return goal;
+		}
+		RefStructure structure = (RefStructure) goal;
+		PrologTerm[] arguments = null;
+		for (int i = 0; i < structure.arguments.length; i++) {
+			PrologTerm argument = RefTerms.deref(structure.arguments[i]);
+			if (arguments == null && argument != structure.arguments[i]) {
+				arguments = structure.arguments.clone();
+			}
+			if (arguments != null) {
+				arguments[i] = argument;
+			}
+		}
+		return arguments == null ? goal : new RefStructure(provider, structure.functor, arguments);
+	}
+
+	private RefClause newClause(PrologTerm term) {
+		PrologTerm t = RefTerms.copy(provider, term, new HashMap<PrologTerm, PrologTerm>());
+		if (t.isCompound() && t.hasIndicator(":-", 2)) {
+			PrologTerm body = RefTerms.argument(t, 1);
+			return newClause(RefTerms.argument(t, 0), body.hasIndicator("true", 0) ? null : body);
+		}
+		return newClause(t, null);
+	}
+
+	private RefClause newClause(PrologTerm head, PrologTerm body) {
+		if (head.isVariable() || head.isNumber()) {
+			throw new IllegalArgumentException("The clause head " + head + " is not callable");
+		}
+		return new RefClause(provider, head, body);
+	}
+
+	private PrologTerm conjunction(PrologTerm[] goals) {
+		PrologTerm conjunction = null;
+		for (int i = goals.length - 1; i >= 0; i--) {
+			if (goals[i] != null) {
+				conjunction = conjunction == null ? goals[i] : provider.newStructure(",", goals[i], conjunction);
+			}
+		}
+		return conjunction;
+	}
+
+	private PrologTerm toClause(PrologTerm head, PrologTerm[] body) {
+		PrologTerm conjunction = conjunction(body);
+		return conjunction == null ? head : provider.newStructure(":-", head, conjunction);
+	}
+
+	private void add(RefClause clause, boolean first) {
+		String key = clause.getIndicator();
+		List<RefClause> clauses = program.get(key);
+		if (clauses == null) {
+			clauses = new ArrayList<RefClause>();
+			program.put(key, clauses);
+		}
+		if (first) {
+			clauses.add(0, clause);
+			indexAsserta(clause);
+		} else {
+			clauses.add(clause);
+			indexAssertz(clause);
+		}
+		size++;
+	}
+
+	void remove(RefClause clause) {
+		List<RefClause> clauses = program.get(clause.getIndicator());
+		if (clauses != null) {
+			for (int i = 0; i < clauses.size(); i++) {
+				if (clauses.get(i) == clause) {
+					clauses.remove(i);
+					indexRetract(clause);
+					size--;
+					break;
+				}
+			}
+		}
+	}
+
+	private RefClause find(PrologTerm term) {
+		RefClause clause = newClause(term);
+		PrologTerm body = clause.isRule() ? clause.getBody() : provider.prologTrue();
+		for (RefClause candidate : candidates(clause.getHead())) {
+			PrologTerm b = candidate.isRule() ? candidate.getBody() : provider.prologTrue();
+			if (RefUnifier.unifiable(provider.newStructure(":-", clause.getHead(), body),
+					provider.newStructure(":-", candidate.getHead(), b))) {
+				return candidate;
+			}
+		}
+		return null;
+	}
+
+	public void include(String path) {
+		Reader reader = null;
+		try {
+			reader = new BufferedReader(new FileReader(path));
+			include(reader);
+		} catch (IOException e) {
+			getLogger().error(getClass(), IO + " " + path, e);
+		} finally {
+			close(reader);
+		}
+	}
+
+	public void include(Reader reader) {
+		include(reader, null);
+	}
+
+	public void consult(String path) {
+		dispose();
+		include(path);
+	}
+
+	public void consult(Reader reader) {
+		dispose();
+		include(reader);
+	}
+
+	public void persist(String path) {
+		Writer writer = null;
+		try {
+			writer = new BufferedWriter(new FileWriter(path));
+			persist(writer);
+		} catch (IOException e) {
+			getLogger().error(getClass(), IO + " " + path, e);
+		} finally {
+			close(writer);
+		}
+	}
+
+	private void close(Closeable closeable) {
+		if (closeable != null) {
+			try {
+				closeable.close();
+			} catch (IOException e) {
+				getLogger().error(getClass(), IO, e);
+			}
+		}
+	}
+
+	public void abolish(String functor, int arity) {
+		List<RefClause> clauses = program.remove(functor + "/" + arity);
+		if (clauses != null) {
+			size -= clauses.size();
+			indexAbolish(functor, arity);
+		}
+	}
+
+	public void asserta(String stringClause) {
+		asserta(provider.parseTerm(stringClause));
+	}
+
+	public void asserta(PrologTerm term) {
+		add(newClause(term), true);
+	}
+
+	public void asserta(PrologTerm head, PrologTerm... body) {
+		asserta(toClause(head, body));
+	}
+
+	public void assertz(String stringClause) {
+		assertz(provider.parseTerm(stringClause));
+	}
+
+	public void assertz(PrologTerm term) {
+		add(newClause(term), false);
+	}
+
+	public void assertz(PrologTerm head, PrologTerm... body) {
+		assertz(toClause(head, body));
+	}
+
+	public boolean clause(String stringClause) {
+		return clause(provider.parseTerm(stringClause));
+	}
+
+	public boolean clause(PrologTerm term) {
+		return find(term) != null;
+	}
+
+	public boolean clause(PrologTerm head, PrologTerm... body) {
+		return clause(toClause(head, body));
+	}
+
+	public void retract(String stringClause) {
+		retract(provider.parseTerm(stringClause));
+	}
+
+	public void retract(PrologTerm term) {
+		RefClause clause = find(term);
+		if (clause != null) {
+			remove(clause);
+		}
+	}
+
+	public void retract(PrologTerm head, PrologTerm... body) {
+		retract(toClause(head, body));
+	}
+
+	public PrologQuery query(String stringQuery) {
+		return query(provider.parseTerm(stringQuery));
+	}
+
+	public PrologQuery query(PrologTerm term) {
+		return new RefQuery(this, term);
+	}
+
+	public PrologQuery query(PrologTerm[] terms) {
+		PrologTerm conjunction = conjunction(terms);
+		return query(conjunction != null ? conjunction : provider.prologTrue());
+	}
+
+	public PrologQuery query(PrologTerm term, PrologTerm... terms) {
+		PrologTerm[] goals = new PrologTerm[terms.length + 1];
+		goals[0] = term;
+		System.arraycopy(terms, 0, goals, 1, terms.length);
+		return query(goals);
+	}
+
+	public void operator(int priority, String specifier, String operator) {
+		((RefProvider) provider).getOperators().add(priority, specifier, operator);
+	}
+
+	public boolean currentOperator(int priority, String specifier, String operator) {
+		return ((RefProvider) provider).getOperators().contains(priority, specifier, operator);
+	}
+
+	public Set<PrologOperator> currentOperators() {
+		return ((RefProvider) provider).getOperators().all();
+	}
+
+	public boolean currentPredicate(String functor, int arity) {
+		String key = functor + "/" + arity;
+		return program.containsKey(key) || RefMachine.BUILT_INS.containsKey(key);
+	}
+
+	public Set<PrologIndicator> getBuiltIns() {
+		Set<PrologIndicator> builtIns = new HashSet<PrologIndicator>();
+		for (String key : RefMachine.BUILT_INS.keySet()) {
+			int slash = key.lastIndexOf('/');
+			builtIns.add(new RefIndicator(key.substring(0, slash), Integer.parseInt(key.substring(slash + 1))));
+		}
+		return builtIns;
+	}
+
+	public Set<PrologIndicator> getPredicates() {
+		Set<PrologIndicator> predicates = new HashSet<PrologIndicator>();
+		for (List<RefClause> clauses : program.values()) {
+			if (!clauses.isEmpty()) {
+				RefClause clause = clauses.get(0);
+				predicates.add(new RefIndicator(clause.getFunctor(), clause.getArity()));
+			}
+		}
+		return predicates;
+	}
+
+	public Iterator<PrologClause> iterator() {
+		List<PrologClause> clauses = new ArrayList<PrologClause>(size);
+		for (List<RefClause> list : program.values()) {
+			clauses.addAll(list);
+		}
+		return new PrologProgramIterator(clauses);
+	}
+
+	public int getProgramSize() {
+		return size;
+	}
+
+	public PrologProgram getProgram() {
+		return new RefProgram(this);
+	}
+
+	public List<String> verify() {
+		return Arrays.asList("OK");
+	}
+
+	public void dispose() {
+		program.clear();
+		size = 0;
+		invalidateProgramIndex();
+	}
+
+	public String getLicense() {
+		return "MIT";
+	}
+
+	public String getVersion() {
+		return "1.2";
+	}
+
+	public String getVendor() {
+		return "Prolobjectlink";
+	}
+
+	public String getName() {
+		return "Reference Prolog";
+	}
+
+}
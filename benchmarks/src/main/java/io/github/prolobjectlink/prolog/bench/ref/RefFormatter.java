@@ -0,0 +1,221 @@
+/*-
+ * #%L
+ * prolobjectlink-jpi
+ * %%
+ * Copyright (C) 2020 - 2021 Prolobjectlink Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package io.github.prolobjectlink.prolog.bench.ref;
+
+import io.github.prolobjectlink.prolog.PrologTerm;
+
+/**
+ * Write the reference terms using the standard Prolog syntax. The written
+ * text can be parsed back by the reference parser. Terms are written as
+ * arguments (priority 999) so they can be safely joined by commas. Atoms are
+ * quoted when needed and operators are written in operator notation.
+ * 
+ * @author Jose Zalacain
+ * @since 1.2
+ */
+final class RefFormatter {
+
+	private static final String SYMBOL_CHARS = "#$&*+-./:<=>?@^~\\";
+	private static final RefOperators OPERATORS = new RefOperators();
+
+	private RefFormatter() {
+	}
+
+	static String format(PrologTerm term) {
+		StringBuilder builder = new StringBuilder();
+		write(builder, term, 999);
+		return builder.toString();
+	}
+
+	static boolean isSymbol(char c) {
+		return SYMBOL_CHARS.indexOf(c) >= 0;
+	}
+
+	static boolean isAlphanumeric(char c) {
+		return Character.isLetterOrDigit(c) || c == '_';
+	}
+
+	private static void write(StringBuilder builder, PrologTerm term, int priority) {
+		PrologTerm x = RefTerms.deref(term);
+		if (x.isVariable()) {
+			builder.append(x.getFunctor());
+		} else if (x.isNumber()) {
+			writeNumber(builder, x, priority);
+		} else if (x.isEmptyList()) {
+			builder.append("[]");
+		} else if (!x.isCompound()) {
+			writeAtom(builder, x.getFunctor());
+		} else if (x instanceof RefList) {
+			writeList(builder, (RefList) x);
+		} else {
+			writeStructure(builder, x, priority);
+		}
+	}
+
+	private static void writeNumber(StringBuilder builder, PrologTerm number, int priority) {
+		String text = number.getFunctor();
+		if (text.charAt(0) == '-' && priority < 999) {
+			builder.append('(').append(text).append(')');
+		} else {
+			builder.append(text);
+		}
+	}
+
+	private static void writeList(StringBuilder builder, RefList list) {
+		builder.append('[');
+		write(builder, list.head, 999);
+		PrologTerm ptr = RefTerms.deref(list.tail);
+		while (ptr instanceof RefList) {
+			RefList cell = (RefList) ptr;
+			builder.append(", ");
+			write(builder, cell.head, 999);
+			ptr = RefTerms.deref(cell.tail);
+		}
+		if (!ptr.isEmptyList()) {
+			builder.append('|');
+			write(builder, ptr, 999);
+		}
+		builder.append(']');
+	}
+
+	private static void writeStructure(StringBuilder builder, PrologTerm structure, int priority) {
+		String functor = structure.getFunctor();
+		int arity = structure.getArity();
+		if (arity == 1 && functor.equals("{}")) {
+			builder.append('{');
+			write(builder, structure.getArgument(0), 1200);
+			builder.append('}');
+			return;
+		}
+		RefOperator operator = null;
+		if (arity == 0) {
+			writeAtom(builder, functor);
+			return;
+		} else if (arity == 2) {
+			operator = OPERATORS.infix(functor);
+		} else if (arity == 1) {
+			operator = OPERATORS.prefix(functor);
+			if (operator == null) {
+				operator = OPERATORS.postfix(functor);
+			}
+		}
+		if (operator == null) {
+			writeAtom(builder, functor);
+			builder.append('(');
+			for (int i = 0; i < arity; i++) {
+				if (i > 0) {
+					builder.append(", ");
+				}
+				write(builder, structure.getArgument(i), 999);
+			}
+			builder.append(')');
+			return;
+		}
+		boolean parenthesis = operator.getPriority() > priority;
+		if (parenthesis) {
+			builder.append('(');
+		}
+		if (arity == 2) {
+			write(builder, structure.getArgument(0), operator.getLeftPriority());
+			if (functor.equals(",")) {
+				builder.append(", ");
+			} else {
+				builder.append(' ');
+				writeAtom(builder, functor);
+				builder.append(' ');
+			}
+			write(builder, structure.getArgument(1), operator.getRightPriority());
+		} else if (operator.isPrefix()) {
+			writeAtom(builder, functor);
+			builder.append(' ');
+			write(builder, structure.getArgument(0), operator.getRightPriority());
+		} else {
+			write(builder, structure.getArgument(0), operator.getLeftPriority());
+			builder.append(' ');
+			writeAtom(builder, functor);
+		}
+		if (parenthesis) {
+			builder.append(')');
+		}
+	}
+
+	private static void writeAtom(StringBuilder builder, String atom) {
+		if (isSolo(atom) || isLetterAtom(atom) || isSymbolAtom(atom)) {
+			builder.append(atom);
+			return;
+		}
+		builder.append('\'');
+		for (int i = 0; i < atom.length(); i++) {
+			char c = atom.charAt(i);
+			switch (c) {
+			case '\'':
+				builder.append("\\'");
+				break;
+			case '\\':
+				builder.append("\\\\");
+				break;
+			case '\n':
+				builder.append("\\n");
+				break;
+			case '\t':
+				builder.append("\\t");
+				break;
+			default:
+				builder.append(c);
+			}
+		}
+		builder.append('\'');
+	}
+
+	private static boolean isSolo(String atom) {
+		return atom.equals("[]") || atom.equals("!") || atom.equals(";") || atom.equals("{}");
+	}
+
+	private static boolean isLetterAtom(String atom) {
+		if (atom.length() == 0 || !Character.isLowerCase(atom.charAt(0))) {
+			return false;
+		}
+		for (int i = 1; i < atom.length(); i++) {
+			if (!isAlphanumeric(atom.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isSymbolAtom(String atom) {
+		if (atom.length() == 0 || atom.equals(".")) {
+			return false;
+		}
+		for (int i = 0; i < atom.length(); i++) {
+			if (!isSymbol(atom.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+}
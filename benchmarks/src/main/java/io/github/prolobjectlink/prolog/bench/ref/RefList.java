@@ -0,0 +1,148 @@
+/*-
+ * #%L
+ * prolobjectlink-jpi
+ * %%
+ * Copyright (C) 2020 - 2021 Prolobjectlink Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package io.github.prolobjectlink.prolog.bench.ref;
+
+import static io.github.prolobjectlink.prolog.PrologTermType.LIST_TYPE;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import io.github.prolobjectlink.prolog.AbstractIterator;
+import io.github.prolobjectlink.prolog.PrologList;
+import io.github.prolobjectlink.prolog.PrologProvider;
+import io.github.prolobjectlink.prolog.PrologTerm;
+
+/**
+ * Reference non empty list build as a chain of head and tail cells. The list
+ * arguments are the list elements followed by the tail when the list is a
+ * partial list.
+ * 
+ * @author Jose Zalacain
+ * @since 1.2
+ */
+final class RefList extends RefCompound implements PrologList {
+
+	static final String FUNCTOR = ".";
+
+	final PrologTerm head;
+	final PrologTerm tail;
+
+	RefList(PrologProvider provider, PrologTerm head, PrologTerm tail) {
+		super(LIST_TYPE, provider);
+		this.head = head;
+		this.tail = tail;
+	}
+
+	public Iterator<PrologTerm> iterator() {
+		return new ListIterator(this);
+	}
+
+	public PrologTerm getHead() {
+		return head;
+	}
+
+	public PrologTerm getTail() {
+		return tail;
+	}
+
+	public boolean isEmpty() {
+		return false;
+	}
+
+	public void clear() {
+		throw new UnsupportedOperationException("clear");
+	}
+
+	public int size() {
+		int size = 0;
+		Iterator<PrologTerm> i = iterator();
+		while (i.hasNext()) {
+			i.next();
+			size++;
+		}
+		return size;
+	}
+
+	public PrologTerm[] getArguments() {
+		List<PrologTerm> elements = new ArrayList<PrologTerm>();
+		PrologTerm ptr = this;
+		while (ptr instanceof RefList) {
+			RefList cell = (RefList) ptr;
+			elements.add(cell.head);
+			ptr = RefTerms.deref(cell.tail);
+		}
+		if (!ptr.isEmptyList()) {
+			elements.add(ptr);
+		}
+		return elements.toArray(new PrologTerm[elements.size()]);
+	}
+
+	public int getArity() {
+		return 2;
+	}
+
+	public String getFunctor() {
+		return FUNCTOR;
+	}
+
+	public boolean isList() {
+		return true;
+	}
+
+	public boolean isStructure() {
+		return false;
+	}
+
+	public boolean isEmptyList() {
+		return false;
+	}
+
+	private static final class ListIterator extends AbstractIterator<PrologTerm> implements Iterator<PrologTerm> {
+
+		private PrologTerm ptr;
+
+		private ListIterator(RefList list) {
+			this.ptr = list;
+		}
+
+		public boolean hasNext() {
+			return ptr instanceof RefList;
+		}
+
+		public PrologTerm next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			RefList cell = (RefList) ptr;
+			ptr = RefTerms.deref(cell.tail);
+			return cell.head;
+		}
+
+	}
+
+}
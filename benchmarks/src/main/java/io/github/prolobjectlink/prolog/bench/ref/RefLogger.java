@@ -0,0 +1,47 @@
+/*-
+ * #%L
+ * prolobjectlink-jpi
+ * %%
+ * Copyright (C) 2020 - 2021 Prolobjectlink Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package io.github.prolobjectlink.prolog.bench.ref;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import io.github.prolobjectlink.prolog.AbstractLogger;
+import io.github.prolobjectlink.prolog.PrologLogger;
+
+/**
+ * Reference logger based on {@link java.util.logging}.
+ * 
+ * @author Jose Zalacain
+ * @since 1.2
+ */
+final class RefLogger extends AbstractLogger implements PrologLogger {
+
+	public void log(Object sender, Level level, Object message, Throwable throwable) {
+		String name = sender instanceof Class<?> ? ((Class<?>) sender).getName() : "" + sender;
+		Logger.getLogger(name).log(level, "" + message, throwable);
+	}
+
+}
@@ -0,0 +1,603 @@
+/*-
+ * #%L
+ * prolobjectlink-jpi
+ * %%
+ * Copyright (C) 2020 - 2021 Prolobjectlink Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package io.github.prolobjectlink.prolog.bench.ref;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.github.prolobjectlink.prolog.PrologError;
+import io.github.prolobjectlink.prolog.PrologNumber;
+import io.github.prolobjectlink.prolog.PrologProvider;
+import io.github.prolobjectlink.prolog.PrologTerm;
+
+/**
+ * SLD resolution machine of the reference engine. The machine keep the goals
+ * to be solved as a linked continuation, a choice points stack and a trail of
+ * bound variables. Every call to {@link #solve()} return the next solution of
+ * the goal and the solution values are read from the goal variables. The
+ * machine never recurse on the resolution, so deep recursions are only
+ * limited by the heap. Bindings are trailed only when exist choice points to
+ * backtrack.
+ * 
+ * @author Jose Zalacain
+ * @since 1.2
+ */
+final class RefMachine {
+
+	private static final int TRUE = 1;
+	private static final int FAIL = 2;
+	private static final int CUT = 3;
+	private static final int AND = 4;
+	private static final int OR = 5;
+	private static final int IF = 6;
+	private static final int NOT = 7;
+	private static final int CALL = 8;
+	private static final int UNIFY = 9;
+	private static final int NOT_UNIFY = 10;
+	private static final int EQUAL = 11;
+	private static final int NOT_EQUAL = 12;
+	private static final int LESS = 13;
+	private static final int GREATER = 14;
+	private static final int LESS_EQUAL = 15;
+	private static final int GREATER_EQUAL = 16;
+	private static final int IS = 17;
+	private static final int ARITHMETIC_EQUAL = 18;
+	private static final int ARITHMETIC_NOT_EQUAL = 19;
+	private static final int ARITHMETIC_LESS = 20;
+	private static final int ARITHMETIC_GREATER = 21;
+	private static final int ARITHMETIC_LESS_EQUAL = 22;
+	private static final int ARITHMETIC_GREATER_EQUAL = 23;
+	private static final int VAR = 24;
+	private static final int NONVAR = 25;
+	private static final int ATOM = 26;
+	private static final int NUMBER = 27;
+	private static final int INTEGER = 28;
+	private static final int FLOAT = 29;
+	private static final int ATOMIC = 30;
+	private static final int COMPOUND = 31;
+	private static final int IS_LIST = 32;
+	private static final int FINDALL = 33;
+	private static final int ASSERTA = 34;
+	private static final int ASSERTZ = 35;
+	private static final int RETRACT = 36;
+	private static final int ABOLISH = 37;
+	private static final int DECLARATION = 38;
+	private static final int FUNCTOR = 39;
+	private static final int ARG = 40;
+	private static final int UNIV = 41;
+	private static final int COPY_TERM = 42;
+	private static final int BETWEEN = 43;
+	private static final int CONSULT = 44;
+	private static final int OP = 45;
+	private static final int WRITE = 46;
+	private static final int NL = 47;
+
+	/** built-in predicates indicators */
+	static final Map<String, Integer> BUILT_INS = new HashMap<String, Integer>();
+
+	static {
+		BUILT_INS.put("true/0", TRUE);
+		BUILT_INS.put("otherwise/0", TRUE);
+		BUILT_INS.put("fail/0", FAIL);
+		BUILT_INS.put("false/0", FAIL);
+		BUILT_INS.put("!/0", CUT);
+		BUILT_INS.put(",/2", AND);
+		BUILT_INS.put(";/2", OR);
+		BUILT_INS.put("->/2", IF);
+		BUILT_INS.put("\\+/1", NOT);
+		BUILT_INS.put("call/1", CALL);
+		BUILT_INS.put("=/2", UNIFY);
+		BUILT_INS.put("\\=/2", NOT_UNIFY);
+		BUILT_INS.put("==/2", EQUAL);
+		BUILT_INS.put("\\==/2", NOT_EQUAL);
+		BUILT_INS.put("@</2", LESS);
+		BUILT_INS.put("@>/2", GREATER);
+		BUILT_INS.put("@=</2", LESS_EQUAL);
+		BUILT_INS.put("@>=/2", GREATER_EQUAL);
+		BUILT_INS.put("is/2", IS);
+		BUILT_INS.put("=:=/2", ARITHMETIC_EQUAL);
+		BUILT_INS.put("=\\=/2", ARITHMETIC_NOT_EQUAL);
+		BUILT_INS.put("</2", ARITHMETIC_LESS);
+		BUILT_INS.put(">/2", ARITHMETIC_GREATER);
+		BUILT_INS.put("=</2", ARITHMETIC_LESS_EQUAL);
+		BUILT_INS.put(">=/2", ARITHMETIC_GREATER_EQUAL);
+		BUILT_INS.put("var/1", VAR);
+		BUILT_INS.put("nonvar/1", NONVAR);
+		BUILT_INS.put("atom/1", ATOM);
+		BUILT_INS.put("number/1", NUMBER);
+		BUILT_INS.put("integer/1", INTEGER);
+		BUILT_INS.put("float/1", FLOAT);
+		BUILT_INS.put("atomic/1", ATOMIC);
+		BUILT_INS.put("compound/1", COMPOUND);
+		BUILT_INS.put("is_list/1", IS_LIST);
+		BUILT_INS.put("findall/3", FINDALL);
+		BUILT_INS.put("asserta/1", ASSERTA);
+		BUILT_INS.put("assertz/1", ASSERTZ);
+		BUILT_INS.put("assert/1", ASSERTZ);
+		BUILT_INS.put("retract/1", RETRACT);
+		BUILT_INS.put("abolish/1", ABOLISH);
+		BUILT_INS.put("dynamic/1", DECLARATION);
+		BUILT_INS.put("discontiguous/1", DECLARATION);
+		BUILT_INS.put("multifile/1", DECLARATION);
+		BUILT_INS.put("functor/3", FUNCTOR);
+		BUILT_INS.put("arg/3", ARG);
+		BUILT_INS.put("=../2", UNIV);
+		BUILT_INS.put("copy_term/2", COPY_TERM);
+		BUILT_INS.put("between/3", BETWEEN);
+		BUILT_INS.put("consult/1", CONSULT);
+		BUILT_INS.put("op/3", OP);
+		BUILT_INS.put("write/1", WRITE);
+		BUILT_INS.put("nl/0", NL);
+	}
+
+	private final RefEngine engine;
+	private final PrologProvider provider;
+	private final List<RefVariable> trail;
+	private final List<Choice> choices;
+	private Goal goals;
+	private boolean started;
+	private boolean exhausted;
+
+	/**
+	 * Create a machine to solve the given goal. The goal variables are bound
+	 * by the machine, so the caller should give a renamed copy of the goal
+	 * when the original variables must remain free.
+	 * 
+	 * @param engine engine with the program clauses
+	 * @param goal   goal to be solved
+	 */
+	RefMachine(RefEngine engine, PrologTerm goal) {
+		this.engine = engine;
+		this.provider = engine.getProvider();
+		this.trail = new ArrayList<RefVariable>();
+		this.choices = new ArrayList<Choice>();
+		this.goals = new Goal(goal, 0, null);
+	}
+
+	/**
+	 * Find the next solution of the goal.
+	 * 
+	 * @return true if a new solution was found, false if the goal don't have
+	 *         more solutions
+	 */
+	boolean solve() {
+		if (exhausted) {
+			return false;
+		}
+		if (started && !backtrack()) {
+			exhausted = true;
+			return false;
+		}
+		started = true;
+		if (run()) {
+			return true;
+		}
+		exhausted = true;
+		return false;
+	}
+
+	private boolean run() {
+		while (goals != null) {
+			Goal goal = goals;
+			goals = goal.next;
+			if (!step(goal) && !backtrack()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean backtrack() {
+		while (!choices.isEmpty()) {
+			Choice choice = choices.get(choices.size() - 1);
+			RefUnifier.undo(trail, choice.mark);
+			if (choice.clauses == null) {
+				pop();
+				goals = choice.goals;
+				return true;
+			} else if (resume(choice)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void cut(int height) {
+		if (choices.size() > height) {
+			choices.subList(height, choices.size()).clear();
+		}
+		if (choices.isEmpty()) {
+			trail.clear();
+		}
+	}
+
+	private void pop() {
+		choices.remove(choices.size() - 1);
+		if (choices.isEmpty()) {
+			// without choice points the bindings are never undone
+			trail.clear();
+		}
+	}
+
+	private List<RefVariable> trail() {
+		return choices.isEmpty() ? null : trail;
+	}
+
+	private boolean unify(PrologTerm a, PrologTerm b) {
+		return RefUnifier.unify(a, b, trail());
+	}
+
+	private void alternative(Goal alternative) {
+		choices.add(new Choice(alternative, trail.size()));
+	}
+
+	private boolean resume(Choice choice) {
+		List<RefClause> clauses = choice.clauses;
+		while (choice.index < clauses.size()) {
+			RefClause clause = clauses.get(choice.index++);
+			RefUnifier.undo(trail, choice.mark);
+			PrologTerm head = clause.getHead();
+			PrologTerm body = clause.getBody();
+			if (!clause.isGround()) {
+				Map<PrologTerm, PrologTerm> variables = new HashMap<PrologTerm, PrologTerm>();
+				head = RefTerms.copy(provider, head, variables);
+				body = body != null ? RefTerms.copy(provider, body, variables) : null;
+			}
+			if (RefUnifier.unify(choice.goal, head, trail)) {
+				if (choice.index == clauses.size()) {
+					// last alternative, the choice point is no longer needed
+					pop();
+				}
+				goals = body != null ? new Goal(body, choice.height, choice.goals) : choice.goals;
+				return true;
+			}
+		}
+		RefUnifier.undo(trail, choice.mark);
+		pop();
+		return false;
+	}
+
+	private boolean step(Goal goal) {
+		if (goal.term == null) {
+			cut(goal.cut);
+			return true;
+		}
+		PrologTerm term = RefTerms.deref(goal.term);
+		if (term.isVariable()) {
+			throw new PrologError("Instantiation error calling " + term);
+		} else if (term.isNumber()) {
+			throw new PrologError("Type error calling the not callable term " + term);
+		}
+		Integer builtIn = BUILT_INS.get(term.getIndicator());
+		if (builtIn == null) {
+			return call(term, goal);
+		}
+		switch (builtIn.intValue()) {
+		case TRUE:
+			return true;
+		case FAIL:
+			return false;
+		case CUT:
+			cut(goal.cut);
+			return true;
+		case AND:
+			goals = new Goal(arg(term, 0), goal.cut, new Goal(arg(term, 1), goal.cut, goals));
+			return true;
+		case OR:
+			PrologTerm left = RefTerms.deref(arg(term, 0));
+			if (left.isCompound() && left.hasIndicator("->", 2)) {
+				ifThenElse(arg(left, 0), arg(left, 1), arg(term, 1), goal.cut);
+			} else {
+				alternative(new Goal(arg(term, 1), goal.cut, goals));
+				goals = new Goal(left, goal.cut, goals);
+			}
+			return true;
+		case IF:
+			ifThenElse(arg(term, 0), arg(term, 1), provider.prologFail(), goal.cut);
+			return true;
+		case NOT:
+			ifThenElse(arg(term, 0), provider.prologFail(), provider.prologTrue(), goal.cut);
+			return true;
+		case CALL:
+			goals = new Goal(arg(term, 0), choices.size(), goals);
+			return true;
+		case UNIFY:
+			return unify(arg(term, 0), arg(term, 1));
+		case NOT_UNIFY:
+			return !RefUnifier.unifiable(arg(term, 0), arg(term, 1));
+		case EQUAL:
+			return RefTerms.compare(arg(term, 0), arg(term, 1)) == 0;
+		case NOT_EQUAL:
+			return RefTerms.compare(arg(term, 0), arg(term, 1)) != 0;
+		case LESS:
+			return RefTerms.compare(arg(term, 0), arg(term, 1)) < 0;
+		case GREATER:
+			return RefTerms.compare(arg(term, 0), arg(term, 1)) > 0;
+		case LESS_EQUAL:
+			return RefTerms.compare(arg(term, 0), arg(term, 1)) <= 0;
+		case GREATER_EQUAL:
+			return RefTerms.compare(arg(term, 0), arg(term, 1)) >= 0;
+		case IS:
+			return unify(arg(term, 0), toTerm(RefArithmetic.evaluate(arg(term, 1))));
+		case ARITHMETIC_EQUAL:
+			return RefArithmetic.compare(arg(term, 0), arg(term, 1)) == 0;
+		case ARITHMETIC_NOT_EQUAL:
+			return RefArithmetic.compare(arg(term, 0), arg(term, 1)) != 0;
+		case ARITHMETIC_LESS:
+			return RefArithmetic.compare(arg(term, 0), arg(term, 1)) < 0;
+		case ARITHMETIC_GREATER:
+			return RefArithmetic.compare(arg(term, 0), arg(term, 1)) > 0;
+		case ARITHMETIC_LESS_EQUAL:
+			return RefArithmetic.compare(arg(term, 0), arg(term, 1)) <= 0;
+		case ARITHMETIC_GREATER_EQUAL:
+			return RefArithmetic.compare(arg(term, 0), arg(term, 1)) >= 0;
+		case VAR:
+			return arg(term, 0).isVariable();
+		case NONVAR:
+			return !arg(term, 0).isVariable();
+		case ATOM:
+			return arg(term, 0).isAtom();
+		case NUMBER:
+			return arg(term, 0).isNumber();
+		case INTEGER:
+			return arg(term, 0).isNumber() && RefTerms.isIntegral(arg(term, 0));
+		case FLOAT:
+			return arg(term, 0).isNumber() && !RefTerms.isIntegral(arg(term, 0));
+		case ATOMIC:
+			return arg(term, 0).isAtomic();
+		case COMPOUND:
+			return arg(term, 0).isCompound();
+		case IS_LIST:
+			return isList(arg(term, 0));
+		case FINDALL:
+			return unify(arg(term, 2), findall(arg(term, 0), arg(term, 1)));
+		case ASSERTA:
+			engine.asserta(arg(term, 0));
+			return true;
+		case ASSERTZ:
+			engine.assertz(arg(term, 0));
+			return true;
+		case RETRACT:
+			return retract(arg(term, 0));
+		case ABOLISH:
+			PrologTerm indicator = arg(term, 0);
+			engine.abolish(arg(indicator, 0).getFunctor(), ((PrologNumber) arg(indicator, 1)).getIntegerValue());
+			return true;
+		case DECLARATION:
+			return true;
+		case FUNCTOR:
+			return functor(arg(term, 0), arg(term, 1), arg(term, 2));
+		case ARG:
+			PrologTerm compound = arg(term, 1);
+			int index = ((PrologNumber) arg(term, 0)).getIntegerValue();
+			return index > 0 && index <= RefTerms.arity(compound)
+					&& unify(arg(term, 2), RefTerms.argument(compound, index - 1));
+		case UNIV:
+			return univ(arg(term, 0), arg(term, 1));
+		case COPY_TERM:
+			return unify(arg(term, 1), RefTerms.copy(provider, arg(term, 0), new HashMap<PrologTerm, PrologTerm>()));
+		case BETWEEN:
+			return between(term, goal);
+		case CONSULT:
+			engine.include(arg(term, 0).getFunctor());
+			return true;
+		case OP:
+			PrologTerm priority = arg(term, 0);
+			engine.operator(((PrologNumber) priority).getIntegerValue(), arg(term, 1).getFunctor(),
+					arg(term, 2).getFunctor());
+			return true;
+		case WRITE:
+			System.out.print(RefTerms.copy(provider, arg(term, 0), null));
+			return true;
+		case NL:
+			System.out.println();
+			return true;
+		default:
+			return false;
+		}
+	}
+
+	private PrologTerm arg(PrologTerm term, int index) {
+		return RefTerms.deref(RefTerms.argument(term, index));
+	}
+
+	private boolean call(PrologTerm term, Goal goal) {
+		List<RefClause> clauses = engine.candidates(term);
+		if (clauses.isEmpty()) {
+			return false;
+		}
+		Choice choice = new Choice(term, clauses, goal.next, trail.size(), choices.size());
+		choices.add(choice);
+		return resume(choice);
+	}
+
+	private void ifThenElse(PrologTerm condition, PrologTerm then, PrologTerm otherwise, int cut) {
+		int height = choices.size();
+		alternative(new Goal(otherwise, cut, goals));
+		goals = new Goal(condition, height + 1, new Goal(null, height, new Goal(then, cut, goals)));
+	}
+
+	private boolean between(PrologTerm term, Goal goal) {
+		long low = RefArithmetic.evaluate(arg(term, 0)).longValue();
+		long high = RefArithmetic.evaluate(arg(term, 1)).longValue();
+		PrologTerm x = arg(term, 2);
+		if (!x.isVariable()) {
+			long value = ((PrologNumber) x).getLongValue();
+			return low <= value && value <= high;
+		} else if (low > high) {
+			return false;
+		} else if (low < high) {
+			PrologTerm next = new RefStructure(provider, "between", toTerm(Long.valueOf(low + 1)), arg(term, 1), x);
+			alternative(new Goal(next, goal.cut, goals));
+		}
+		return unify(x, toTerm(Long.valueOf(low)));
+	}
+
+	private PrologTerm findall(PrologTerm template, PrologTerm goal) {
+		Map<PrologTerm, PrologTerm> variables = new HashMap<PrologTerm, PrologTerm>();
+		PrologTerm t = RefTerms.copy(provider, template, variables);
+		RefMachine machine = new RefMachine(engine, RefTerms.copy(provider, goal, variables));
+		List<PrologTerm> results = new ArrayList<PrologTerm>();
+		while (machine.solve()) {
+			results.add(RefTerms.copy(provider, t, new HashMap<PrologTerm, PrologTerm>()));
+		}
+		return RefTerms.list(provider, results, provider.prologEmpty());
+	}
+
+	private boolean retract(PrologTerm term) {
+		PrologTerm head = term;
+		PrologTerm body = provider.prologTrue();
+		if (term.isCompound() && term.hasIndicator(":-", 2)) {
+			head = arg(term, 0);
+			body = arg(term, 1);
+		}
+		List<RefVariable> local = new ArrayList<RefVariable>();
+		for (RefClause clause : engine.candidates(head)) {
+			Map<PrologTerm, PrologTerm> variables = new HashMap<PrologTerm, PrologTerm>();
+			PrologTerm h = RefTerms.copy(provider, clause.getHead(), variables);
+			PrologTerm b = clause.isRule() ? RefTerms.copy(provider, clause.getBody(), variables)
+					: provider.prologTrue();
+			if (RefUnifier.unify(head, h, local) && RefUnifier.unify(body, b, local)) {
+				engine.remove(clause);
+				if (!choices.isEmpty()) {
+					trail.addAll(local);
+				}
+				return true;
+			}
+			RefUnifier.undo(local, 0);
+		}
+		return false;
+	}
+
+	private boolean functor(PrologTerm term, PrologTerm name, PrologTerm arity) {
+		if (!term.isVariable()) {
+			PrologTerm functor = term.isCompound() || !term.isNumber() ? provider.newAtom(term.getFunctor()) : term;
+			return unify(name, functor) && unify(arity, toTerm(Long.valueOf(RefTerms.arity(term))));
+		}
+		int n = ((PrologNumber) arity).getIntegerValue();
+		if (n == 0) {
+			return unify(term, name);
+		}
+		PrologTerm[] arguments = new PrologTerm[n];
+		for (int i = 0; i < n; i++) {
+			arguments[i] = new RefVariable(provider, "_", i);
+		}
+		return unify(term, provider.newStructure(name.getFunctor(), arguments));
+	}
+
+	private boolean univ(PrologTerm term, PrologTerm list) {
+		if (!term.isVariable()) {
+			List<PrologTerm> elements = new ArrayList<PrologTerm>();
+			if (term.isCompound()) {
+				elements.add(provider.newAtom(term.getFunctor()));
+				for (int i = 0; i < RefTerms.arity(term); i++) {
+					elements.add(RefTerms.argument(term, i));
+				}
+			} else {
+				elements.add(term);
+			}
+			return unify(list, RefTerms.list(provider, elements, provider.prologEmpty()));
+		}
+		List<PrologTerm> elements = new ArrayList<PrologTerm>();
+		PrologTerm ptr = list;
+		while (ptr instanceof RefList) {
+			elements.add(RefTerms.deref(((RefList) ptr).head));
+			ptr = RefTerms.deref(((RefList) ptr).tail);
+		}
+		if (elements.isEmpty() || !ptr.isEmptyList()) {
+			throw new PrologError("Instantiation error in =.. with " + list);
+		}
+		PrologTerm[] arguments = elements.subList(1, elements.size()).toArray(new PrologTerm[elements.size() - 1]);
+		return unify(term, provider.newStructure(elements.get(0).getFunctor(), arguments));
+	}
+
+	private boolean isList(PrologTerm term) {
+		PrologTerm ptr = term;
+		while (ptr instanceof RefList) {
+			ptr = RefTerms.deref(((RefList) ptr).tail);
+		}
+		return ptr.isEmptyList();
+	}
+
+	private PrologTerm toTerm(Number number) {
+		if (number instanceof Double) {
+			return provider.newDouble(number);
+		}
+		long value = number.longValue();
+		if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+			return provider.newInteger(number);
+		}
+		return provider.newLong(number);
+	}
+
+	/**
+	 * Goals continuation cell. A cell without term is a cut barrier that cut
+	 * the choice points to the given height.
+	 */
+	private static final class Goal {
+
+		private final PrologTerm term;
+		private final int cut;
+		private final Goal next;
+
+		private Goal(PrologTerm term, int cut, Goal next) {
+			this.term = term;
+			this.cut = cut;
+			this.next = next;
+		}
+
+	}
+
+	/**
+	 * Choice point. A choice point with clauses try the remaining clauses for
+	 * the goal and a choice point without clauses resume the alternative goals.
+	 */
+	private static final class Choice {
+
+		private final PrologTerm goal;
+		private final List<RefClause> clauses;
+		private final Goal goals;
+		private final int mark;
+		private final int height;
+		private int index;
+
+		private Choice(Goal goals, int mark) {
+			this(null, null, goals, mark, 0);
+		}
+
+		private Choice(PrologTerm goal, List<RefClause> clauses, Goal goals, int mark, int height) {
+			this.goal = goal;
+			this.clauses = clauses;
+			this.goals = goals;
+			this.mark = mark;
+			this.height = height;
+		}
+
+	}
+
+}
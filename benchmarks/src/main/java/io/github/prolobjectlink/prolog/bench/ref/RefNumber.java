@@ -0,0 +1,109 @@
+/*-
+ * #%L
+ * prolobjectlink-jpi
+ * %%
+ * Copyright (C) 2020 - 2021 Prolobjectlink Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package io.github.prolobjectlink.prolog.bench.ref;
+
+import io.github.prolobjectlink.prolog.PrologDouble;
+import io.github.prolobjectlink.prolog.PrologFloat;
+import io.github.prolobjectlink.prolog.PrologInteger;
+import io.github.prolobjectlink.prolog.PrologLong;
+import io.github.prolobjectlink.prolog.PrologNumber;
+import io.github.prolobjectlink.prolog.PrologProvider;
+
+/**
+ * Base class for the reference numbers. The number value is hold as a
+ * {@link Number} and the concrete numbers only define the number type.
+ * 
+ * @author Jose Zalacain
+ * @since 1.2
+ */
+abstract class RefNumber extends RefTerm implements PrologNumber {
+
+	final Number value;
+
+	RefNumber(int type, PrologProvider provider, Number value) {
+		super(type, provider);
+		this.value = value;
+	}
+
+	public final int getIntegerValue() {
+		return value.intValue();
+	}
+
+	public final long getLongValue() {
+		return value.longValue();
+	}
+
+	public final float getFloatValue() {
+		return value.floatValue();
+	}
+
+	public final double getDoubleValue() {
+		return value.doubleValue();
+	}
+
+	public final PrologFloat getPrologFloat() {
+		return provider.newFloat(value);
+	}
+
+	public final PrologInteger getPrologInteger() {
+		return provider.newInteger(value);
+	}
+
+	public final PrologDouble getPrologDouble() {
+		return provider.newDouble(value);
+	}
+
+	public final PrologLong getPrologLong() {
+		return provider.newLong(value);
+	}
+
+	public final String getFunctor() {
+		return String.valueOf(value);
+	}
+
+	/**
+	 * True if the number is an integral number (integer or long).
+	 * 
+	 * @return true if the number is an integral number
+	 */
+	abstract boolean isIntegral();
+
+	@Override
+	public final boolean isNumber() {
+		return true;
+	}
+
+	@Override
+	public final boolean isAtomic() {
+		return true;
+	}
+
+	@Override
+	public final boolean isEvaluable() {
+		return true;
+	}
+
+}
@@ -0,0 +1,128 @@
+/*-
+ * #%L
+ * prolobjectlink-jpi
+ * %%
+ * Copyright (C) 2020 - 2021 Prolobjectlink Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package io.github.prolobjectlink.prolog.bench.ref;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import io.github.prolobjectlink.prolog.PrologOperator;
+
+/**
+ * Operators table used by the reference parser and formatter. The default
+ * table contains the standard operators. Every name can be defined at the
+ * same time as prefix, infix and postfix operator.
+ * 
+ * @author Jose Zalacain
+ * @since 1.2
+ */
+final class RefOperators {
+
+	private final Map<String, RefOperator> prefix;
+	private final Map<String, RefOperator> infix;
+	private final Map<String, RefOperator> postfix;
+
+	RefOperators() {
+		prefix = new HashMap<String, RefOperator>();
+		infix = new HashMap<String, RefOperator>();
+		postfix = new HashMap<String, RefOperator>();
+		add(1200, "xfx", ":-", "-->");
+		add(1200, "fx", ":-", "?-");
+		add(1150, "fx", "dynamic", "discontiguous", "initialization", "multifile");
+		add(1100, "xfy", ";", "|");
+		add(1050, "xfy", "->", "*->");
+		add(1000, "xfy", ",");
+		add(900, "fy", "\\+");
+		add(700, "xfx", "=", "\\=", "==", "\\==", "@<", "@>", "@=<", "@>=", "=..", "is", "=:=", "=\\=", "<", ">",
+				"=<", ">=");
+		add(600, "xfy", ":");
+		add(500, "yfx", "+", "-", "/\\", "\\/", "xor");
+		add(400, "yfx", "*", "/", "//", "rem", "mod", "div", "<<", ">>");
+		add(200, "xfx", "**");
+		add(200, "xfy", "^");
+		add(200, "fy", "-", "+", "\\");
+	}
+
+	RefOperators(RefOperators operators) {
+		prefix = new HashMap<String, RefOperator>(operators.prefix);
+		infix = new HashMap<String, RefOperator>(operators.infix);
+		postfix = new HashMap<String, RefOperator>(operators.postfix);
+	}
+
+	private void add(int priority, String specifier, String... operators) {
+		for (String operator : operators) {
+			add(priority, specifier, operator);
+		}
+	}
+
+	/**
+	 * Define an operator. A zero priority remove the operator definition.
+	 * 
+	 * @param priority  operator priority from 0 to 1200
+	 * @param specifier operator specifier
+	 * @param operator  operator name
+	 */
+	synchronized void add(int priority, String specifier, String operator) {
+		RefOperator definition = new RefOperator(priority, specifier, operator);
+		Map<String, RefOperator> table = infix;
+		if (definition.isPrefix()) {
+			table = prefix;
+		} else if (definition.isPostfix()) {
+			table = postfix;
+		}
+		if (priority == 0) {
+			table.remove(operator);
+		} else {
+			table.put(operator, definition);
+		}
+	}
+
+	synchronized RefOperator prefix(String operator) {
+		return prefix.get(operator);
+	}
+
+	synchronized RefOperator infix(String operator) {
+		return infix.get(operator);
+	}
+
+	synchronized RefOperator postfix(String operator) {
+		return postfix.get(operator);
+	}
+
+	synchronized boolean contains(int priority, String specifier, String operator) {
+		return all().contains(new RefOperator(priority, specifier, operator));
+	}
+
+	synchronized Set<PrologOperator> all() {
+		Set<PrologOperator> operators = new HashSet<PrologOperator>();
+		operators.addAll(prefix.values());
+		operators.addAll(infix.values());
+		operators.addAll(postfix.values());
+		return operators;
+	}
+
+}
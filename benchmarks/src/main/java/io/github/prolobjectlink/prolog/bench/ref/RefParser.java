@@ -0,0 +1,477 @@
+/*-
+ * #%L
+ * prolobjectlink-jpi
+ * %%
+ * Copyright (C) 2020 - 2021 Prolobjectlink Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package io.github.prolobjectlink.prolog.bench.ref;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.github.prolobjectlink.prolog.PrologProvider;
+import io.github.prolobjectlink.prolog.PrologTerm;
+import io.github.prolobjectlink.prolog.SyntaxError;
+
+/**
+ * Operator precedence parser for the reference provider. Parse one term from
+ * a string using the standard Prolog syntax and the given operators table. The
+ * parsed text can end with an optional end dot. Named variables are shared in
+ * the parsed term and every anonymous variable is a fresh variable. Double
+ * quoted strings are parsed as atoms.
+ * 
+ * @author Jose Zalacain
+ * @since 1.2
+ */
+final class RefParser {
+
+	private static final int EOF = 0;
+	private static final int ATOM = 1;
+	private static final int QUOTED = 2;
+	private static final int VARIABLE = 3;
+	private static final int INTEGER = 4;
+	private static final int FLOAT = 5;
+	private static final int PUNCTUATION = 6;
+	private static final int END = 7;
+
+	private final PrologProvider provider;
+	private final RefOperators operators;
+	private final Map<String, RefVariable> variables;
+	private final String text;
+	private int offset;
+
+	// current token
+	private int kind;
+	private String value;
+	private boolean layout;
+
+	// priority of the last parsed term
+	private int priority;
+
+	RefParser(PrologProvider provider, RefOperators operators, String text) {
+		this.variables = new HashMap<String, RefVariable>();
+		this.operators = operators;
+		this.provider = provider;
+		this.text = text;
+		next();
+	}
+
+	/**
+	 * Parse the text as one term optionally followed by the end dot.
+	 * 
+	 * @return the parsed term
+	 * @throws SyntaxError if the text is not a valid term
+	 */
+	PrologTerm parseTerm() {
+		PrologTerm term = parse(1200);
+		if (kind == END) {
+			next();
+		}
+		if (kind != EOF) {
+			throw error();
+		}
+		return term;
+	}
+
+	/**
+	 * Parse the text as one term and split the top level conjunctions.
+	 * 
+	 * @return the parsed conjunction members
+	 * @throws SyntaxError if the text is not a valid term
+	 */
+	PrologTerm[] parseTerms() {
+		List<PrologTerm> terms = new ArrayList<PrologTerm>();
+		PrologTerm ptr = parseTerm();
+		while (ptr.isCompound() && ptr.hasIndicator(",", 2)) {
+			terms.add(ptr.getArgument(0));
+			ptr = ptr.getArgument(1);
+		}
+		terms.add(ptr);
+		return terms.toArray(new PrologTerm[terms.size()]);
+	}
+
+	private SyntaxError error() {
+		return new SyntaxError(text + " at " + offset);
+	}
+
+	private boolean isPunctuation(String punctuation) {
+		return kind == PUNCTUATION && value.equals(punctuation);
+	}
+
+	private void expect(String punctuation) {
+		if (!isPunctuation(punctuation)) {
+			throw error();
+		}
+		next();
+	}
+
+	private PrologTerm parse(int max) {
+		PrologTerm left = parsePrimary(max);
+		int leftPriority = priority;
+		while (true) {
+			String name = null;
+			int limit = max;
+			if (kind == ATOM) {
+				name = value;
+				// arguments like f(a :- b) are accepted as most systems do
+				limit = max == 999 ? 1200 : max;
+			} else if (isPunctuation(",")) {
+				name = ",";
+			} else if (isPunctuation("|")) {
+				name = ";";
+			} else {
+				break;
+			}
+			RefOperator operator = operators.infix(name);
+			if (operator != null && operator.getPriority() <= limit && leftPriority <= operator.getLeftPriority()) {
+				next();
+				PrologTerm right = parse(operator.getRightPriority());
+				left = new RefStructure(provider, name, left, right);
+				leftPriority = operator.getPriority();
+				continue;
+			}
+			operator = operators.postfix(name);
+			if (operator != null && operator.getPriority() <= max && leftPriority <= operator.getLeftPriority()) {
+				next();
+				left = new RefStructure(provider, name, left);
+				leftPriority = operator.getPriority();
+				continue;
+			}
+			break;
+		}
+		priority = leftPriority;
+		return left;
+	}
+
+	private PrologTerm parsePrimary(int max) {
+		priority = 0;
+		String token = value;
+		switch (kind) {
+		case INTEGER:
+			next();
+			return integer(token);
+		case FLOAT:
+			next();
+			return provider.newDouble(Double.valueOf(token));
+		case VARIABLE:
+			next();
+			return variable(token);
+		case QUOTED:
+			next();
+			if (isPunctuation("(") && !layout) {
+				return compound(token);
+			}
+			return atom(token);
+		case PUNCTUATION:
+			next();
+			if (token.equals("(")) {
+				PrologTerm term = parse(1200);
+				expect(")");
+				priority = 0;
+				return term;
+			} else if (token.equals("[")) {
+				return list();
+			} else if (token.equals("{")) {
+				if (isPunctuation("}")) {
+					next();
+					return atom("{}");
+				}
+				PrologTerm term = parse(1200);
+				expect("}");
+				priority = 0;
+				return new RefStructure(provider, "{}", term);
+			}
+			throw error();
+		case ATOM:
+			next();
+			return name(token, max);
+		default:
+			throw error();
+		}
+	}
+
+	private PrologTerm name(String name, int max) {
+		if (isPunctuation("(") && !layout) {
+			return compound(name);
+		}
+		if (name.equals("-") && !layout && (kind == INTEGER || kind == FLOAT)) {
+			String number = "-" + value;
+			boolean integer = kind == INTEGER;
+			next();
+			return integer ? integer(number) : provider.newDouble(Double.valueOf(number));
+		}
+		RefOperator operator = operators.prefix(name);
+		if (operator != null && isTermStart()) {
+			int p = operator.getPriority();
+			int argument = operator.getRightPriority();
+			if (p > max) {
+				p = 999;
+				argument = 999;
+			}
+			PrologTerm term = parse(argument);
+			priority = p;
+			return new RefStructure(provider, name, term);
+		}
+		return atom(name);
+	}
+
+	private boolean isTermStart() {
+		switch (kind) {
+		case EOF:
+		case END:
+			return false;
+		case ATOM:
+			return operators.infix(value) == null || operators.prefix(value) != null;
+		case PUNCTUATION:
+			return value.equals("(") || value.equals("[") || value.equals("{");
+		default:
+			return true;
+		}
+	}
+
+	private PrologTerm compound(String functor) {
+		expect("(");
+		List<PrologTerm> arguments = new ArrayList<PrologTerm>();
+		arguments.add(parse(999));
+		while (isPunctuation(",")) {
+			next();
+			arguments.add(parse(999));
+		}
+		expect(")");
+		priority = 0;
+		return new RefStructure(provider, functor, arguments.toArray(new PrologTerm[arguments.size()]));
+	}
+
+	private PrologTerm list() {
+		if (isPunctuation("]")) {
+			next();
+			return provider.prologEmpty();
+		}
+		List<PrologTerm> elements = new ArrayList<PrologTerm>();
+		elements.add(parse(999));
+		while (isPunctuation(",")) {
+			next();
+			elements.add(parse(999));
+		}
+		PrologTerm tail = provider.prologEmpty();
+		if (isPunctuation("|")) {
+			next();
+			tail = parse(999);
+		}
+		expect("]");
+		priority = 0;
+		return RefTerms.list(provider, elements, tail);
+	}
+
+	private PrologTerm atom(String name) {
+		if (name.equals("[]")) {
+			return provider.prologEmpty();
+		}
+		return provider.newAtom(name);
+	}
+
+	private PrologTerm integer(String token) {
+		long number;
+		try {
+			if (token.startsWith("0'") || token.startsWith("-0'")) {
+				number = token.charAt(token.length() - 1);
+				number = token.charAt(0) == '-' ? -number : number;
+			} else {
+				number = Long.parseLong(token);
+			}
+		} catch (NumberFormatException e) {
+			throw new SyntaxError(text, e);
+		}
+		if (number >= Integer.MIN_VALUE && number <= Integer.MAX_VALUE) {
+			return provider.newInteger((int) number);
+		}
+		return provider.newLong(number);
+	}
+
+	private PrologTerm variable(String name) {
+		if (name.equals("_")) {
+			return new RefVariable(provider, name, variables.size());
+		}
+		RefVariable variable = variables.get(name);
+		if (variable == null) {
+			variable = new RefVariable(provider, name, variables.size());
+			variables.put(name, variable);
+		}
+		return variable;
+	}
+
+	// tokenizer
+
+	private void next() {
+		layout = skipLayout();
+		if (offset >= text.length()) {
+			kind = EOF;
+			value = "";
+			return;
+		}
+		int start = offset;
+		char c = text.charAt(offset);
+		if (Character.isDigit(c)) {
+			number();
+		} else if (c == '_' || Character.isUpperCase(c)) {
+			kind = VARIABLE;
+			value = word();
+		} else if (Character.isLetter(c)) {
+			kind = ATOM;
+			value = word();
+		} else if (c == '\'' || c == '"') {
+			kind = QUOTED;
+			value = quoted(c);
+		} else if ("()[]{},|".indexOf(c) >= 0) {
+			kind = PUNCTUATION;
+			value = String.valueOf(c);
+			offset++;
+		} else if (c == '!' || c == ';') {
+			kind = ATOM;
+			value = String.valueOf(c);
+			offset++;
+		} else if (RefFormatter.isSymbol(c)) {
+			while (offset < text.length() && RefFormatter.isSymbol(text.charAt(offset))) {
+				offset++;
+			}
+			value = text.substring(start, offset);
+			kind = value.equals(".") && isEndFollower() ? END : ATOM;
+		} else {
+			throw error();
+		}
+	}
+
+	private boolean isEndFollower() {
+		return offset >= text.length() || Character.isWhitespace(text.charAt(offset)) || text.charAt(offset) == '%';
+	}
+
+	private boolean skipLayout() {
+		int start = offset;
+		while (offset < text.length()) {
+			char c = text.charAt(offset);
+			if (Character.isWhitespace(c)) {
+				offset++;
+			} else if (c == '%') {
+				while (offset < text.length() && text.charAt(offset) != '\n') {
+					offset++;
+				}
+			} else if (c == '/' && offset + 1 < text.length() && text.charAt(offset + 1) == '*') {
+				int end = text.indexOf("*/", offset + 2);
+				offset = end < 0 ? text.length() : end + 2;
+			} else {
+				break;
+			}
+		}
+		return offset > start;
+	}
+
+	private String word() {
+		int start = offset;
+		while (offset < text.length() && RefFormatter.isAlphanumeric(text.charAt(offset))) {
+			offset++;
+		}
+		return text.substring(start, offset);
+	}
+
+	private void number() {
+		int start = offset;
+		if (text.startsWith("0'", offset) && offset + 2 < text.length()) {
+			offset += 2;
+			char c = text.charAt(offset++);
+			if (c == '\\' && offset < text.length()) {
+				c = escape(text.charAt(offset++));
+			} else if (c == '\'' && offset < text.length() && text.charAt(offset) == '\'') {
+				offset++;
+			}
+			kind = INTEGER;
+			value = "0'" + c;
+			return;
+		}
+		while (offset < text.length() && Character.isDigit(text.charAt(offset))) {
+			offset++;
+		}
+		kind = INTEGER;
+		if (offset + 1 < text.length() && text.charAt(offset) == '.' && Character.isDigit(text.charAt(offset + 1))) {
+			kind = FLOAT;
+			offset++;
+			while (offset < text.length() && Character.isDigit(text.charAt(offset))) {
+				offset++;
+			}
+			if (offset < text.length() && (text.charAt(offset) == 'e' || text.charAt(offset) == 'E')) {
+				int mark = offset++;
+				if (offset < text.length() && (text.charAt(offset) == '+' || text.charAt(offset) == '-')) {
+					offset++;
+				}
+				if (offset < text.length() && Character.isDigit(text.charAt(offset))) {
+					while (offset < text.length() && Character.isDigit(text.charAt(offset))) {
+						offset++;
+					}
+				} else {
+					offset = mark;
+				}
+			}
+		}
+		value = text.substring(start, offset);
+	}
+
+	private String quoted(char quote) {
+		StringBuilder builder = new StringBuilder();
+		offset++;
+		while (offset < text.length()) {
+			char c = text.charAt(offset++);
+			if (c == quote) {
+				if (offset < text.length() && text.charAt(offset) == quote) {
+					builder.append(quote);
+					offset++;
+				} else {
+					return builder.toString();
+				}
+			} else if (c == '\\' && offset < text.length()) {
+				char e = text.charAt(offset++);
+				if (e != '\n') {
+					builder.append(escape(e));
+				}
+			} else {
+				builder.append(c);
+			}
+		}
+		throw error();
+	}
+
+	private char escape(char c) {
+		switch (c) {
+		case 'n':
+			return '\n';
+		case 't':
+			return '\t';
+		case 'r':
+			return '\r';
+		case '0':
+			return '\0';
+		default:
+			return c;
+		}
+	}
+
+}
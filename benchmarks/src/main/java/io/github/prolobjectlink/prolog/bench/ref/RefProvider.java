@@ -0,0 +1,306 @@
+/*-
+ * #%L
+ * prolobjectlink-jpi
+ * %%
+ * Copyright (C) 2020 - 2021 Prolobjectlink Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package io.github.prolobjectlink.prolog.bench.ref;
+
+import static io.github.prolobjectlink.prolog.PrologTermType.CUT_TYPE;
+import static io.github.prolobjectlink.prolog.PrologTermType.FAIL_TYPE;
+import static io.github.prolobjectlink.prolog.PrologTermType.FALSE_TYPE;
+import static io.github.prolobjectlink.prolog.PrologTermType.NIL_TYPE;
+import static io.github.prolobjectlink.prolog.PrologTermType.TRUE_TYPE;
+
+import java.util.Map;
+
+import io.github.prolobjectlink.prolog.AbstractProvider;
+import io.github.prolobjectlink.prolog.PrologAtom;
+import io.github.prolobjectlink.prolog.PrologClause;
+import io.github.prolobjectlink.prolog.PrologConverter;
+import io.github.prolobjectlink.prolog.PrologDouble;
+import io.github.prolobjectlink.prolog.PrologEngine;
+import io.github.prolobjectlink.prolog.PrologFloat;
+import io.github.prolobjectlink.prolog.PrologInteger;
+import io.github.prolobjectlink.prolog.PrologJavaConverter;
+import io.github.prolobjectlink.prolog.PrologList;
+import io.github.prolobjectlink.prolog.PrologLogger;
+import io.github.prolobjectlink.prolog.PrologLong;
+import io.github.prolobjectlink.prolog.PrologProvider;
+import io.github.prolobjectlink.prolog.PrologStructure;
+import io.github.prolobjectlink.prolog.PrologTerm;
+import io.github.prolobjectlink.prolog.PrologVariable;
+
+/**
+ * Reference in-memory Prolog provider written in pure Java. The reference
+ * provider support facts, rules, conjunction, disjunction, if-then-else,
+ * negation as failure, cut, basic arithmetic and a small set of built-in
+ * predicates. It is intended to run the benchmarks and to exercise the API
+ * layer (queries, converters, pools, snapshots) without a native engine. It is
+ * not a complete ISO Prolog implementation. Java references, maps and entries
+ * are not supported.
+ * 
+ * @author Jose Zalacain
+ * @since 1.2
+ */
+public final class RefProvider extends AbstractProvider implements PrologProvider {
+
+	private static final String NOT_SUPPORTED = " is not supported by the reference provider";
+
+	/** Default maximum number of interned atoms */
+	public static final int DEFAULT_INTERNED_ATOMS = 65536;
+	private static final int MIN_CACHED_NUMBER = -128;
+	private static final int MAX_CACHED_NUMBER = 1024;
+
+	private final RefOperators operators;
+	private final PrologJavaConverter javaConverter;
+	private final PrologLogger logger;
+	private final PrologTerm empty;
+	private final PrologTerm nil;
+	private final PrologTerm cut;
+	private final PrologTerm fail;
+	private final PrologTerm trueTerm;
+	private final PrologTerm falseTerm;
+
+	public RefProvider() {
+		this(DEFAULT_INTERNED_ATOMS);
+	}
+
+	/**
+	 * Create a reference provider interning at most the given number of atoms.
+	 * The integer and long terms from -128 to 1024 are cached when the atoms are
+	 * interned. Zero disable the provider terms cache and every factory call
+	 * create a new term.
+	 * 
+	 * @param maxInternedAtoms maximum number of interned atoms, zero to disable
+	 *                         the terms cache
+	 */
+	public RefProvider(int maxInternedAtoms) {
+		this(new RefConverter(), maxInternedAtoms);
+	}
+
+	RefProvider(PrologConverter<PrologTerm> converter) {
+		this(converter, DEFAULT_INTERNED_ATOMS);
+	}
+
+	RefProvider(PrologConverter<PrologTerm> converter, int maxInternedAtoms) {
+		super(converter);
+		operators = new RefOperators();
+		javaConverter = new RefJavaConverter(this);
+		logger = new RefLogger();
+		empty = new RefEmptyList(this);
+		nil = new RefAtom(NIL_TYPE, this, "nil").share();
+		cut = new RefAtom(CUT_TYPE, this, "!").share();
+		fail = new RefAtom(FAIL_TYPE, this, "fail").share();
+		trueTerm = new RefAtom(TRUE_TYPE, this, "true").share();
+		falseTerm = new RefAtom(FALSE_TYPE, this, "false").share();
+		// the formatter is stateless and stored clauses are not modified
+		setThreadSafeTerms(true);
+		if (maxInternedAtoms > 0) {
+			setTermCache(maxInternedAtoms, MIN_CACHED_NUMBER, MAX_CACHED_NUMBER);
+		}
+	}
+
+	/**
+	 * Number of atoms interned by this provider.
+	 * 
+	 * @return the number of interned atoms
+	 */
+	public int getInternedAtoms() {
+		return getInternedAtomsCount();
+	}
+
+	RefOperators getOperators() {
+		return operators;
+	}
+
+	public PrologTerm prologNil() {
+		return nil;
+	}
+
+	public PrologTerm prologCut() {
+		return cut;
+	}
+
+	public PrologTerm prologFail() {
+		return fail;
+	}
+
+	public PrologTerm prologTrue() {
+		return trueTerm;
+	}
+
+	public PrologTerm prologFalse() {
+		return falseTerm;
+	}
+
+	public PrologTerm prologEmpty() {
+		return empty;
+	}
+
+	public PrologTerm prologInclude(String file) {
+		return newStructure("consult", newAtom(file));
+	}
+
+	public PrologTerm parseTerm(String term) {
+		return new RefParser(this, operators, term).parseTerm();
+	}
+
+	public PrologTerm[] parseTerms(String stringTerms) {
+		return new RefParser(this, operators, stringTerms).parseTerms();
+	}
+
+	public PrologAtom newAtom(String functor) {
+		PrologAtom atom = getCachedAtom(functor);
+		if (atom == null) {
+			RefAtom created = new RefAtom(this, functor);
+			atom = internAtom(created);
+			if (atom == created && getCachedAtom(functor) == created) {
+				created.share();
+			}
+		}
+		return atom;
+	}
+
+	public PrologFloat newFloat(Number value) {
+		return new RefFloat(this, value);
+	}
+
+	public PrologDouble newDouble(Number value) {
+		return new RefDouble(this, value);
+	}
+
+	public PrologInteger newInteger(Number value) {
+		PrologInteger integer = getCachedInteger(value.intValue());
+		return integer != null ? integer : new RefInteger(this, value);
+	}
+
+	public PrologLong newLong(Number value) {
+		PrologLong number = getCachedLong(value.longValue());
+		return number != null ? number : new RefLong(this, value);
+	}
+
+	public PrologVariable newVariable(int position) {
+		return new RefVariable(this, "_", position);
+	}
+
+	public PrologVariable newVariable(String name, int position) {
+		return new RefVariable(this, name, position);
+	}
+
+	public PrologList newList() {
+		return (PrologList) empty;
+	}
+
+	public PrologList newList(PrologTerm[] arguments) {
+		return newList(arguments, empty);
+	}
+
+	public PrologList newList(PrologTerm head, PrologTerm tail) {
+		return new RefList(this, head, tail);
+	}
+
+	public PrologList newList(PrologTerm[] arguments, PrologTerm tail) {
+		PrologTerm list = tail;
+		for (int i = arguments.length - 1; i >= 0; i--) {
+			list = new RefList(this, arguments[i], list);
+		}
+		return (PrologList) list;
+	}
+
+	public PrologStructure newStructure(String functor, PrologTerm... arguments) {
+		return new RefStructure(this, functor, arguments);
+	}
+
+	public PrologTerm newStructure(PrologTerm left, String operator, PrologTerm right) {
+		return new RefStructure(this, operator, left, right);
+	}
+
+	public PrologTerm newEntry(PrologTerm key, PrologTerm value) {
+		throw new UnsupportedOperationException("newEntry" + NOT_SUPPORTED);
+	}
+
+	public PrologTerm newEntry(Object key, Object value) {
+		throw new UnsupportedOperationException("newEntry" + NOT_SUPPORTED);
+	}
+
+	public PrologTerm newMap(Map<PrologTerm, PrologTerm> map) {
+		throw new UnsupportedOperationException("newMap" + NOT_SUPPORTED);
+	}
+
+	public PrologTerm newMap(int initialCapacity) {
+		throw new UnsupportedOperationException("newMap" + NOT_SUPPORTED);
+	}
+
+	public PrologTerm newMap() {
+		throw new UnsupportedOperationException("newMap" + NOT_SUPPORTED);
+	}
+
+	public PrologTerm newReference(Object reference) {
+		throw new UnsupportedOperationException("newReference" + NOT_SUPPORTED);
+	}
+
+	public PrologTerm falseReference() {
+		throw new UnsupportedOperationException("falseReference" + NOT_SUPPORTED);
+	}
+
+	public PrologTerm trueReference() {
+		throw new UnsupportedOperationException("trueReference" + NOT_SUPPORTED);
+	}
+
+	public PrologTerm nullReference() {
+		throw new UnsupportedOperationException("nullReference" + NOT_SUPPORTED);
+	}
+
+	public PrologTerm voidReference() {
+		throw new UnsupportedOperationException("voidReference" + NOT_SUPPORTED);
+	}
+
+	public PrologEngine newEngine() {
+		return new RefEngine(this);
+	}
+
+	public PrologEngine newEngine(String path) {
+		PrologEngine engine = newEngine();
+		engine.consult(path);
+		return engine;
+	}
+
+	@Override
+	protected PrologClause newClause(PrologTerm head, PrologTerm body) {
+		return new RefClause(this, head, body);
+	}
+
+	public PrologJavaConverter getJavaConverter() {
+		return javaConverter;
+	}
+
+	public PrologLogger getLogger() {
+		return logger;
+	}
+
+	@Override
+	public String toString() {
+		return "RefProvider";
+	}
+
+}
@@ -0,0 +1,187 @@
+/*-
+ * #%L
+ * prolobjectlink-jpi
+ * %%
+ * Copyright (C) 2020 - 2021 Prolobjectlink Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package io.github.prolobjectlink.prolog.bench.ref;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.github.prolobjectlink.prolog.AbstractQuery;
+import io.github.prolobjectlink.prolog.PrologQuery;
+import io.github.prolobjectlink.prolog.PrologSolution;
+import io.github.prolobjectlink.prolog.PrologTerm;
+
+/**
+ * Reference query. The query goal is never bound, every resolution work over
+ * a renamed copy of the goal and the solutions are read from the renamed
+ * variables. The solutions are computed on demand one by one and the variables
+ * solutions are {@link PrologSolution} rows sharing the variables names.
+ * 
+ * @author Jose Zalacain
+ * @since 1.2
+ */
+final class RefQuery extends AbstractQuery implements PrologQuery {
+
+	private final PrologTerm goal;
+	private final List<RefVariable> variables;
+	private final String[] names;
+	private Map<PrologTerm, PrologTerm> renaming;
+	private RefMachine machine;
+	private boolean fetched;
+	private boolean more;
+	private boolean solved;
+
+	RefQuery(RefEngine engine, PrologTerm goal) {
+		super(engine);
+		this.goal = goal;
+		this.variables = variables(goal);
+		this.names = new String[variables.size()];
+		for (int i = 0; i < names.length; i++) {
+			names[i] = variables.get(i).getName();
+		}
+	}
+
+	/**
+	 * Named variables of the goal in order of first occurrence.
+	 */
+	private static List<RefVariable> variables(PrologTerm goal) {
+		List<RefVariable> variables = new ArrayList<RefVariable>();
+		Deque<PrologTerm> stack = new ArrayDeque<PrologTerm>();
+		stack.push(goal);
+		while (!stack.isEmpty()) {
+			PrologTerm term = RefTerms.deref(stack.pop());
+			if (term instanceof RefVariable) {
+				RefVariable variable = (RefVariable) term;
+				if (!variable.isAnonymous() && !variables.contains(variable)) {
+					variables.add(variable);
+				}
+			} else if (term.isCompound()) {
+				for (int i = RefTerms.arity(term) - 1; i >= 0; i--) {
+					stack.push(RefTerms.argument(term, i));
+				}
+			}
+		}
+		return variables;
+	}
+
+	private RefMachine machine() {
+		if (machine == null) {
+			renaming = new HashMap<PrologTerm, PrologTerm>();
+			machine = new RefMachine((RefEngine) engine, RefTerms.copy(getProvider(), goal, renaming));
+		}
+		return machine;
+	}
+
+	private PrologTerm value(Map<PrologTerm, PrologTerm> renaming, RefVariable variable) {
+		PrologTerm renamed = renaming.get(variable);
+		return RefTerms.copy(getProvider(), renamed != null ? renamed : variable, null);
+	}
+
+	private PrologTerm[] solution(Map<PrologTerm, PrologTerm> renaming) {
+		PrologTerm[] solution = new PrologTerm[variables.size()];
+		for (int i = 0; i < solution.length; i++) {
+			solution[i] = value(renaming, variables.get(i));
+		}
+		return solution;
+	}
+
+	private Map<String, PrologTerm> variablesSolution(Map<PrologTerm, PrologTerm> renaming) {
+		return new PrologSolution(names, solution(renaming));
+	}
+
+	public boolean hasSolution() {
+		return solved || (machine == null && hasMoreSolutions());
+	}
+
+	public boolean hasMoreSolutions() {
+		if (!fetched) {
+			more = machine().solve();
+			solved |= more;
+			fetched = true;
+		}
+		return more;
+	}
+
+	public PrologTerm[] oneSolution() {
+		Map<PrologTerm, PrologTerm> r = new HashMap<PrologTerm, PrologTerm>();
+		RefMachine m = new RefMachine((RefEngine) engine, RefTerms.copy(getProvider(), goal, r));
+		return m.solve() ? solution(r) : new PrologTerm[0];
+	}
+
+	public Map<String, PrologTerm> oneVariablesSolution() {
+		Map<PrologTerm, PrologTerm> r = new HashMap<PrologTerm, PrologTerm>();
+		RefMachine m = new RefMachine((RefEngine) engine, RefTerms.copy(getProvider(), goal, r));
+		return m.solve() ? variablesSolution(r) : new HashMap<String, PrologTerm>();
+	}
+
+	public PrologTerm[] nextSolution() {
+		if (!hasMoreSolutions()) {
+			return new PrologTerm[0];
+		}
+		fetched = false;
+		return solution(renaming);
+	}
+
+	public Map<String, PrologTerm> nextVariablesSolution() {
+		if (!hasMoreSolutions()) {
+			return new HashMap<String, PrologTerm>();
+		}
+		fetched = false;
+		return variablesSolution(renaming);
+	}
+
+	public PrologTerm[][] nSolutions(int n) {
+		return fetchSolutions(n);
+	}
+
+	public Map<String, PrologTerm>[] nVariablesSolutions(int n) {
+		return fetchVariablesSolutions(n);
+	}
+
+	public PrologTerm[][] allSolutions() {
+		return fetchSolutions(Integer.MAX_VALUE);
+	}
+
+	public Map<String, PrologTerm>[] allVariablesSolutions() {
+		return fetchVariablesSolutions(Integer.MAX_VALUE);
+	}
+
+	public List<Map<String, PrologTerm>> all() {
+		return new ArrayList<Map<String, PrologTerm>>(Arrays.asList(allVariablesSolutions()));
+	}
+
+	public void dispose() {
+		machine = null;
+		renaming = null;
+		fetched = false;
+		more = false;
+	}
+
+}
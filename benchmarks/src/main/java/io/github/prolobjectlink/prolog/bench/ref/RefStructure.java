@@ -0,0 +1,94 @@
+/*-
+ * #%L
+ * prolobjectlink-jpi
+ * %%
+ * Copyright (C) 2020 - 2021 Prolobjectlink Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package io.github.prolobjectlink.prolog.bench.ref;
+
+import static io.github.prolobjectlink.prolog.PrologTermType.STRUCTURE_TYPE;
+
+import io.github.prolobjectlink.prolog.PrologProvider;
+import io.github.prolobjectlink.prolog.PrologStructure;
+import io.github.prolobjectlink.prolog.PrologTerm;
+
+/**
+ * Reference structure. The arguments array is never exposed, the engine access
+ * to the arguments directly and the API receive a copy.
+ * 
+ * @author Jose Zalacain
+ * @since 1.2
+ */
+final class RefStructure extends RefCompound implements PrologStructure {
+
+	final String functor;
+	final PrologTerm[] arguments;
+
+	RefStructure(PrologProvider provider, String functor, PrologTerm... arguments) {
+		super(STRUCTURE_TYPE, provider);
+		this.functor = functor;
+		this.arguments = arguments;
+	}
+
+	public String getOperator() {
+		return functor;
+	}
+
+	public PrologTerm getLeft() {
+		return arguments.length == 2 ? arguments[0] : null;
+	}
+
+	public PrologTerm getRight() {
+		return arguments.length > 0 ? arguments[arguments.length - 1] : null;
+	}
+
+	public PrologTerm[] getArguments() {
+		return arguments.clone();
+	}
+
+	@Override
+	public PrologTerm getArgument(int index) {
+		checkIndex(index, arguments.length);
+		return arguments[index];
+	}
+
+	public int getArity() {
+		return arguments.length;
+	}
+
+	public String getFunctor() {
+		return functor;
+	}
+
+	public boolean isList() {
+		return false;
+	}
+
+	public boolean isStructure() {
+		return true;
+	}
+
+	public boolean isEmptyList() {
+		return false;
+	}
+
+}
@@ -0,0 +1,159 @@
+/*-
+ * #%L
+ * prolobjectlink-jpi
+ * %%
+ * Copyright (C) 2020 - 2021 Prolobjectlink Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package io.github.prolobjectlink.prolog.bench.ref;
+
+import io.github.prolobjectlink.prolog.AbstractTerm;
+import io.github.prolobjectlink.prolog.PrologProvider;
+import io.github.prolobjectlink.prolog.PrologTerm;
+
+/**
+ * Base class for the reference atomic terms and variables. All type checks
+ * are false by default and the concrete terms override the checks that apply
+ * to them. Unification and comparison follow the reference engine semantics.
+ * 
+ * @author Jose Zalacain
+ * @since 1.2
+ */
+abstract class RefTerm extends AbstractTerm {
+
+	static final PrologTerm[] NO_ARGUMENTS = new PrologTerm[0];
+
+	RefTerm(int type, PrologProvider provider) {
+		super(type, provider);
+	}
+
+	public PrologTerm[] getArguments() {
+		return NO_ARGUMENTS;
+	}
+
+	public int getArity() {
+		return 0;
+	}
+
+	public boolean isAtom() {
+		return false;
+	}
+
+	public boolean isNumber() {
+		return false;
+	}
+
+	public boolean isFloat() {
+		return false;
+	}
+
+	public boolean isInteger() {
+		return false;
+	}
+
+	public boolean isDouble() {
+		return false;
+	}
+
+	public boolean isLong() {
+		return false;
+	}
+
+	public boolean isVariable() {
+		return false;
+	}
+
+	public boolean isList() {
+		return false;
+	}
+
+	public boolean isStructure() {
+		return false;
+	}
+
+	public boolean isNil() {
+		return false;
+	}
+
+	public boolean isEmptyList() {
+		return false;
+	}
+
+	public boolean isAtomic() {
+		return false;
+	}
+
+	public boolean isCompound() {
+		return false;
+	}
+
+	public boolean isEvaluable() {
+		return false;
+	}
+
+	public boolean isTrueType() {
+		return false;
+	}
+
+	public boolean isFalseType() {
+		return false;
+	}
+
+	public boolean isNullType() {
+		return false;
+	}
+
+	public boolean isVoidType() {
+		return false;
+	}
+
+	public boolean isObjectType() {
+		return false;
+	}
+
+	public boolean isReference() {
+		return false;
+	}
+
+	public final boolean unify(PrologTerm term) {
+		return RefUnifier.unifiable(this, term);
+	}
+
+	public final int compareTo(PrologTerm term) {
+		return RefTerms.compare(this, term);
+	}
+
+	@Override
+	public final int hashCode() {
+		return RefTerms.hash(this);
+	}
+
+	@Override
+	public final boolean equals(Object obj) {
+		return obj instanceof PrologTerm && RefTerms.equal(this, (PrologTerm) obj);
+	}
+
+	@Override
+	public final String toString() {
+		return RefFormatter.format(this);
+	}
+
+}
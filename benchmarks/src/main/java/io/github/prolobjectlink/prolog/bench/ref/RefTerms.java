@@ -0,0 +1,365 @@
+/*-
+ * #%L
+ * prolobjectlink-jpi
+ * %%
+ * Copyright (C) 2020 - 2021 Prolobjectlink Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package io.github.prolobjectlink.prolog.bench.ref;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+import io.github.prolobjectlink.prolog.PrologNumber;
+import io.github.prolobjectlink.prolog.PrologProvider;
+import io.github.prolobjectlink.prolog.PrologTerm;
+
+/**
+ * Term utilities shared by the reference terms and the reference engine.
+ * Compound terms are accessed as functor, arity and arguments where lists are
+ * seen as {@code '.'(Head, Tail)} structures. Comparison, equality and hash
+ * code walk the terms using an explicit stack.
+ * 
+ * @author Jose Zalacain
+ * @since 1.2
+ */
+final class RefTerms {
+
+	private RefTerms() {
+	}
+
+	/**
+	 * Follow the bindings chain of the given term.
+	 * 
+	 * @param term term to dereference
+	 * @return the term at the end of the bindings chain
+	 */
+	static PrologTerm deref(PrologTerm term) {
+		PrologTerm ptr = term;
+		while (ptr instanceof RefVariable) {
+			PrologTerm binding = ((RefVariable) ptr).binding;
+			if (binding == null) {
+				return ptr;
+			}
+			ptr = binding;
+		}
+		return ptr;
+	}
+
+	static int arity(PrologTerm term) {
+		if (term instanceof RefList) {
+			return 2;
+		}
+		return term.getArity();
+	}
+
+	static PrologTerm argument(PrologTerm term, int index) {
+		if (term instanceof RefStructure) {
+			return ((RefStructure) term).arguments[index];
+		} else if (term instanceof RefList) {
+			RefList list = (RefList) term;
+			return index == 0 ? list.head : list.tail;
+		}
+		return term.getArgument(index);
+	}
+
+	static boolean isIntegral(PrologTerm number) {
+		if (number instanceof RefNumber) {
+			return ((RefNumber) number).isIntegral();
+		}
+		return number.isInteger() || number.isLong();
+	}
+
+	/**
+	 * Check the equality of two atomic terms. Integral numbers are equal to
+	 * integral numbers with the same value, floating numbers are equal to
+	 * floating numbers with the same value and the rest of atomic terms are
+	 * equal if they have the same functor.
+	 * 
+	 * @param a first atomic term
+	 * @param b second atomic term
+	 * @return true if the terms are the same atomic term
+	 */
+	static boolean atomicEqual(PrologTerm a, PrologTerm b) {
+		if (a.isNumber() || b.isNumber()) {
+			if (!a.isNumber() || !b.isNumber()) {
+				return false;
+			}
+			boolean integral = isIntegral(a);
+			if (integral != isIntegral(b)) {
+				return false;
+			}
+			PrologNumber x = (PrologNumber) a;
+			PrologNumber y = (PrologNumber) b;
+			return integral ? x.getLongValue() == y.getLongValue()
+					: Double.compare(x.getDoubleValue(), y.getDoubleValue()) == 0;
+		}
+		return a.getFunctor().equals(b.getFunctor());
+	}
+
+	static boolean equal(PrologTerm a, PrologTerm b) {
+		Deque<PrologTerm> stack = new ArrayDeque<PrologTerm>();
+		stack.push(b);
+		stack.push(a);
+		while (!stack.isEmpty()) {
+			PrologTerm x = deref(stack.pop());
+			PrologTerm y = deref(stack.pop());
+			if (x == y) {
+				continue;
+			}
+			if (x.isVariable() || y.isVariable()) {
+				return false;
+			}
+			if (x.isCompound() != y.isCompound()) {
+				return false;
+			}
+			if (!x.isCompound()) {
+				if (!atomicEqual(x, y)) {
+					return false;
+				}
+				continue;
+			}
+			int arity = arity(x);
+			if (arity != arity(y) || !x.getFunctor().equals(y.getFunctor())) {
+				return false;
+			}
+			for (int i = arity - 1; i >= 0; i--) {
+				stack.push(argument(y, i));
+				stack.push(argument(x, i));
+			}
+		}
+		return true;
+	}
+
+	static int hash(PrologTerm term) {
+		int hash = 1;
+		Deque<PrologTerm> stack = new ArrayDeque<PrologTerm>();
+		stack.push(term);
+		while (!stack.isEmpty()) {
+			PrologTerm x = deref(stack.pop());
+			if (x.isVariable()) {
+				hash = 31 * hash + System.identityHashCode(x);
+			} else if (x.isNumber()) {
+				PrologNumber n = (PrologNumber) x;
+				hash = 31 * hash + (isIntegral(x) ? Long.valueOf(n.getLongValue()).hashCode()
+						: Double.valueOf(n.getDoubleValue()).hashCode());
+			} else if (!x.isCompound()) {
+				hash = 31 * hash + x.getFunctor().hashCode();
+			} else {
+				int arity = arity(x);
+				hash = 31 * (31 * hash + x.getFunctor().hashCode()) + arity;
+				for (int i = arity - 1; i >= 0; i--) {
+					stack.push(argument(x, i));
+				}
+			}
+		}
+		return hash;
+	}
+
+	private static int rank(PrologTerm term) {
+		if (term.isVariable()) {
+			return 0;
+		} else if (term.isNumber()) {
+			return 1;
+		} else if (!term.isCompound()) {
+			return 2;
+		}
+		return 3;
+	}
+
+	/**
+	 * Compare two terms using the standard order of terms. Variables precede
+	 * numbers, numbers precede atoms and atoms precede compound terms. Compound
+	 * terms are ordered by arity, then by functor and then by arguments.
+	 * 
+	 * @param a first term
+	 * @param b second term
+	 * @return negative, zero or positive number if the first term is less, equal
+	 *         or greater than the second term
+	 */
+	static int compare(PrologTerm a, PrologTerm b) {
+		Deque<PrologTerm> stack = new ArrayDeque<PrologTerm>();
+		stack.push(b);
+		stack.push(a);
+		while (!stack.isEmpty()) {
+			PrologTerm x = deref(stack.pop());
+			PrologTerm y = deref(stack.pop());
+			if (x == y) {
+				continue;
+			}
+			int result = rank(x) - rank(y);
+			if (result != 0) {
+				return result;
+			}
+			switch (rank(x)) {
+			case 0:
+				result = x.getFunctor().compareTo(y.getFunctor());
+				if (result == 0) {
+					result = System.identityHashCode(x) < System.identityHashCode(y) ? -1 : 1;
+				}
+				return result;
+			case 1:
+				result = compareNumbers((PrologNumber) x, (PrologNumber) y);
+				break;
+			case 2:
+				result = x.getFunctor().compareTo(y.getFunctor());
+				break;
+			default:
+				int arity = arity(x);
+				result = arity - arity(y);
+				if (result == 0) {
+					result = x.getFunctor().compareTo(y.getFunctor());
+				}
+				if (result == 0) {
+					for (int i = arity - 1; i >= 0; i--) {
+						stack.push(argument(y, i));
+						stack.push(argument(x, i));
+					}
+				}
+				break;
+			}
+			if (result != 0) {
+				return result;
+			}
+		}
+		return 0;
+	}
+
+	private static int compareNumbers(PrologNumber x, PrologNumber y) {
+		boolean integral = isIntegral(x);
+		if (integral && isIntegral(y)) {
+			long a = x.getLongValue();
+			long b = y.getLongValue();
+			return a < b ? -1 : a == b ? 0 : 1;
+		}
+		int result = Double.compare(x.getDoubleValue(), y.getDoubleValue());
+		if (result == 0 && integral != isIntegral(y)) {
+			return integral ? 1 : -1;
+		}
+		return result;
+	}
+
+	/**
+	 * Check if the given term don't contains free variables.
+	 * 
+	 * @param term term to check
+	 * @return true if the term is ground
+	 */
+	static boolean isGround(PrologTerm term) {
+		Deque<PrologTerm> stack = new ArrayDeque<PrologTerm>();
+		stack.push(term);
+		while (!stack.isEmpty()) {
+			PrologTerm x = deref(stack.pop());
+			if (x.isVariable()) {
+				return false;
+			} else if (x.isCompound()) {
+				for (int i = arity(x) - 1; i >= 0; i--) {
+					stack.push(argument(x, i));
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Copy the given term replacing every bound variable by its value. When the
+	 * variables map is not null every free variable is renamed to a fresh
+	 * variable and the map is used to keep the renaming. When the map is null
+	 * free variables are preserved. Sub terms without variables are shared
+	 * with the original term.
+	 * 
+	 * @param provider  provider used to create the fresh variables
+	 * @param term      term to copy
+	 * @param variables variables renaming or null to preserve free variables
+	 * @return the copied term
+	 */
+	static PrologTerm copy(PrologProvider provider, PrologTerm term, Map<PrologTerm, PrologTerm> variables) {
+		PrologTerm x = deref(term);
+		if (x.isVariable()) {
+			if (variables == null) {
+				return x;
+			}
+			PrologTerm renamed = variables.get(x);
+			if (renamed == null) {
+				RefVariable variable = (RefVariable) x;
+				renamed = new RefVariable(provider, variable.getName(), variable.getPosition());
+				variables.put(x, renamed);
+			}
+			return renamed;
+		} else if (x instanceof RefStructure) {
+			RefStructure structure = (RefStructure) x;
+			PrologTerm[] arguments = structure.arguments;
+			PrologTerm[] copied = null;
+			for (int i = 0; i < arguments.length; i++) {
+				PrologTerm argument = copy(provider, arguments[i], variables);
+				if (copied == null && argument != arguments[i]) {
+					copied = new PrologTerm[arguments.length];
+					System.arraycopy(arguments, 0, copied, 0, i);
+				}
+				if (copied != null) {
+					copied[i] = argument;
+				}
+			}
+			return copied == null ? x : new RefStructure(provider, structure.functor, copied);
+		} else if (x instanceof RefList) {
+			List<PrologTerm> heads = new ArrayList<PrologTerm>();
+			boolean changed = false;
+			PrologTerm ptr = x;
+			while (ptr instanceof RefList) {
+				RefList cell = (RefList) ptr;
+				PrologTerm head = copy(provider, cell.head, variables);
+				changed |= head != cell.head;
+				heads.add(head);
+				changed |= cell.tail != deref(cell.tail);
+				ptr = deref(cell.tail);
+			}
+			PrologTerm tail = copy(provider, ptr, variables);
+			if (!changed && tail == ptr) {
+				return x;
+			}
+			for (int i = heads.size() - 1; i >= 0; i--) {
+				tail = new RefList(provider, heads.get(i), tail);
+			}
+			return tail;
+		}
+		return x;
+	}
+
+	/**
+	 * Build a list with the given elements and tail.
+	 * 
+	 * @param provider list provider
+	 * @param elements list elements
+	 * @param tail     list tail
+	 * @return the list term
+	 */
+	static PrologTerm list(PrologProvider provider, List<PrologTerm> elements, PrologTerm tail) {
+		PrologTerm list = tail;
+		for (int i = elements.size() - 1; i >= 0; i--) {
+			list = new RefList(provider, elements.get(i), list);
+		}
+		return list;
+	}
+
+}
@@ -0,0 +1,135 @@
+/*-
+ * #%L
+ * prolobjectlink-jpi
+ * %%
+ * Copyright (C) 2020 - 2021 Prolobjectlink Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package io.github.prolobjectlink.prolog.bench.ref;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import io.github.prolobjectlink.prolog.PrologTerm;
+
+/**
+ * Reference unification algorithm. The unification walk the terms using an
+ * explicit stack and record every bound variable in the given trail to be
+ * undone on backtracking. The occurs check is not performed.
+ * 
+ * @author Jose Zalacain
+ * @since 1.2
+ */
+final class RefUnifier {
+
+	private RefUnifier() {
+	}
+
+	/**
+	 * Unify two terms recording the bound variables in the given trail. On
+	 * failure the bindings done are not undone, the caller undo the trail to
+	 * the mark taken before the unification.
+	 * 
+	 * @param a     first term
+	 * @param b     second term
+	 * @param trail trail where the bound variables are recorded, null when the
+	 *              bindings never need to be undone
+	 * @return true if the terms unify
+	 */
+	static boolean unify(PrologTerm a, PrologTerm b, List<RefVariable> trail) {
+		Deque<PrologTerm> stack = null;
+		PrologTerm x = a;
+		PrologTerm y = b;
+		while (true) {
+			x = RefTerms.deref(x);
+			y = RefTerms.deref(y);
+			if (x != y) {
+				if (x instanceof RefVariable) {
+					bind((RefVariable) x, y, trail);
+				} else if (y instanceof RefVariable) {
+					bind((RefVariable) y, x, trail);
+				} else if (x.isCompound() && y.isCompound()) {
+					int arity = RefTerms.arity(x);
+					if (arity != RefTerms.arity(y) || !x.getFunctor().equals(y.getFunctor())) {
+						return false;
+					}
+					if (arity > 0) {
+						if (stack == null) {
+							stack = new ArrayDeque<PrologTerm>();
+						}
+						for (int i = arity - 1; i > 0; i--) {
+							stack.push(RefTerms.argument(y, i));
+							stack.push(RefTerms.argument(x, i));
+						}
+						x = RefTerms.argument(x, 0);
+						y = RefTerms.argument(y, 0);
+						continue;
+					}
+				} else if (x.isCompound() || y.isCompound() || !RefTerms.atomicEqual(x, y)) {
+					return false;
+				}
+			}
+			if (stack == null || stack.isEmpty()) {
+				return true;
+			}
+			x = stack.pop();
+			y = stack.pop();
+		}
+	}
+
+	/**
+	 * Check if two terms unify without leave any binding.
+	 * 
+	 * @param a first term
+	 * @param b second term
+	 * @return true if the terms unify
+	 */
+	static boolean unifiable(PrologTerm a, PrologTerm b) {
+		List<RefVariable> trail = new ArrayList<RefVariable>();
+		try {
+			return unify(a, b, trail);
+		} finally {
+			undo(trail, 0);
+		}
+	}
+
+	/**
+	 * Undo the bindings recorded in the trail after the given mark.
+	 * 
+	 * @param trail trail with the bound variables
+	 * @param mark  trail size to restore
+	 */
+	static void undo(List<RefVariable> trail, int mark) {
+		for (int i = trail.size() - 1; i >= mark; i--) {
+			trail.remove(i).binding = null;
+		}
+	}
+
+	private static void bind(RefVariable variable, PrologTerm term, List<RefVariable> trail) {
+		variable.binding = term;
+		if (trail != null) {
+			trail.add(variable);
+		}
+	}
+
+}
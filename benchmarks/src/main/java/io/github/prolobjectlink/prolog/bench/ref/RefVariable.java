@@ -0,0 +1,86 @@
+/*-
+ * #%L
+ * prolobjectlink-jpi
+ * %%
+ * Copyright (C) 2020 - 2021 Prolobjectlink Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package io.github.prolobjectlink.prolog.bench.ref;
+
+import static io.github.prolobjectlink.prolog.PrologTermType.VARIABLE_TYPE;
+
+import io.github.prolobjectlink.prolog.PrologProvider;
+import io.github.prolobjectlink.prolog.PrologTerm;
+import io.github.prolobjectlink.prolog.PrologVariable;
+
+/**
+ * Reference variable. A bound variable hold a reference to the bound term and
+ * {@link #getTerm()} return the term at the end of the bindings chain. The
+ * bindings are done and undone only by the reference unifier.
+ * 
+ * @author Jose Zalacain
+ * @since 1.2
+ */
+final class RefVariable extends RefTerm implements PrologVariable {
+
+	private String name;
+	private final int position;
+
+	/** bound term, null if the variable is free */
+	PrologTerm binding;
+
+	RefVariable(PrologProvider provider, String name, int position) {
+		super(VARIABLE_TYPE, provider);
+		this.name = name;
+		this.position = position;
+	}
+
+	public boolean isAnonymous() {
+		return name.equals("_");
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public int getPosition() {
+		return position;
+	}
+
+	public String getFunctor() {
+		return name;
+	}
+
+	@Override
+	public PrologTerm getTerm() {
+		return RefTerms.deref(this);
+	}
+
+	@Override
+	public boolean isVariable() {
+		return true;
+	}
+
+}
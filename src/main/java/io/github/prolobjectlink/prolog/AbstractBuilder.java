@@ -25,44 +25,121 @@
  */
 package io.github.prolobjectlink.prolog;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
- * Partial implementation of Prolog Builder interface. Is an String Builder
- * wrapper to append the term in string form that compound the final clause
- * (Fact, Rule or Query).
+ * Partial implementation of Prolog Builder interface. Hold the terms that
+ * compound the final clause (Fact, Rule or Query) like a list of conjunctive
+ * goals. Previous conjunctions separated by a disjunction are keep like
+ * alternatives. The built terms are given to the engine without string
+ * formatting and parsing.
  * 
  * @author Jose Zalacain
  * @since 1.0
  */
 abstract class AbstractBuilder implements PrologBuilder {
 
-	protected StringBuilder builder;
+	private List<PrologTerm> goals;
+	private List<PrologTerm[]> alternatives;
 	protected final PrologEngine engine;
-	private final PrologProvider provider;
+	protected final PrologProvider provider;
 
 	AbstractBuilder(PrologEngine engine) {
 		this.provider = engine.getProvider();
-		this.builder = new StringBuilder();
+		this.goals = new ArrayList<PrologTerm>();
+		this.alternatives = new ArrayList<PrologTerm[]>();
 		this.engine = engine;
 	}
 
-	protected final void append(Object object) {
-		builder.append(object);
+	protected final PrologTerm term(String functor, PrologTerm... arguments) {
+		if (arguments != null && arguments.length > 0) {
+			return provider.newStructure(functor, arguments);
+		}
+		return provider.newAtom(functor);
 	}
 
-	protected final void append(String functor, PrologTerm... arguments) {
-		if (arguments != null && arguments.length > 0) {
-			builder.append(provider.newStructure(functor, arguments));
-		} else {
-			builder.append(provider.newAtom(functor));
+	protected final PrologTerm term(PrologTerm left, String operator, PrologTerm right) {
+		return provider.newStructure(left, operator, right);
+	}
+
+	/**
+	 * Append the given goal to the current conjunction.
+	 */
+	protected final void append(PrologTerm goal) {
+		goals.add(goal);
+	}
+
+	/**
+	 * Close the current conjunction like an alternative and start a new
+	 * conjunction with the given goal.
+	 */
+	protected final void alternative(PrologTerm goal) {
+		alternatives.add(goals());
+		goals.clear();
+		goals.add(goal);
+	}
+
+	/**
+	 * Goals of the current conjunction.
+	 */
+	protected final PrologTerm[] goals() {
+		return goals.toArray(new PrologTerm[goals.size()]);
+	}
+
+	protected final boolean hasAlternatives() {
+		return !alternatives.isEmpty();
+	}
+
+	/**
+	 * Single term for all alternatives, a disjunction of conjunctions with the
+	 * same associativity that the parsed operators.
+	 */
+	protected final PrologTerm disjunction() {
+		PrologTerm disjunction = conjunction(goals());
+		for (int i = alternatives.size() - 1; i >= 0; i--) {
+			disjunction = term(conjunction(alternatives.get(i)), ";", disjunction);
+		}
+		return disjunction;
+	}
+
+	private PrologTerm conjunction(PrologTerm[] terms) {
+		if (terms.length == 0) {
+			return provider.prologTrue();
 		}
+		PrologTerm conjunction = terms[terms.length - 1];
+		for (int i = terms.length - 2; i >= 0; i--) {
+			conjunction = term(terms[i], ",", conjunction);
+		}
+		return conjunction;
+	}
+
+	protected final void clear() {
+		goals = new ArrayList<PrologTerm>();
+		alternatives = new ArrayList<PrologTerm[]>();
 	}
 
-	protected final void append(Object left, String operator, Object right) {
-		builder.append(left);
-		append(' ');
-		builder.append(operator);
-		append(' ');
-		builder.append(right);
+	/**
+	 * String form of the current built terms in the same form that was
+	 * appended.
+	 */
+	protected final String format() {
+		StringBuilder buffer = new StringBuilder();
+		for (PrologTerm[] alternative : alternatives) {
+			format(buffer, alternative);
+			buffer.append("; ");
+		}
+		format(buffer, goals());
+		return "" + buffer + "";
+	}
+
+	private void format(StringBuilder buffer, PrologTerm[] terms) {
+		for (int i = 0; i < terms.length; i++) {
+			if (i > 0) {
+				buffer.append(", ");
+			}
+			buffer.append(terms[i]);
+		}
 	}
 
 	public final PrologEngine getEngine() {
@@ -77,20 +154,14 @@ abstract class AbstractBuilder implements PrologBuilder {
 			return false;
 		if (getClass() != object.getClass())
 			return false;
-		DefaultQueryBuilder other = (DefaultQueryBuilder) object;
+		AbstractBuilder other = (AbstractBuilder) object;
 		if (engine == null) {
 			if (other.engine != null)
 				return false;
 		} else if (!engine.equals(other.engine)) {
 			return false;
 		}
-		if (builder == null) {
-			if (other.builder != null)
-				return false;
-		} else if (!builder.toString().equals(other.builder.toString())) {
-			return false;
-		}
-		return true;
+		return toString().equals(other.toString());
 	}
 
 	@Override
@@ -98,13 +169,8 @@ abstract class AbstractBuilder implements PrologBuilder {
 		final int prime = 31;
 		int result = 1;
 		result = prime * result + ((engine == null) ? 0 : engine.hashCode());
-		result = prime * result + ((builder == null) ? 0 : builder.hashCode());
+		result = prime * result + toString().hashCode();
 		return result;
 	}
 
-	@Override
-	public final String toString() {
-		return "" + builder + "";
-	}
-
 }
@@ -27,12 +27,38 @@ package io.github.prolobjectlink.prolog;
 
 import static io.github.prolobjectlink.prolog.PrologTermType.OBJECT_TYPE;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
+
 public abstract class AbstractCompounds extends AbstractTerm implements PrologTerm {
 
+	// cached structural hash of ground compounds, zero if not computed
+	private volatile long structuralHash;
+
 	public AbstractCompounds(int type, PrologProvider provider) {
 		super(type, provider);
 	}
 
+	final long getStructuralHash() {
+		return structuralHash;
+	}
+
+	final void setStructuralHash(long hash) {
+		structuralHash = hash;
+	}
+
+	/**
+	 * Discard the cached structural hash. The structural hash of a ground
+	 * compound is computed once and cached, so the drivers that modify the
+	 * compound arguments in place must call this method after the
+	 * modification.
+	 * 
+	 * @since 1.2
+	 */
+	protected final void invalidateHash() {
+		structuralHash = 0;
+	}
+
 	public final boolean isAtom() {
 		return false;
 	}
@@ -104,18 +130,38 @@ public abstract class AbstractCompounds extends AbstractTerm implements PrologTe
 	}
 
 	public final int compareTo(PrologTerm term) {
-		PrologTerm thisCompound = this;
-		PrologTerm otherCompound = term;
-
-		if (!otherCompound.isCompound()) {
-			if (otherCompound.isEmptyList() && thisCompound.isEmptyList()) {
+		// explicit work stack of pairs, deep terms don't overflow the Java stack
+		Deque<PrologTerm> stack = new ArrayDeque<PrologTerm>();
+		PrologTerm thisTerm = this;
+		PrologTerm otherTerm = term;
+		while (true) {
+			int result;
+			if (thisTerm instanceof AbstractCompounds) {
+				result = compareHead(thisTerm, otherTerm);
+				if (result == 0 && otherTerm.isCompound() && !bothEmptyLists(thisTerm, otherTerm)) {
+					pushArguments(stack, thisTerm.getArguments(), otherTerm.getArguments());
+				}
+			} else {
+				result = thisTerm.compareTo(otherTerm);
+			}
+			if (result != 0) {
+				return result;
+			}
+			if (stack.isEmpty()) {
 				return 0;
 			}
-			return 1;
+			thisTerm = stack.pop();
+			otherTerm = stack.pop();
 		}
+	}
 
-		if (otherCompound.isEmptyList() && thisCompound.isEmptyList()) {
-			return 0;
+	/**
+	 * Compare a compound with other term without the arguments. Zero mean equals
+	 * type, arity and functor.
+	 */
+	private static int compareHead(PrologTerm thisCompound, PrologTerm otherCompound) {
+		if (!otherCompound.isCompound() || bothEmptyLists(thisCompound, otherCompound)) {
+			return bothEmptyLists(thisCompound, otherCompound) ? 0 : 1;
 		}
 
 		// comparison by arity
@@ -132,65 +178,76 @@ public abstract class AbstractCompounds extends AbstractTerm implements PrologTe
 		} else if (result > 0) {
 			return 1;
 		}
+		return 0;
+	}
 
-		// arguments comparison
-		PrologTerm[] thisArguments = thisCompound.getArguments();
-		PrologTerm[] otherArguments = otherCompound.getArguments();
+	private static boolean bothEmptyLists(PrologTerm thisTerm, PrologTerm otherTerm) {
+		return otherTerm.isEmptyList() && thisTerm.isEmptyList();
+	}
 
-		for (int i = 0; i < thisArguments.length; i++) {
+	/**
+	 * Push the not null arguments pairs in reverse order, so the pairs are popped
+	 * from left to right.
+	 */
+	private static void pushArguments(Deque<PrologTerm> stack, PrologTerm[] thisArguments,
+			PrologTerm[] otherArguments) {
+		int length = Math.min(thisArguments.length, otherArguments.length);
+		for (int i = length - 1; i >= 0; i--) {
 			PrologTerm thisArgument = thisArguments[i];
 			PrologTerm otherArgument = otherArguments[i];
 			if (thisArgument != null && otherArgument != null) {
-				result = thisArgument.compareTo(otherArgument);
-				if (result != 0) {
-					return result;
-				}
+				stack.push(otherArgument);
+				stack.push(thisArgument);
 			}
 		}
-
-		return 0;
 	}
 
 	public final boolean unify(PrologTerm term) {
+		// explicit work stack of pairs, deep terms don't overflow the Java stack
+		Deque<PrologTerm> stack = new ArrayDeque<PrologTerm>();
 		PrologTerm thisTerm = this;
 		PrologTerm otherTerm = term;
-		if (thisTerm == otherTerm) {
-			return true;
-		} else if (thisTerm.isVariable()) {
-			if (thisTerm == thisTerm.getTerm()) {
-				return true;
-			}
-			return thisTerm.getTerm().unify(otherTerm);
-		} else if (otherTerm.isVariable()) {
-			if (otherTerm == otherTerm.getTerm()) {
-				return true;
-			}
-			return otherTerm.getTerm().unify(thisTerm);
-		} else if (otherTerm.isCompound()) {
-			int thisArity = thisTerm.getArity();
-			int otherArity = otherTerm.getArity();
-			String thisFunctor = thisTerm.getFunctor();
-			String otherFunctor = otherTerm.getFunctor();
-			if (thisFunctor.equals(otherFunctor) && thisArity == otherArity) {
+		while (true) {
+			if (!(thisTerm instanceof AbstractCompounds)) {
+				// atomic terms and variables unify as the driver define
+				if (!thisTerm.unify(otherTerm)) {
+					return false;
+				}
+			} else if (thisTerm == otherTerm) {
+				// same term
+			} else if (thisTerm.isVariable()) {
+				if (thisTerm != thisTerm.getTerm()) {
+					stack.push(otherTerm);
+					stack.push(thisTerm.getTerm());
+				}
+			} else if (otherTerm.isVariable()) {
+				if (otherTerm != otherTerm.getTerm()) {
+					stack.push(thisTerm);
+					stack.push(otherTerm.getTerm());
+				}
+			} else if (otherTerm.isCompound()) {
+				int thisArity = thisTerm.getArity();
+				int otherArity = otherTerm.getArity();
+				String thisFunctor = thisTerm.getFunctor();
+				String otherFunctor = otherTerm.getFunctor();
+				if (!thisFunctor.equals(otherFunctor) || thisArity != otherArity) {
+					return false;
+				}
 				PrologTerm[] thisArguments = thisTerm.getArguments();
 				PrologTerm[] otherArguments = otherTerm.getArguments();
-				if (thisArguments.length == otherArguments.length) {
-					for (int i = 0; i < thisArguments.length; i++) {
-						if (thisArguments[i] != null && otherArguments[i] != null) {
-							PrologTerm thisArgument = thisArguments[i];
-							PrologTerm otherArgument = otherArguments[i];
-							if (!thisArgument.unify(otherArgument)) {
-								return false;
-							}
-						}
-					}
-					return true;
+				if (thisArguments.length != otherArguments.length) {
+					return false;
 				}
+				pushArguments(stack, thisArguments, otherArguments);
+			} else {
 				return false;
 			}
-			return false;
+			if (stack.isEmpty()) {
+				return true;
+			}
+			thisTerm = stack.pop();
+			otherTerm = stack.pop();
 		}
-		return false;
 	}
 
 }
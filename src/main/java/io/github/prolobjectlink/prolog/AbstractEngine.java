@@ -25,16 +25,19 @@
  */
 package io.github.prolobjectlink.prolog;
 
-import static io.github.prolobjectlink.prolog.PrologLogger.IO;
-
 import java.io.IOException;
+import java.io.Reader;
 import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -51,8 +54,16 @@ public abstract class AbstractEngine implements PrologEngine {
 
 	protected final PrologProvider provider;
 	private static final String UNKNOWN = "unknown";
+	private static final int PREPARED_CACHE_SIZE = 128;
+	private static final int PROGRESS_INTERVAL = 1024;
+	private final Map<String, DefaultPreparedQuery.Template> prepared;
+	private volatile PrologProgramIndex index;
+	private volatile boolean indexing;
+	private int[] indexArguments = PrologProgramIndex.FIRST_ARGUMENT;
+	private final Map<String, int[]> predicateIndexArguments = new HashMap<String, int[]>();
 
 	protected AbstractEngine(PrologProvider provider) {
+		this.prepared = new PreparedCache(PREPARED_CACHE_SIZE);
 		this.provider = provider;
 	}
 
@@ -61,13 +72,155 @@ public abstract class AbstractEngine implements PrologEngine {
 	}
 
 	public final void persist(Writer writer) {
-		PrologEngine thisEngine = this;
-		for (PrologClause prologClause : thisEngine) {
+		persist(writer, null);
+	}
+
+	public final void persist(Writer writer, PrologProgressListener listener) {
+		try {
+			boolean parallel = provider instanceof AbstractProvider
+					&& ((AbstractProvider) provider).hasThreadSafeTerms();
+			new PrologProgramWriter(parallel).write(this, writer, listener);
+		} catch (IOException e) {
+			throw new PersistenceError(e);
+		}
+	}
+
+	public void assertzAll(Collection<PrologClause> clauses) {
+		for (List<PrologClause> predicate : groupByPredicate(clauses)) {
+			for (PrologClause clause : predicate) {
+				assertz(clause.getHead(), clause.getBody());
+			}
+		}
+	}
+
+	public void retractAll(Collection<PrologClause> clauses) {
+		for (List<PrologClause> predicate : groupByPredicate(clauses)) {
+			for (PrologClause clause : predicate) {
+				retract(clause.getHead(), clause.getBody());
+			}
+		}
+	}
+
+	public void abolishAll(Collection<PrologIndicator> indicators) {
+		for (PrologIndicator indicator : indicators) {
+			abolish(indicator.getFunctor(), indicator.getArity());
+		}
+	}
+
+	/**
+	 * Group the given clauses by predicate indicator keeping the clauses order
+	 * inside every predicate and the predicates order of first occurrence.
+	 * 
+	 * @param clauses clauses to be grouped
+	 * @return clauses grouped by predicate
+	 * @since 1.2
+	 */
+	protected final Collection<List<PrologClause>> groupByPredicate(Collection<PrologClause> clauses) {
+		Map<String, List<PrologClause>> m = new LinkedHashMap<String, List<PrologClause>>();
+		for (PrologClause clause : clauses) {
+			String key = clause.getIndicator();
+			List<PrologClause> l = m.get(key);
+			if (l == null) {
+				l = new ArrayList<PrologClause>();
+				m.put(key, l);
+			}
+			l.add(clause);
+		}
+		return m.values();
+	}
+
+	public final void persist(String path, int format) {
+		if (format == PrologFormat.BINARY) {
 			try {
-				writer.write("" + prologClause + "");
+				PrologSnapshot.write(this, path);
 			} catch (IOException e) {
-				getLogger().error(getClass(), IO, e);
+				throw new PersistenceError(e);
 			}
+		} else {
+			persist(path);
+		}
+	}
+
+	public final void consult(String path, int format) {
+		if (format == PrologFormat.BINARY) {
+			PrologSnapshot.Loader loader;
+			try {
+				loader = PrologSnapshot.open(provider, path);
+			} catch (IOException e) {
+				// the current program is kept if the snapshot is not valid
+				throw new PersistenceError(e);
+			}
+			try {
+				abolishAll(getPredicates());
+				while (loader.hasNext()) {
+					assertz(loader.next());
+				}
+			} catch (IOException e) {
+				throw new PersistenceError(e);
+			} finally {
+				try {
+					loader.close();
+				} catch (IOException e) {
+					throw new PersistenceError(e);
+				}
+			}
+		} else {
+			consult(path);
+		}
+	}
+
+	public final void consult(Reader reader, PrologProgressListener listener) {
+		abolishAll(getPredicates());
+		include(reader, listener);
+	}
+
+	public final void consult(ReadableByteChannel channel, Charset charset, PrologProgressListener listener) {
+		abolishAll(getPredicates());
+		include(channel, charset, listener);
+	}
+
+	public final void include(Reader reader, PrologProgressListener listener) {
+		load(new PrologClauseReader(reader), null, listener);
+	}
+
+	public final void include(ReadableByteChannel channel, Charset charset, PrologProgressListener listener) {
+		CountingChannel counter = new CountingChannel(channel);
+		Reader reader = Channels.newReader(counter, charset.newDecoder(), -1);
+		load(new PrologClauseReader(reader), counter, listener);
+	}
+
+	/**
+	 * Load the clauses read by the given clause reader one by one. The clauses are
+	 * added at the end of the program and the directives are executed like
+	 * queries. The listener is notified every {@link #PROGRESS_INTERVAL} clauses
+	 * and at the end of the stream.
+	 */
+	private void load(PrologClauseReader reader, CountingChannel counter, PrologProgressListener listener) {
+		long clauses = 0;
+		long start = System.nanoTime();
+		try {
+			String text = reader.readClause();
+			while (text != null) {
+				PrologTerm term = provider.parseTerm(text);
+				if (term.hasIndicator(":-", 1)) {
+					PrologQuery query = query(term.getArgument(0));
+					query.hasSolution();
+					query.dispose();
+				} else {
+					assertz(term);
+				}
+				if (++clauses % PROGRESS_INTERVAL == 0 && listener != null) {
+					long bytes = counter != null ? counter.count : reader.getCount();
+					listener.progress(clauses, bytes, System.nanoTime() - start);
+				}
+				text = reader.readClause();
+			}
+		} catch (IOException e) {
+			throw new LoadError(e);
+		}
+		if (listener != null) {
+			long bytes = counter != null ? counter.count : reader.getCount();
+			listener.progress(clauses, bytes, System.nanoTime() - start);
 		}
 	}
 
@@ -76,7 +229,11 @@ public abstract class AbstractEngine implements PrologEngine {
 	}
 
 	public Map<String, PrologTerm> match(PrologTerm t1, PrologTerm t2) {
-		return queryOne(t1 + "=" + t2);
+		PrologUnifier unifier = new PrologUnifier(provider);
+		if (unifier.unify(t1, t2)) {
+			return unifier.getBindings();
+		}
+		return new HashMap<String, PrologTerm>();
 	}
 
 	public final boolean contains(String goal) {
@@ -84,10 +241,14 @@ public abstract class AbstractEngine implements PrologEngine {
 	}
 
 	public final boolean contains(PrologTerm goal) {
-		return query(goal).hasSolution();
+		Boolean indexed = containsFact(goal);
+		return indexed != null ? indexed.booleanValue() : query(goal).hasSolution();
 	}
 
 	public final boolean contains(PrologTerm goal, PrologTerm... goals) {
+		if (Boolean.FALSE.equals(containsFact(goal))) {
+			return false;
+		}
 		return query(goal, goals).hasSolution();
 	}
 
@@ -104,15 +265,15 @@ public abstract class AbstractEngine implements PrologEngine {
 	}
 
 	public final List<Map<String, PrologTerm>> queryN(int n, String goal) {
-		return Arrays.asList(query(goal).nVariablesSolutions(n));
+		return query(goal).nths(n);
 	}
 
 	public final List<Map<String, PrologTerm>> queryN(int n, PrologTerm term) {
-		return Arrays.asList(query(term).nVariablesSolutions(n));
+		return query(term).nths(n);
 	}
 
 	public final List<Map<String, PrologTerm>> queryN(int n, PrologTerm term, PrologTerm... terms) {
-		return Arrays.asList(query(term, terms).nVariablesSolutions(n));
+		return query(term, terms).nths(n);
 	}
 
 	public final List<Map<String, PrologTerm>> queryAll(String goal) {
@@ -127,7 +288,26 @@ public abstract class AbstractEngine implements PrologEngine {
 		return query(goal, goals).all();
 	}
 
+	public final PrologPreparedQuery prepare(String query) {
+		DefaultPreparedQuery.Template template;
+		synchronized (prepared) {
+			template = prepared.get(query);
+		}
+		if (template == null) {
+			// parse outside the lock, a concurrent parse only waste work
+			template = new DefaultPreparedQuery.Template(provider, query);
+			synchronized (prepared) {
+				prepared.put(query, template);
+			}
+		}
+		return new DefaultPreparedQuery(this, template);
+	}
+
 	public final Map<String, List<PrologClause>> getProgramMap() {
+		PrologProgramIndex i = getProgramIndex();
+		if (i != null) {
+			return i.getProgramMap();
+		}
 		Map<String, List<PrologClause>> m = new HashMap<String, List<PrologClause>>();
 		for (PrologClause clause : this) {
 			String key = clause.getIndicator();
@@ -144,6 +324,10 @@ public abstract class AbstractEngine implements PrologEngine {
 	}
 
 	public final Set<PrologClause> getProgramClauses() {
+		PrologProgramIndex i = getProgramIndex();
+		if (i != null) {
+			return i.getProgramClauses();
+		}
 		Set<PrologClause> c = new LinkedHashSet<PrologClause>();
 		for (PrologClause prologClause : this) {
 			c.add(prologClause);
@@ -152,7 +336,208 @@ public abstract class AbstractEngine implements PrologEngine {
 	}
 
 	public final boolean isProgramEmpty() {
-		return getProgramSize() == 0;
+		PrologProgramIndex i = getProgramIndex();
+		return i != null ? i.isEmpty() : getProgramSize() == 0;
+	}
+
+	/**
+	 * Enable or disable the program index maintained by the current engine. When
+	 * the program index is enabled, {@link #getProgramMap()},
+	 * {@link #getProgramClauses()} and {@link #isProgramEmpty()} are served from
+	 * an index built the first time from the program clauses and after that
+	 * maintained incrementally. The engine implementation that enable the program
+	 * index must notify every program change using {@link #indexAsserta},
+	 * {@link #indexAssertz}, {@link #indexRetract}, {@link #indexAbolish} or
+	 * {@link #invalidateProgramIndex()}. When the program index is disabled, every
+	 * call iterate over all program clauses.
+	 * 
+	 * @param indexing true to enable the program index, false to disable it.
+	 * @since 1.2
+	 */
+	protected final void setProgramIndexing(boolean indexing) {
+		this.indexing = indexing;
+		this.index = null;
+	}
+
+	/**
+	 * True if the program index is enabled for the current engine.
+	 * 
+	 * @return true if the program index is enabled.
+	 * @since 1.2
+	 */
+	protected final boolean isProgramIndexing() {
+		return indexing;
+	}
+
+	/**
+	 * Notify the program index that the given clause was added at the beginning
+	 * of your predicate clauses.
+	 * 
+	 * @param clause added clause
+	 * @since 1.2
+	 */
+	protected final void indexAsserta(PrologClause clause) {
+		PrologProgramIndex i = index;
+		if (i != null) {
+			i.addFirst(clause);
+		}
+	}
+
+	/**
+	 * Notify the program index that the given clause was added at the end of your
+	 * predicate clauses.
+	 * 
+	 * @param clause added clause
+	 * @since 1.2
+	 */
+	protected final void indexAssertz(PrologClause clause) {
+		PrologProgramIndex i = index;
+		if (i != null) {
+			i.addLast(clause);
+		}
+	}
+
+	/**
+	 * Notify the program index that the given clause was removed from the
+	 * program.
+	 * 
+	 * @param clause removed clause
+	 * @since 1.2
+	 */
+	protected final void indexRetract(PrologClause clause) {
+		PrologProgramIndex i = index;
+		if (i != null && !i.remove(clause)) {
+			// clause not equals to the indexed clause
+			invalidateProgramIndex();
+		}
+	}
+
+	/**
+	 * Notify the program index that all clauses of the given predicate was
+	 * removed from the program.
+	 * 
+	 * @param functor predicate functor
+	 * @param arity   predicate arity
+	 * @since 1.2
+	 */
+	protected final void indexAbolish(String functor, int arity) {
+		PrologProgramIndex i = index;
+		if (i != null) {
+			i.removeAll(removeQuoted(functor), arity);
+		}
+	}
+
+	/**
+	 * Discard the program index. The program index will be built again from the
+	 * program clauses the next time that is needed. Engine implementations must
+	 * invoke this method when the program is changed in a way that can't be
+	 * notified clause by clause, like consult a file or run a query that modify
+	 * the program.
+	 * 
+	 * @since 1.2
+	 */
+	protected final void invalidateProgramIndex() {
+		index = null;
+	}
+
+	/**
+	 * Set the head argument positions indexed by default in the program index.
+	 * The positions are zero based like {@link PrologTerm#getArgument(int)}. By
+	 * default only the first argument is indexed. Atomic arguments are hashed by
+	 * value and compound arguments by functor/arity. When many positions are
+	 * indexed, every lookup use the position with less candidates clauses.
+	 * 
+	 * @param positions zero based argument positions to be indexed
+	 * @since 1.2
+	 */
+	protected final void setIndexArguments(int... positions) {
+		indexArguments = positions.clone();
+		PrologProgramIndex i = index;
+		if (i != null) {
+			i.setPositions(indexArguments);
+		}
+	}
+
+	/**
+	 * Set the head argument positions indexed in the program index for the given
+	 * predicate. The positions are zero based like
+	 * {@link PrologTerm#getArgument(int)}.
+	 * 
+	 * @param functor   predicate functor
+	 * @param arity     predicate arity
+	 * @param positions zero based argument positions to be indexed
+	 * @since 1.2
+	 */
+	protected final void setIndexArguments(String functor, int arity, int... positions) {
+		String key = removeQuoted(functor) + "/" + arity;
+		predicateIndexArguments.put(key, positions.clone());
+		PrologProgramIndex i = index;
+		if (i != null) {
+			i.setPositions(key, positions);
+		}
+	}
+
+	/**
+	 * Program clauses that can unify with the given head in program order. The
+	 * returned clauses are selected using the program index, so the lookup cost
+	 * don't depend of the predicate size for bound indexed arguments. Engine
+	 * implementations can use the returned clauses to resolve
+	 * {@link #clause(PrologTerm, PrologTerm...)} and
+	 * {@link #retract(PrologTerm, PrologTerm...)} without scan all predicate
+	 * clauses. The returned clauses are candidates and must be unified with the
+	 * given head to be sure that they match.
+	 * 
+	 * @param head clause head to be looked up
+	 * @return unmodifiable candidates clauses list, or null if the program index
+	 *         is disabled or the predicate is not present in the program index.
+	 * @since 1.2
+	 */
+	protected final List<PrologClause> indexLookup(PrologTerm head) {
+		PrologProgramIndex i = getProgramIndex();
+		return i != null ? i.lookup(head) : null;
+	}
+
+	/**
+	 * Resolve the given goal using the program index if the goal is a fact-only
+	 * predicate present in the index.
+	 * 
+	 * @param goal goal to be resolved
+	 * @return true or false if the goal was resolved using the program index, null
+	 *         if the goal need be resolved by the engine.
+	 */
+	private Boolean containsFact(PrologTerm goal) {
+		PrologProgramIndex i = getProgramIndex();
+		if (i == null || !(goal.isStructure() || goal.isAtom()) || !i.isFactOnly(goal.getIndicator())) {
+			return null;
+		}
+		List<PrologClause> candidates = i.lookup(goal);
+		if (candidates.isEmpty()) {
+			return Boolean.FALSE;
+		} else if (PrologTerms.isGround(goal)) {
+			for (PrologClause candidate : candidates) {
+				PrologTerm head = candidate.getHead();
+				if (PrologTerms.isGround(head) && head.unify(goal)) {
+					return Boolean.TRUE;
+				}
+			}
+		}
+		return null;
+	}
+
+	private PrologProgramIndex getProgramIndex() {
+		PrologProgramIndex i = index;
+		if (i == null && indexing) {
+			i = new PrologProgramIndex();
+			i.setPositions(indexArguments);
+			for (Map.Entry<String, int[]> entry : predicateIndexArguments.entrySet()) {
+				i.setPositions(entry.getKey(), entry.getValue());
+			}
+			for (PrologClause clause : this) {
+				i.addLast(clause);
+			}
+			index = i;
+		}
+		return i;
 	}
 
 	public final Set<PrologIndicator> currentPredicates() {
@@ -256,10 +641,67 @@ public abstract class AbstractEngine implements PrologEngine {
 		return true;
 	}
 
+	/**
+	 * Least recently used cache for the prepared queries templates.
+	 * 
+	 * @author Jose Zalacain
+	 * @since 1.2
+	 */
+	private static final class PreparedCache extends LinkedHashMap<String, DefaultPreparedQuery.Template> {
+
+		private static final long serialVersionUID = 4052462476468618306L;
+		private final int capacity;
+
+		private PreparedCache(int capacity) {
+			super(16, 0.75F, true);
+			this.capacity = capacity;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, DefaultPreparedQuery.Template> eldest) {
+			return size() > capacity;
+		}
+
+	}
+
+	/**
+	 * Readable byte channel wrapper that count the read bytes.
+	 * 
+	 * @author Jose Zalacain
+	 * @since 1.2
+	 */
+	private static final class CountingChannel implements ReadableByteChannel {
+
+		private volatile long count;
+		private final ReadableByteChannel channel;
+
+		private CountingChannel(ReadableByteChannel channel) {
+			this.channel = channel;
+		}
+
+		public int read(ByteBuffer dst) throws IOException {
+			int n = channel.read(dst);
+			if (n > 0) {
+				count += n;
+			}
+			return n;
+		}
+
+		public boolean isOpen() {
+			return channel.isOpen();
+		}
+
+		public void close() throws IOException {
+			channel.close();
+		}
+
+	}
+
 	protected class PrologProgramIterator extends AbstractIterator<PrologClause> implements Iterator<PrologClause> {
 
 		private PrologClause last;
-		private final Iterator<PrologClause> i;
+		private boolean snapshot;
+		private Iterator<PrologClause> i;
 
 		public PrologProgramIterator(Collection<PrologClause> cls) {
 			i = cls.iterator();
@@ -279,10 +721,23 @@ public abstract class AbstractEngine implements PrologEngine {
 
 		@Override
 		public void remove() {
+			if (last == null) {
+				throw new IllegalStateException();
+			}
+			if (!snapshot) {
+				// the program index views change after retract, copy only
+				// the remaining clauses and only when the program is modified
+				List<PrologClause> remaining = new ArrayList<PrologClause>();
+				while (i.hasNext()) {
+					remaining.add(i.next());
+				}
+				i = remaining.iterator();
+				snapshot = true;
+			}
 			PrologTerm h = last.getHead();
 			PrologTerm b = last.getBody();
 			retract(h, b);
-			i.remove();
+			last = null;
 		}
 
 	}
@@ -40,19 +40,48 @@ import static io.github.prolobjectlink.prolog.PrologTermType.VARIABLE_TYPE;
 
 import java.lang.reflect.Array;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
 /**
- * Partial implementation of {@link PrologJavaConverter} interface.
+ * Partial implementation of {@link PrologJavaConverter} interface. The Java to
+ * Prolog conversion dispatch on the object class. The atoms and integers are
+ * taken from the provider terms cache when the provider enable it, in other
+ * case every conversion create new terms.
  * 
  * @author Jose Zalacain
  * @since 1.0
  */
 public abstract class AbstractJavaConverter implements PrologJavaConverter {
 
+	private static final int STRING = 1;
+	private static final int CHARACTER = 2;
+	private static final int BOOLEAN = 3;
+	private static final int INTEGER = 4;
+	private static final int FLOAT = 5;
+	private static final int LONG = 6;
+	private static final int DOUBLE = 7;
+
+	/** Java class to conversion kind, read only after class initialization */
+	private static final Map<Class<?>, Integer> TO_TERM_DISPATCH;
+
+	static {
+		Map<Class<?>, Integer> m = new HashMap<Class<?>, Integer>();
+		m.put(String.class, STRING);
+		m.put(Character.class, CHARACTER);
+		m.put(Boolean.class, BOOLEAN);
+		m.put(Byte.class, INTEGER);
+		m.put(Short.class, INTEGER);
+		m.put(Integer.class, INTEGER);
+		m.put(Float.class, FLOAT);
+		m.put(Long.class, LONG);
+		m.put(Double.class, DOUBLE);
+		TO_TERM_DISPATCH = Collections.unmodifiableMap(m);
+	}
+
 	private final PrologProvider provider;
 
 	protected AbstractJavaConverter(PrologProvider provider) {
@@ -122,31 +151,30 @@ public abstract class AbstractJavaConverter implements PrologJavaConverter {
 			return provider.prologNil();
 		}
 
-		// string data type
-		else if (object instanceof String) {
-			if (((String) object).matches("[A-Z_]*")) {
-				return provider.newVariable("" + (String) object + "", 0);
+		Integer kind = TO_TERM_DISPATCH.get(object.getClass());
+		if (kind != null) {
+			switch (kind.intValue()) {
+			case STRING:
+				String string = (String) object;
+				if (isVariableName(string)) {
+					return provider.newVariable(string, 0);
+				}
+				return atom(string);
+			case CHARACTER:
+				return atom(String.valueOf(((Character) object).charValue()));
+			case BOOLEAN:
+				return (Boolean) object ? provider.prologTrue() : provider.prologFalse();
+			case INTEGER:
+				return integer(((Number) object).intValue(), (Number) object);
+			case FLOAT:
+				return provider.newFloat((Float) object);
+			case LONG:
+				return provider.newLong((Long) object);
+			case DOUBLE:
+				return provider.newDouble((Double) object);
+			default:
+				break;
 			}
-			return provider.newAtom("" + (String) object + "");
-		}
-
-		// primitives and wrappers data types
-		else if (object.getClass() == char.class || object instanceof Character) {
-			return provider.newAtom("" + (String) object + "");
-		} else if (object.getClass() == byte.class || object instanceof Byte) {
-			return provider.newInteger((Integer) object);
-		} else if (object.getClass() == short.class || object instanceof Short) {
-			return provider.newInteger((Integer) object);
-		} else if (object.getClass() == boolean.class || object instanceof Boolean) {
-			return (Boolean) object ? provider.prologTrue() : provider.prologFalse();
-		} else if (object.getClass() == int.class || object instanceof Integer) {
-			return provider.newInteger((Integer) object);
-		} else if (object.getClass() == float.class || object instanceof Float) {
-			return provider.newFloat((Float) object);
-		} else if (object.getClass() == long.class || object instanceof Long) {
-			return provider.newLong((Long) object);
-		} else if (object.getClass() == double.class || object instanceof Double) {
-			return provider.newDouble((Double) object);
 		}
 
 		// object array
@@ -158,6 +186,52 @@ public abstract class AbstractJavaConverter implements PrologJavaConverter {
 
 	}
 
+	/**
+	 * True if the given string is converted to a variable, that is a not empty
+	 * string formed only by upper case letters from A to Z and underscores.
+	 */
+	private boolean isVariableName(String string) {
+		int length = string.length();
+		if (length == 0) {
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			char c = string.charAt(i);
+			if ((c < 'A' || c > 'Z') && c != '_') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Atom for the given string. The atom is interned only if the provider
+	 * terms cache is enabled, that is if the provider terms are immutable.
+	 */
+	private PrologTerm atom(String string) {
+		if (provider instanceof AbstractProvider) {
+			AbstractProvider p = (AbstractProvider) provider;
+			PrologAtom cached = p.getCachedAtom(string);
+			return cached != null ? cached : p.internAtom(provider.newAtom(string));
+		}
+		return provider.newAtom(string);
+	}
+
+	/**
+	 * Integer term for the given value. The cached integer is used only if the
+	 * provider terms cache is enabled, that is if the provider terms are
+	 * immutable.
+	 */
+	private PrologTerm integer(int value, Number number) {
+		if (provider instanceof AbstractProvider) {
+			PrologInteger cached = ((AbstractProvider) provider).getCachedInteger(value);
+			if (cached != null) {
+				return cached;
+			}
+		}
+		return provider.newInteger(number);
+	}
+
 	public final PrologTerm[] toTermsArray(Object[] objects) {
 		PrologTerm[] terms = new PrologTerm[objects.length];
 		for (int i = 0; i < objects.length; i++) {
@@ -26,6 +26,7 @@
 package io.github.prolobjectlink.prolog;
 
 import java.util.AbstractMap;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -49,8 +50,10 @@ public abstract class AbstractProgram extends AbstractMap<String, PrologClauses>
 		String key = functor + "/" + arity;
 		List<PrologClause> l = engine.getProgramMap().get(key);
 		PrologClauses clauses = newClauses(functor, arity);
-		for (PrologClause prologClause : l) {
-			clauses.add(prologClause);
+		if (l != null) {
+			for (PrologClause prologClause : l) {
+				clauses.add(prologClause);
+			}
 		}
 		return clauses;
 	}
@@ -60,11 +63,11 @@ public abstract class AbstractProgram extends AbstractMap<String, PrologClauses>
 	}
 
 	public void add(PrologProgram program) {
+		List<PrologClause> clauses = new ArrayList<PrologClause>();
 		for (PrologClauses prologClauses : program) {
-			for (PrologClause clause : prologClauses) {
-				engine.assertz(clause.getHead(), clause.getBody());
-			}
+			clauses.addAll(prologClauses);
 		}
+		engine.assertzAll(clauses);
 	}
 
 	public void push(PrologClause clause) {
@@ -133,14 +136,14 @@ public abstract class AbstractProgram extends AbstractMap<String, PrologClauses>
 	public Map<String, PrologClauses> getClauses() {
 		Map<String, List<PrologClause>> p = engine.getProgramMap();
 		Map<String, PrologClauses> m = new HashMap<String, PrologClauses>(p.size());
-		for (List<PrologClause> clauses : p.values()) {
+		for (Entry<String, List<PrologClause>> entry : p.entrySet()) {
+			List<PrologClause> clauses = entry.getValue();
+			PrologClause first = clauses.get(0);
+			PrologClauses c = newClauses(first.getFunctor(), first.getArity());
 			for (PrologClause clause : clauses) {
-				PrologClauses c = m.get(clause.getIndicator());
-				if (c == null) {
-					c = newClauses(clause.getFunctor(), clause.getArity());
-				}
 				c.add(clause);
 			}
+			m.put(entry.getKey(), c);
 		}
 		return m;
 	}
@@ -155,28 +158,22 @@ public abstract class AbstractProgram extends AbstractMap<String, PrologClauses>
 	}
 
 	public void add(PrologClauses clauses) {
-		for (PrologClause prologClause : clauses) {
-			engine.assertz(prologClause.getHead(), prologClause.getBody());
-		}
+		engine.assertzAll(clauses);
 	}
 
 	public void addAll(PrologProgram program) {
-		for (PrologClauses clauses : program) {
-			for (PrologClause prologClause : clauses) {
-				engine.assertz(prologClause.getHead(), prologClause.getBody());
-			}
-		}
+		add(program);
 	}
 
 	public boolean retainAll(PrologClauses parents) {
 		Map<String, PrologClauses> m = getClauses();
+		List<PrologIndicator> indicators = new ArrayList<PrologIndicator>();
 		for (PrologClauses prologClauses : m.values()) {
 			if (!parents.contains((Object) prologClauses)) {
-				String functor = prologClauses.get(0).getFunctor();
-				int arity = prologClauses.get(0).getArity();
-				engine.abolish(functor, arity);
+				indicators.add(prologClauses.get(0).getPrologIndicator());
 			}
 		}
+		engine.abolishAll(indicators);
 		return true;
 	}
 
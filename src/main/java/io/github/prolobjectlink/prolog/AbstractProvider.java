@@ -26,6 +26,10 @@
 package io.github.prolobjectlink.prolog;
 
 import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
@@ -40,6 +44,9 @@ public abstract class AbstractProvider implements PrologProvider {
 
 	protected final PrologConverter<?> converter;
 	private static final Set<PrologIndicator> ISO_IEC_BUILT_INS;
+	private volatile PrologTermCache termCache;
+	private volatile boolean threadSafeTerms;
+	private final DefaultPrologParser parser = new DefaultPrologParser(this);
 
 	static {
 
@@ -219,6 +226,136 @@ public abstract class AbstractProvider implements PrologProvider {
 		this.converter = converter;
 	}
 
+	/**
+	 * Enable the provider terms cache. The cache intern at most the given number
+	 * of atoms and preallocate the integer and long terms for the numbers in the
+	 * given range. Drivers opt in calling this method, usually at the end of the
+	 * provider constructor, and using {@link #getCachedAtom(String)},
+	 * {@link #internAtom(PrologAtom)}, {@link #getCachedInteger(long)} and
+	 * {@link #getCachedLong(long)} in the terms factory methods. The cached terms
+	 * are shared, so the drivers must enable the cache only when the terms are
+	 * immutable. Calling this method again replace the current cache.
+	 * 
+	 * @param maxAtoms  maximum number of interned atoms, zero to don't intern
+	 *                  atoms
+	 * @param minNumber lower bound of the cached numbers range
+	 * @param maxNumber upper bound of the cached numbers range, lower than
+	 *                  minNumber to don't cache numbers
+	 * @since 1.2
+	 */
+	protected final void setTermCache(int maxAtoms, int minNumber, int maxNumber) {
+		termCache = new PrologTermCache(this, maxAtoms, minNumber, maxNumber);
+	}
+
+	/**
+	 * Disable the provider terms cache discarding the cached terms.
+	 * 
+	 * @since 1.2
+	 */
+	protected final void disableTermCache() {
+		termCache = null;
+	}
+
+	/**
+	 * Interned atom for the given functor.
+	 * 
+	 * @param functor atom functor
+	 * @return the interned atom or null if the terms cache is disabled or the
+	 *         functor is not interned
+	 * @since 1.2
+	 */
+	protected final PrologAtom getCachedAtom(String functor) {
+		PrologTermCache c = termCache;
+		return c != null ? c.getAtom(functor) : null;
+	}
+
+	/**
+	 * Intern the given atom. If an atom with the same functor was interned
+	 * before the interned atom is returned. If the terms cache is disabled or
+	 * the intern table is full the given atom is returned.
+	 * 
+	 * @param atom atom to be interned
+	 * @return the interned atom for the given atom functor
+	 * @since 1.2
+	 */
+	protected final PrologAtom internAtom(PrologAtom atom) {
+		PrologTermCache c = termCache;
+		return c != null ? c.intern(atom) : atom;
+	}
+
+	/**
+	 * Cached integer term for the given value.
+	 * 
+	 * @param value integer value
+	 * @return the cached integer term or null if the terms cache is disabled or
+	 *         the value is out of the cached range
+	 * @since 1.2
+	 */
+	protected final PrologInteger getCachedInteger(long value) {
+		PrologTermCache c = termCache;
+		return c != null ? c.getInteger(value) : null;
+	}
+
+	/**
+	 * Cached long term for the given value.
+	 * 
+	 * @param value long value
+	 * @return the cached long term or null if the terms cache is disabled or the
+	 *         value is out of the cached range
+	 * @since 1.2
+	 */
+	protected final PrologLong getCachedLong(long value) {
+		PrologTermCache c = termCache;
+		return c != null ? c.getLong(value) : null;
+	}
+
+	/**
+	 * True if the provider terms cache is enabled, that is if the provider terms
+	 * are immutable and can be shared.
+	 * 
+	 * @return true if the provider terms cache is enabled
+	 * @since 1.2
+	 */
+	final boolean isTermCacheEnabled() {
+		return termCache != null;
+	}
+
+	/**
+	 * Declare if the terms created by this provider can be read and formatted
+	 * from many threads at the same time. Drivers over native engines must not
+	 * declare it. When it is declared the engines serialize big programs in
+	 * parallel on persist, in other case the terms are serialized only in the
+	 * caller thread. By default the terms are not thread safe.
+	 * 
+	 * @param threadSafe true if the provider terms are thread safe
+	 * @since 1.2
+	 */
+	protected final void setThreadSafeTerms(boolean threadSafe) {
+		threadSafeTerms = threadSafe;
+	}
+
+	/**
+	 * True if the provider declare that its terms can be read and formatted from
+	 * many threads at the same time.
+	 * 
+	 * @return true if the provider terms are thread safe
+	 * @since 1.2
+	 */
+	final boolean hasThreadSafeTerms() {
+		return threadSafeTerms;
+	}
+
+	/**
+	 * Number of atoms interned in the terms cache.
+	 * 
+	 * @return the number of interned atoms, zero if the terms cache is disabled
+	 * @since 1.2
+	 */
+	protected final int getInternedAtomsCount() {
+		PrologTermCache c = termCache;
+		return c != null ? c.getAtomsCount() : 0;
+	}
+
 	protected final String removeQuoted(String functor) {
 		if (functor != null && functor.startsWith("\'") && functor.endsWith("\'")) {
 			return functor.substring(1, functor.length() - 1);
@@ -237,6 +374,35 @@ public abstract class AbstractProvider implements PrologProvider {
 		return false;
 	}
 
+	public final PrologEnginePool newEnginePool(int minSize, int maxSize) {
+		return new DefaultPrologEnginePool(this, null, minSize, maxSize);
+	}
+
+	public final PrologEnginePool newEnginePool(String file, int minSize, int maxSize) {
+		return new DefaultPrologEnginePool(this, file, minSize, maxSize);
+	}
+
+	public final PrologExecutor newExecutor(int parallelism, int queueCapacity) {
+		PrologEnginePool pool = newEnginePool(0, parallelism);
+		return new DefaultPrologExecutor(pool, queueCapacity, true);
+	}
+
+	public final PrologExecutor newExecutor(PrologEnginePool pool, int queueCapacity) {
+		return new DefaultPrologExecutor(pool, queueCapacity, false);
+	}
+
+	public final PrologObjectMapper newObjectMapper() {
+		return new DefaultPrologObjectMapper(this);
+	}
+
+	public final PrologParser newParser() {
+		return new DefaultPrologParser(this);
+	}
+
+	public final PrologParser newParser(int cacheSize) {
+		return new DefaultPrologParser(this, cacheSize);
+	}
+
 	public final PrologList parseList(String stringList) {
 		PrologTerm term = parseTerm(stringList);
 		checkListType(term);
@@ -244,9 +410,7 @@ public abstract class AbstractProvider implements PrologProvider {
 	}
 
 	public final PrologClause parseClause(String stringClause) {
-		PrologEngine engine = newEngine();
-		engine.asserta(stringClause);
-		return engine.iterator().next();
+		return parser.parseClause(stringClause);
 	}
 
 	public final PrologStructure parseStructure(String stringStructure) {
@@ -256,6 +420,9 @@ public abstract class AbstractProvider implements PrologProvider {
 	}
 
 	public final Set<PrologClause> parseProgram(String file) {
+		if (!new File(file).isFile()) {
+			throw new LoadError(new FileNotFoundException(file));
+		}
 		return newEngine(file).getProgramClauses();
 	}
 
@@ -263,6 +430,34 @@ public abstract class AbstractProvider implements PrologProvider {
 		return parseProgram(in.getAbsolutePath());
 	}
 
+	public final Set<PrologClause> parseProgram(Reader in) {
+		// read before consult, the driver engines can't report the I/O errors
+		StringBuilder buffer = new StringBuilder();
+		char[] chars = new char[8192];
+		try {
+			for (int n = in.read(chars); n != -1; n = in.read(chars)) {
+				buffer.append(chars, 0, n);
+			}
+		} catch (IOException e) {
+			throw new LoadError(e);
+		}
+		PrologEngine engine = newEngine();
+		engine.consult(new StringReader("" + buffer + ""));
+		return engine.getProgramClauses();
+	}
+
+	/**
+	 * Create a clause of this provider with the given head and body. The body is
+	 * null for facts. Used to create the parsed clauses without engine, so the
+	 * providers must create their clause type directly without use any engine.
+	 * 
+	 * @param head clause head
+	 * @param body clause body or null for facts
+	 * @return a clause of this provider with the given head and body
+	 * @since 1.2
+	 */
+	protected abstract PrologClause newClause(PrologTerm head, PrologTerm body);
+
 	public final PrologFloat newFloat() {
 		return newFloat(0F);
 	}
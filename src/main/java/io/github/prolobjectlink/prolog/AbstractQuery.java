@@ -25,6 +25,7 @@
  */
 package io.github.prolobjectlink.prolog;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
@@ -39,6 +40,12 @@ import java.util.Map;
  */
 public abstract class AbstractQuery extends AbstractIterator<Collection<PrologTerm>> implements PrologQuery {
 
+	// default window size for query cursors
+	private static final int CURSOR_WINDOW = 128;
+
+	// initial capacity bound for n-bounded fetches
+	private static final int FETCH_CAPACITY = 1024;
+
 	// engine for execute queries
 	protected final AbstractEngine engine;
 
@@ -85,6 +92,109 @@ public abstract class AbstractQuery extends AbstractIterator<Collection<PrologTe
 		return false;
 	}
 
+	/**
+	 * Fetch at most n solutions from the current query. The query is never driven
+	 * past the n-th solution, so the remaining search space is not enumerated.
+	 * Drivers can use this method to implement {@link #nSolutions(int)} when the
+	 * under-laying engine don't have a dedicated bounded retrieval.
+	 * 
+	 * @param n maximum number of solutions to be fetched
+	 * @return a Prolog terms matrix with at most n rows
+	 * @since 1.2
+	 */
+	protected final PrologTerm[][] fetchSolutions(int n) {
+		List<PrologTerm[]> solutions = new ArrayList<PrologTerm[]>(n > 0 ? Math.min(n, FETCH_CAPACITY) : 0);
+		while (solutions.size() < n && hasMoreSolutions()) {
+			solutions.add(nextSolution());
+		}
+		return solutions.toArray(new PrologTerm[solutions.size()][]);
+	}
+
+	/**
+	 * Fetch at most n variables solutions from the current query. The query is
+	 * never driven past the n-th solution, so the remaining search space is not
+	 * enumerated. Drivers can use this method to implement
+	 * {@link #nVariablesSolutions(int)} when the under-laying engine don't have a
+	 * dedicated bounded retrieval.
+	 * 
+	 * @param n maximum number of solutions to be fetched
+	 * @return an array with at most n variables solutions maps
+	 * @since 1.2
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	protected final Map<String, PrologTerm>[] fetchVariablesSolutions(int n) {
+		List<Map<String, PrologTerm>> solutions = fetchVariablesSolutionsList(n);
+		return solutions.toArray(new Map[solutions.size()]);
+	}
+
+	private List<Map<String, PrologTerm>> fetchVariablesSolutionsList(int n) {
+		int capacity = n > 0 ? Math.min(n, FETCH_CAPACITY) : 0;
+		List<Map<String, PrologTerm>> solutions = new ArrayList<Map<String, PrologTerm>>(capacity);
+		while (solutions.size() < n && hasMoreSolutions()) {
+			solutions.add(nextVariablesSolution());
+		}
+		return solutions;
+	}
+
+	/**
+	 * Fetch at most n solutions from the current query into columns. The
+	 * variables names are taken from the first solution and every solution value
+	 * is stored in the variable column without per solution Java maps.
+	 */
+	private PrologColumns fetchColumns(int n) {
+		PrologJavaConverter converter = getProvider().getJavaConverter();
+		if (n <= 0 || !hasMoreSolutions()) {
+			return new PrologColumns(new String[0], 0, converter);
+		}
+		Map<String, PrologTerm> solution = nextVariablesSolution();
+		String[] names = solution.keySet().toArray(new String[solution.size()]);
+		PrologColumns columns = new PrologColumns(names, Math.min(n, FETCH_CAPACITY), converter);
+		PrologTerm[] row = new PrologTerm[names.length];
+		int count = 0;
+		while (true) {
+			for (int i = 0; i < names.length; i++) {
+				row[i] = solution.get(names[i]);
+			}
+			columns.add(row);
+			if (++count >= n || !hasMoreSolutions()) {
+				break;
+			}
+			solution = nextVariablesSolution();
+		}
+		columns.trim();
+		return columns;
+	}
+
+	/**
+	 * Fetch the remaining distinct solutions from the current query.
+	 */
+	private PrologTerm[][] fetchDistinctSolutions() {
+		PrologDistinct distinct = PrologDistinct.exact();
+		List<PrologTerm[]> solutions = new ArrayList<PrologTerm[]>();
+		while (hasMoreSolutions()) {
+			PrologTerm[] solution = nextSolution();
+			if (distinct.add(solution)) {
+				solutions.add(solution);
+			}
+		}
+		return solutions.toArray(new PrologTerm[solutions.size()][]);
+	}
+
+	/**
+	 * Fetch the remaining distinct variables solutions from the current query.
+	 */
+	private List<Map<String, PrologTerm>> fetchDistinctVariablesSolutions() {
+		PrologDistinct distinct = PrologDistinct.exact();
+		List<Map<String, PrologTerm>> solutions = new ArrayList<Map<String, PrologTerm>>();
+		while (hasMoreSolutions()) {
+			Map<String, PrologTerm> solution = nextVariablesSolution();
+			if (distinct.add(solution)) {
+				solutions.add(solution);
+			}
+		}
+		return solutions;
+	}
+
 	protected final PrologLogger getLogger() {
 		return getProvider().getLogger();
 	}
@@ -100,7 +210,8 @@ public abstract class AbstractQuery extends AbstractIterator<Collection<PrologTe
 	public final Collection<PrologTerm> next() {
 		// don't check has next
 		// don't raise NoSuchElementException
-		return nextVariablesSolution().values();
+		// list view over the solution array, no map per answer
+		return Arrays.asList(nextSolution());
 	}
 
 	@Override
@@ -114,8 +225,7 @@ public abstract class AbstractQuery extends AbstractIterator<Collection<PrologTe
 	}
 
 	public final List<Map<String, PrologTerm>> nths(int n) {
-		Map<String, PrologTerm>[] maps = nVariablesSolutions(n);
-		return Arrays.asList(maps);
+		return fetchVariablesSolutionsList(n);
 	}
 
 	public final Map<String, PrologTerm> more() {
@@ -133,7 +243,7 @@ public abstract class AbstractQuery extends AbstractIterator<Collection<PrologTe
 	}
 
 	public final List<List<Object>> nResult(int n) {
-		PrologTerm[][] terms = allSolutions();
+		PrologTerm[][] terms = fetchSolutions(n);
 		return getProvider().getJavaConverter().toObjectLists(terms);
 	}
 
@@ -155,7 +265,7 @@ public abstract class AbstractQuery extends AbstractIterator<Collection<PrologTe
 
 	@Override
 	public final List<Map<String, Object>> nVariablesResults(int n) {
-		Map<String, PrologTerm>[] maps = nVariablesSolutions(n);
+		Map<String, PrologTerm>[] maps = fetchVariablesSolutions(n);
 		return getProvider().getJavaConverter().toObjectMaps(maps);
 	}
 
@@ -164,6 +274,39 @@ public abstract class AbstractQuery extends AbstractIterator<Collection<PrologTe
 		return getProvider().getJavaConverter().toObjectMaps(maps);
 	}
 
+	public final PrologTerm[][] distinct() {
+		return fetchDistinctSolutions();
+	}
+
+	public final List<Map<String, PrologTerm>> distinctVariables() {
+		return fetchDistinctVariablesSolutions();
+	}
+
+	public final PrologCursor distinctCursor() {
+		return new PrologQueryCursor(this, CURSOR_WINDOW, PrologDistinct.exact());
+	}
+
+	public final PrologCursor distinctCursor(int expected, double falsePositiveRate) {
+		PrologDistinct distinct = PrologDistinct.bounded(expected, falsePositiveRate);
+		return new PrologQueryCursor(this, CURSOR_WINDOW, distinct);
+	}
+
+	public final PrologColumns allColumns() {
+		return fetchColumns(Integer.MAX_VALUE);
+	}
+
+	public final PrologColumns nColumns(int n) {
+		return fetchColumns(n);
+	}
+
+	public final PrologCursor cursor() {
+		return cursor(CURSOR_WINDOW);
+	}
+
+	public final PrologCursor cursor(int window) {
+		return new PrologQueryCursor(this, window);
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
@@ -47,8 +47,6 @@ import static io.github.prolobjectlink.prolog.PrologTermType.STRUCTURE_TYPE;
 import static io.github.prolobjectlink.prolog.PrologTermType.TRUE_TYPE;
 import static io.github.prolobjectlink.prolog.PrologTermType.VARIABLE_TYPE;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -252,6 +250,37 @@ public abstract class AbstractTerm implements PrologTerm {
 		return isVariable() && getTerm() == this;
 	}
 
+	/**
+	 * Structural hash code consistent with {@link #equals(Object)}. Terms with
+	 * the same functor, arity and arguments have the same hash code, the bound
+	 * variables hash as their values and all free variables have the same hash
+	 * code. The hash code of ground compounds is computed once and cached.
+	 * 
+	 * @return the structural hash code of this term
+	 * @since 1.2
+	 */
+	@Override
+	public int hashCode() {
+		return PrologTermHash.hashCode(this);
+	}
+
+	/**
+	 * Structural equality. Two terms are equals if they have the same functor,
+	 * arity and equals arguments. The bound variables are compared by their
+	 * values and the free variables are equals only to themselves. The integer
+	 * and long numbers are equals with the same value and the same for float and
+	 * double numbers. Compounds with different cached hash codes are not
+	 * compared argument by argument.
+	 * 
+	 * @param obj the reference object with which to compare.
+	 * @return true if the given object is a structurally equals term
+	 * @since 1.2
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		return obj instanceof PrologTerm && PrologTermHash.equals(this, (PrologTerm) obj);
+	}
+
 	public final boolean isClause() {
 		return false;
 	}
@@ -261,107 +290,18 @@ public abstract class AbstractTerm implements PrologTerm {
 	}
 
 	/**
-	 * Match to other term returning list of substitutions.
+	 * Match to other term returning the variables substitutions. The match is
+	 * done by a {@link PrologUnifier} without bind the terms variables.
 	 * 
 	 * @param term - term to match check
-	 * @return list of substitutions.
+	 * @return the variables substitutions, empty if the terms don't match.
 	 */
 	public final Map<String, PrologTerm> match(PrologTerm term) {
-		Deque<PrologTerm> stack = new ArrayDeque<PrologTerm>();
-		if (unify(term, stack)) {
-			int size = stack.size();
-			HashMap<String, PrologTerm> substitution = new HashMap<String, PrologTerm>(size);
-			while (size > 0) {
-				PrologVariable variable = (PrologVariable) stack.pop();
-				substitution.put(variable.getName(), variable.getTerm());
-				// variable.unbind();
-				size--;
-			}
-			return substitution;
+		PrologUnifier unifier = new PrologUnifier(provider);
+		if (unifier.unify(this, term)) {
+			return unifier.getBindings();
 		}
 		return new HashMap<String, PrologTerm>();
 	}
 
-	/**
-	 * Unification is the basic primitive operation in logic programming. Check that
-	 * two terms (x and y) unify. Prolog unification algorithm is based on three
-	 * principals rules:
-	 * <ul>
-	 * <li>If x and y are atomics constants then x and y unify only if they are same
-	 * object.</li>
-	 * <li>If x is a variable and y is anything then they unify and x is
-	 * instantiated to y. Conversely, if y is a variable then this is instantiated
-	 * to x.</li>
-	 * <li>If x and y are structured terms then unify only if they match (equals
-	 * funtor and arity) and all their correspondents arguments unify.</li>
-	 * </ul>
-	 * 
-	 * 
-	 * @param term  - the term to unify with the current term
-	 * @param stack - the stack is used to store the addresses of variables which
-	 *              are bound by the unification. This is needed when backtracking.
-	 * @return true if the specified term unify whit the current term, false if not
-	 */
-	private boolean unify(PrologTerm term, Deque<PrologTerm> stack) throws PrologError {
-
-		PrologTerm thisTerm = this;
-		PrologTerm otherTerm = term;
-
-		if (thisTerm.isVariableBound()) {
-			return ((AbstractTerm) thisTerm.getTerm()).unify(otherTerm, stack);
-		}
-
-		else if (otherTerm.isVariableBound()) {
-			return ((AbstractTerm) otherTerm.getTerm()).unify(thisTerm, stack);
-		}
-
-		// current term is a free variable
-		else if (thisTerm.isVariableNotBound()) {
-			// if (!thisTerm.occurs(otherTerm)) {
-			// thisTerm.bind(otherTerm);
-			stack.push(thisTerm);
-			return true;
-			// }
-		}
-
-		// the other term is a free variable
-		else if (otherTerm.isVariableNotBound()) {
-			// if (!otherTerm.occurs(thisTerm)) {
-			// otherTerm.bind(thisTerm);
-			stack.push(otherTerm);
-			return true;
-			// }
-		}
-
-		// if at least term is a number then check equivalence
-		else if (thisTerm.isNumber() || otherTerm.isNumber()) {
-			if ((thisTerm.isInteger() || thisTerm.isLong()) && (otherTerm.isInteger() || otherTerm.isLong())) {
-				int thisInt = ((PrologNumber) thisTerm).getIntegerValue();
-				int otherInt = ((PrologNumber) otherTerm).getIntegerValue();
-				return thisInt == otherInt;
-			}
-			return thisTerm.equals(otherTerm);
-		}
-
-		else {
-
-			int thisArity = thisTerm.getArity();
-			int otherArity = otherTerm.getArity();
-			String thisFunctor = thisTerm.getFunctor();
-			String otherFunctor = otherTerm.getFunctor();
-
-			if (thisFunctor.equals(otherFunctor) && thisArity == otherArity) {
-				for (int i = 0; i < thisArity; i++) {
-					if (thisTerm.getArgument(i) != null && otherTerm.getArgument(i) != null) {
-						if (!((AbstractTerm) thisTerm.getArgument(i)).unify(otherTerm.getArgument(i), stack)) {
-							return false;
-						}
-					}
-				}
-				return true;
-			}
-		}
-		return false;
-	}
-
 }
@@ -25,6 +25,8 @@
  */
 package io.github.prolobjectlink.prolog;
 
+import java.util.Arrays;
+
 /**
  * 
  * @author Jose Zalacain
@@ -32,100 +34,106 @@ package io.github.prolobjectlink.prolog;
  */
 final class DefaultClauseBuilder extends AbstractBuilder implements PrologClauseBuilder {
 
+	private PrologTerm head;
+
 	DefaultClauseBuilder(PrologEngine engine) {
 		super(engine);
 	}
 
 	public PrologClauseBuilder begin(PrologTerm term) {
-		append(' ');
-		append(term);
+		clear();
+		head = term;
 		return this;
 	}
 
 	public PrologClauseBuilder begin(String functor, PrologTerm... arguments) {
-		append(functor, arguments);
-		return this;
+		return begin(term(functor, arguments));
 	}
 
 	public PrologClauseBuilder neck(PrologTerm body) {
-		append(':');
-		append('-');
-		append(' ');
 		append(body);
 		return this;
 	}
 
 	public PrologClauseBuilder neck(String functor, PrologTerm... arguments) {
-		append(':');
-		append('-');
-		append(' ');
-		append(functor, arguments);
+		append(term(functor, arguments));
 		return this;
 	}
 
 	public PrologClauseBuilder neck(PrologTerm left, String operator, int right) {
-		append(':');
-		append('-');
-		append(' ');
-		append(left, operator, right);
+		append(term(left, operator, provider.newInteger(right)));
 		return this;
 	}
 
 	public PrologClauseBuilder neck(PrologTerm left, String operator, PrologTerm right) {
-		append(':');
-		append('-');
-		append(' ');
-		append(left, operator, right);
+		append(term(left, operator, right));
 		return this;
 	}
 
 	public PrologClauseBuilder comma(PrologTerm body) {
-		append(',');
-		append(' ');
 		append(body);
 		return this;
 	}
 
 	public PrologClauseBuilder comma(String functor, PrologTerm... arguments) {
-		append(',');
-		append(' ');
-		append(functor, arguments);
+		append(term(functor, arguments));
 		return this;
 	}
 
 	public PrologClauseBuilder comma(PrologTerm left, String operator, PrologTerm right) {
-		append(',');
-		append(' ');
-		append(left, operator, right);
+		append(term(left, operator, right));
 		return this;
 	}
 
 	public String getClauseString() {
-		return "" + builder + "";
+		if (head == null) {
+			return "";
+		}
+		String body = format();
+		return body.isEmpty() ? "" + head + "" : head + " :- " + body;
 	}
 
 	public boolean clause() {
-		String c = getClauseString();
-		builder = new StringBuilder();
-		return engine.clause(c);
+		PrologTerm[] terms = build();
+		return engine.clause(terms[0], body(terms));
 	}
 
 	public void asserta() {
-		String c = getClauseString();
-		builder = new StringBuilder();
-		engine.asserta(c);
+		PrologTerm[] terms = build();
+		engine.asserta(terms[0], body(terms));
 	}
 
 	public void assertz() {
-		String c = getClauseString();
-		builder = new StringBuilder();
-		engine.assertz(c);
+		PrologTerm[] terms = build();
+		engine.assertz(terms[0], body(terms));
 	}
 
 	public void retract() {
-		String c = getClauseString();
-		builder = new StringBuilder();
-		engine.retract(c);
+		PrologTerm[] terms = build();
+		engine.retract(terms[0], body(terms));
+	}
+
+	/**
+	 * Head followed by the body goals of the built clause, sharing the variables
+	 * with the same name like in a parsed clause. The builder is cleared.
+	 */
+	private PrologTerm[] build() {
+		PrologTerm[] body = goals();
+		PrologTerm[] terms = new PrologTerm[body.length + 1];
+		terms[0] = head;
+		System.arraycopy(body, 0, terms, 1, body.length);
+		head = null;
+		clear();
+		return PrologTerms.shareNames(provider, terms);
+	}
+
+	private static PrologTerm[] body(PrologTerm[] terms) {
+		return Arrays.copyOfRange(terms, 1, terms.length);
+	}
+
+	@Override
+	public String toString() {
+		return getClauseString();
 	}
 
 }
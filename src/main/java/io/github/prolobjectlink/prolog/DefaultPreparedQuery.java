@@ -0,0 +1,296 @@
+/*-
+ * #%L
+ * prolobjectlink-jpi
+ * %%
+ * Copyright (C) 2020 - 2021 Prolobjectlink Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package io.github.prolobjectlink.prolog;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Default implementation of {@link PrologPreparedQuery}. The parsed goals are
+ * hold by a {@link Template} instance shared between all prepared queries
+ * created from the same query string. The bound values are substituted
+ * rebuilding only the compound terms that contains bound variables, the rest
+ * of the parsed terms are reused like they are.
+ * 
+ * @author Jose Zalacain
+ * @since 1.2
+ */
+final class DefaultPreparedQuery implements PrologPreparedQuery {
+
+	private final PrologEngine engine;
+	private final Template template;
+	private final Map<String, PrologTerm> bindings;
+
+	DefaultPreparedQuery(PrologEngine engine, Template template) {
+		this.bindings = new HashMap<String, PrologTerm>();
+		this.template = template;
+		this.engine = engine;
+	}
+
+	public PrologEngine getEngine() {
+		return engine;
+	}
+
+	public String getQueryString() {
+		return template.query;
+	}
+
+	public Set<String> getParameterNames() {
+		return template.parameters;
+	}
+
+	public Set<String> getVariableNames() {
+		return template.variables;
+	}
+
+	public PrologPreparedQuery bind(String name, PrologTerm value) {
+		if (!template.variables.contains(name)) {
+			throw new IllegalArgumentException("Variable " + name + " is not present in " + template.query);
+		}
+		if (value == null) {
+			bindings.remove(name);
+		} else {
+			bindings.put(name, value);
+		}
+		return this;
+	}
+
+	public PrologPreparedQuery bind(String name, String value) {
+		return bind(name, engine.getProvider().newAtom(value));
+	}
+
+	public PrologPreparedQuery bind(String name, int value) {
+		return bind(name, engine.getProvider().newInteger(value));
+	}
+
+	public PrologPreparedQuery bind(String name, long value) {
+		return bind(name, engine.getProvider().newLong(value));
+	}
+
+	public PrologPreparedQuery bind(String name, double value) {
+		return bind(name, engine.getProvider().newDouble(value));
+	}
+
+	public PrologPreparedQuery bind(String name, Object value) {
+		if (value instanceof PrologTerm) {
+			return bind(name, (PrologTerm) value);
+		}
+		return bind(name, engine.getProvider().getJavaConverter().toTerm(value));
+	}
+
+	public PrologPreparedQuery clear() {
+		bindings.clear();
+		return this;
+	}
+
+	public PrologTerm[] getGoals() {
+		PrologTerm[] goals = template.goals;
+		PrologTerm[] bound = new PrologTerm[goals.length];
+		for (int i = 0; i < goals.length; i++) {
+			bound[i] = substitute(goals[i]);
+		}
+		return bound;
+	}
+
+	public PrologQuery query() {
+		return engine.query(getGoals());
+	}
+
+	private PrologTerm substitute(PrologTerm term) {
+		if (bindings.isEmpty()) {
+			return term;
+		} else if (term.isVariable()) {
+			PrologTerm value = bindings.get(((PrologVariable) term).getName());
+			return value != null ? value : term;
+		} else if (term.isEmptyList()) {
+			return term;
+		} else if (term.isList()) {
+			return substituteList((PrologList) term);
+		} else if (term.isStructure()) {
+			PrologTerm[] arguments = term.getArguments();
+			PrologTerm[] bound = substituteAll(arguments);
+			if (bound != arguments) {
+				return engine.getProvider().newStructure(term.getFunctor(), bound);
+			}
+		}
+		return term;
+	}
+
+	private PrologTerm substituteList(PrologList list) {
+		int size = list.size();
+		PrologTerm[] elements = new PrologTerm[size];
+		boolean changed = false;
+		PrologTerm current = list;
+		int i = 0;
+		while (i < size && current.isList() && !current.isEmptyList()) {
+			PrologList cell = (PrologList) current;
+			elements[i] = substitute(cell.getHead());
+			changed |= elements[i] != cell.getHead();
+			current = cell.getTail();
+			i++;
+		}
+		PrologTerm tail = substitute(current);
+		changed |= tail != current;
+		if (!changed) {
+			return list;
+		} else if (i < size) {
+			PrologTerm[] prefix = new PrologTerm[i];
+			System.arraycopy(elements, 0, prefix, 0, i);
+			elements = prefix;
+		}
+		PrologProvider provider = engine.getProvider();
+		return tail.isEmptyList() ? provider.newList(elements) : provider.newList(elements, tail);
+	}
+
+	private PrologTerm[] substituteAll(PrologTerm[] arguments) {
+		PrologTerm[] bound = arguments;
+		for (int i = 0; i < arguments.length; i++) {
+			PrologTerm argument = substitute(arguments[i]);
+			if (argument != arguments[i]) {
+				if (bound == arguments) {
+					bound = arguments.clone();
+				}
+				bound[i] = argument;
+			}
+		}
+		return bound;
+	}
+
+	@Override
+	public String toString() {
+		return template.query;
+	}
+
+	/**
+	 * Immutable parsed form of a prepared query string. The query string is
+	 * rewritten removing the question mark prefix of the parameters and parsed
+	 * once by the engine provider. Template instances are cached by the engine
+	 * and shared between all prepared queries for the same query string.
+	 * 
+	 * @author Jose Zalacain
+	 * @since 1.2
+	 */
+	static final class Template {
+
+		private final String query;
+		private final PrologTerm[] goals;
+		private final Set<String> variables;
+		private final Set<String> parameters;
+
+		Template(PrologProvider provider, String query) {
+			Set<String> params = new LinkedHashSet<String>();
+			String goal = rewrite(query, params);
+			if (goal.endsWith(".")) {
+				goal = goal.substring(0, goal.length() - 1);
+			}
+			this.goals = provider.parseTerms(goal);
+			Set<String> vars = new LinkedHashSet<String>();
+			for (PrologTerm term : goals) {
+				collect(term, vars);
+			}
+			this.query = query;
+			this.variables = Collections.unmodifiableSet(vars);
+			this.parameters = Collections.unmodifiableSet(params);
+		}
+
+		private static void collect(PrologTerm term, Set<String> vars) {
+			if (term.isVariable()) {
+				PrologVariable variable = (PrologVariable) term;
+				if (!variable.isAnonymous()) {
+					vars.add(variable.getName());
+				}
+			} else if (term.isCompound()) {
+				for (PrologTerm argument : term.getArguments()) {
+					collect(argument, vars);
+				}
+			}
+		}
+
+		/**
+		 * Remove the question mark prefix of the parameters in the query string,
+		 * collecting the parameters names. The quoted atoms, strings and char codes
+		 * are copied without changes.
+		 * 
+		 * @param query  query string
+		 * @param params parameters names
+		 * @return query string without the parameters marks
+		 */
+		private static String rewrite(String query, Set<String> params) {
+			String text = query.trim();
+			if (text.startsWith("?-")) {
+				text = text.substring(2).trim();
+			}
+			int length = text.length();
+			StringBuilder buffer = new StringBuilder(length);
+			int i = 0;
+			while (i < length) {
+				char c = text.charAt(i);
+				if (c == '\'' || c == '"' || c == '`') {
+					int end = i + 1;
+					while (end < length && text.charAt(end) != c) {
+						if (text.charAt(end) == '\\') {
+							end++;
+						}
+						end++;
+					}
+					end = Math.min(end + 1, length);
+					buffer.append(text, i, end);
+					i = end;
+				} else if (c == '0' && i + 2 < length && text.charAt(i + 1) == '\'') {
+					buffer.append(text, i, i + 3);
+					i += 3;
+				} else if (c == '?' && i + 1 < length && isVariableStart(text, i + 1)) {
+					int end = i + 1;
+					while (end < length && isAlphanumeric(text.charAt(end))) {
+						end++;
+					}
+					params.add(text.substring(i + 1, end));
+					buffer.append(text, i + 1, end);
+					i = end;
+				} else {
+					buffer.append(c);
+					i++;
+				}
+			}
+			return buffer.toString();
+		}
+
+		private static boolean isVariableStart(String text, int i) {
+			char c = text.charAt(i);
+			return Character.isUpperCase(c)
+					|| (c == '_' && i + 1 < text.length() && isAlphanumeric(text.charAt(i + 1)));
+		}
+
+		private static boolean isAlphanumeric(char c) {
+			return c == '_' || Character.isLetterOrDigit(c);
+		}
+
+	}
+
+}
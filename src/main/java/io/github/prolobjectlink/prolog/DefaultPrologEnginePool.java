@@ -0,0 +1,299 @@
+/*-
+ * #%L
+ * prolobjectlink-jpi
+ * %%
+ * Copyright (C) 2020 - 2021 Prolobjectlink Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package io.github.prolobjectlink.prolog;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Default {@link PrologEnginePool} implementation. Use a semaphore to bound the
+ * number of leased engines and a LIFO idle deque to lease the most recently
+ * used engines first, letting the least recently used engines become idle long
+ * enough to be evicted.
+ * 
+ * @author Jose Zalacain
+ * @since 1.2
+ */
+final class DefaultPrologEnginePool implements PrologEnginePool {
+
+	private static final String OK = "OK";
+
+	private final String file;
+	private final int minSize;
+	private final int maxSize;
+	private final Semaphore permits;
+	private final PrologProvider provider;
+	private final LinkedBlockingDeque<IdleEngine> idle;
+	private final Map<PrologEngine, Boolean> leased;
+
+	private volatile boolean disposed;
+	private volatile boolean testOnLease = true;
+	private volatile long leaseTimeout = TimeUnit.SECONDS.toNanos(30);
+	private volatile long idleTimeout = TimeUnit.MINUTES.toNanos(5);
+
+	private final AtomicLong leaseCount = new AtomicLong();
+	private final AtomicLong timeoutCount = new AtomicLong();
+	private final AtomicLong saturationCount = new AtomicLong();
+	private final AtomicLong totalWaitTime = new AtomicLong();
+	private final AtomicLong maxWaitTime = new AtomicLong();
+
+	DefaultPrologEnginePool(PrologProvider provider, String file, int minSize, int maxSize) {
+		if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+			throw new IllegalArgumentException("Illegal pool size [" + minSize + ", " + maxSize + "]");
+		}
+		this.file = file;
+		this.minSize = minSize;
+		this.maxSize = maxSize;
+		this.provider = provider;
+		this.permits = new Semaphore(maxSize, true);
+		this.idle = new LinkedBlockingDeque<IdleEngine>();
+		this.leased = new IdentityHashMap<PrologEngine, Boolean>();
+		for (int i = 0; i < minSize; i++) {
+			idle.offerFirst(new IdleEngine(create()));
+		}
+	}
+
+	private PrologEngine create() {
+		if (file != null) {
+			return provider.newEngine(file);
+		}
+		return provider.newEngine();
+	}
+
+	private boolean isHealthy(PrologEngine engine) {
+		List<String> conditions = engine.verify();
+		return conditions != null && conditions.size() == 1 && OK.equals(conditions.get(0));
+	}
+
+	private void checkNotDisposed() {
+		if (disposed) {
+			throw new IllegalStateException("The engine pool was disposed");
+		}
+	}
+
+	private void checkLeased(PrologEngine engine) {
+		synchronized (leased) {
+			if (leased.remove(engine) == null) {
+				throw new IllegalArgumentException("The engine was not leased from this pool");
+			}
+		}
+	}
+
+	private void updateWaitTime(long waited) {
+		totalWaitTime.addAndGet(waited);
+		long max = maxWaitTime.get();
+		while (waited > max && !maxWaitTime.compareAndSet(max, waited)) {
+			max = maxWaitTime.get();
+		}
+	}
+
+	public PrologEngine lease() {
+		return lease(leaseTimeout, TimeUnit.NANOSECONDS);
+	}
+
+	public PrologEngine lease(long timeout, TimeUnit unit) {
+		checkNotDisposed();
+		long start = System.nanoTime();
+		if (!permits.tryAcquire()) {
+			saturationCount.incrementAndGet();
+			try {
+				if (!permits.tryAcquire(timeout, unit)) {
+					timeoutCount.incrementAndGet();
+					throw new LeaseTimeoutError(this);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				getLogger().error(getClass(), PrologLogger.INTERRUPTED_ERROR, e);
+				throw new LeaseTimeoutError(this);
+			}
+		}
+		PrologEngine engine = null;
+		try {
+			IdleEngine candidate = idle.pollFirst();
+			while (candidate != null && engine == null) {
+				if (!testOnLease || isHealthy(candidate.engine)) {
+					engine = candidate.engine;
+				} else {
+					candidate.engine.dispose();
+					candidate = idle.pollFirst();
+				}
+			}
+			if (engine == null) {
+				engine = create();
+			}
+		} catch (RuntimeException e) {
+			permits.release();
+			throw e;
+		} catch (Error e) {
+			permits.release();
+			throw e;
+		}
+		synchronized (leased) {
+			leased.put(engine, Boolean.TRUE);
+		}
+		updateWaitTime(System.nanoTime() - start);
+		leaseCount.incrementAndGet();
+		return engine;
+	}
+
+	public void release(PrologEngine engine) {
+		checkLeased(engine);
+		if (disposed) {
+			engine.dispose();
+		} else {
+			IdleEngine released = new IdleEngine(engine);
+			idle.offerFirst(released);
+			// a concurrent dispose can drain the idle engines before the offer
+			if (disposed && idle.removeFirstOccurrence(released)) {
+				engine.dispose();
+			}
+		}
+		permits.release();
+		evict();
+	}
+
+	public void invalidate(PrologEngine engine) {
+		checkLeased(engine);
+		engine.dispose();
+		permits.release();
+	}
+
+	public int evict() {
+		int evicted = 0;
+		long now = System.nanoTime();
+		IdleEngine oldest = idle.peekLast();
+		while (oldest != null && idle.size() > minSize && now - oldest.since > idleTimeout) {
+			if (idle.removeLastOccurrence(oldest)) {
+				oldest.engine.dispose();
+				evicted++;
+			}
+			oldest = idle.peekLast();
+		}
+		return evicted;
+	}
+
+	public void setLeaseTimeout(long timeout, TimeUnit unit) {
+		this.leaseTimeout = unit.toNanos(timeout);
+	}
+
+	public void setIdleTimeout(long timeout, TimeUnit unit) {
+		this.idleTimeout = unit.toNanos(timeout);
+	}
+
+	public void setTestOnLease(boolean testOnLease) {
+		this.testOnLease = testOnLease;
+	}
+
+	public int getMinSize() {
+		return minSize;
+	}
+
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	public int getSize() {
+		return getActiveCount() + getIdleCount();
+	}
+
+	public int getActiveCount() {
+		synchronized (leased) {
+			return leased.size();
+		}
+	}
+
+	public int getIdleCount() {
+		return idle.size();
+	}
+
+	public double getSaturation() {
+		return (double) getActiveCount() / maxSize;
+	}
+
+	public long getLeaseCount() {
+		return leaseCount.get();
+	}
+
+	public long getSaturationCount() {
+		return saturationCount.get();
+	}
+
+	public long getTimeoutCount() {
+		return timeoutCount.get();
+	}
+
+	public long getTotalLeaseWaitTime(TimeUnit unit) {
+		return unit.convert(totalWaitTime.get(), TimeUnit.NANOSECONDS);
+	}
+
+	public long getMaxLeaseWaitTime(TimeUnit unit) {
+		return unit.convert(maxWaitTime.get(), TimeUnit.NANOSECONDS);
+	}
+
+	public PrologProvider getProvider() {
+		return provider;
+	}
+
+	public void dispose() {
+		disposed = true;
+		List<IdleEngine> engines = new ArrayList<IdleEngine>(idle.size());
+		idle.drainTo(engines);
+		Iterator<IdleEngine> i = engines.iterator();
+		while (i.hasNext()) {
+			i.next().engine.dispose();
+		}
+	}
+
+	private PrologLogger getLogger() {
+		return provider.getLogger();
+	}
+
+	@Override
+	public String toString() {
+		return "DefaultPrologEnginePool [minSize=" + minSize + ", maxSize=" + maxSize + ", active="
+				+ getActiveCount() + ", idle=" + getIdleCount() + "]";
+	}
+
+	private static final class IdleEngine {
+
+		private final long since;
+		private final PrologEngine engine;
+
+		private IdleEngine(PrologEngine engine) {
+			this.since = System.nanoTime();
+			this.engine = engine;
+		}
+
+	}
+
+}
@@ -0,0 +1,255 @@
+/*-
+ * #%L
+ * prolobjectlink-jpi
+ * %%
+ * Copyright (C) 2020 - 2021 Prolobjectlink Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package io.github.prolobjectlink.prolog;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Default {@link PrologExecutor} implementation. Use a fixed thread pool with
+ * one worker for every engine that can be leased from the engine pool and a
+ * semaphore to bound the number of submitted goals not completed.
+ * 
+ * @author Jose Zalacain
+ * @since 1.2
+ */
+final class DefaultPrologExecutor implements PrologExecutor {
+
+	private final boolean ownPool;
+	private final int queueCapacity;
+	private final Semaphore capacity;
+	private final PrologEnginePool pool;
+	private final ThreadPoolExecutor workers;
+	private final ScheduledExecutorService timer;
+
+	DefaultPrologExecutor(PrologEnginePool pool, int queueCapacity, boolean ownPool) {
+		if (queueCapacity < 0) {
+			throw new IllegalArgumentException("Illegal queue capacity " + queueCapacity);
+		}
+		int parallelism = pool.getMaxSize();
+		this.pool = pool;
+		this.ownPool = ownPool;
+		this.queueCapacity = queueCapacity;
+		this.capacity = new Semaphore(parallelism + queueCapacity, true);
+		this.timer = new ScheduledThreadPoolExecutor(1, new WorkerFactory("prolog-executor-timer"));
+		this.workers = new ThreadPoolExecutor(parallelism, parallelism, 0L, TimeUnit.MILLISECONDS,
+				new LinkedBlockingQueue<Runnable>(), new WorkerFactory("prolog-executor"));
+	}
+
+	private Future<List<Map<String, Object>>> execute(GoalCallable callable, long timeout, TimeUnit unit) {
+		if (workers.isShutdown()) {
+			throw new RejectedExecutionException("The prolog executor was shutdown");
+		}
+		try {
+			capacity.acquire();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RejectedExecutionException(PrologLogger.INTERRUPTED_ERROR, e);
+		}
+		GoalTask task = new GoalTask(callable);
+		try {
+			if (timeout > 0) {
+				task.timeout = timer.schedule(new Timeout(task), timeout, unit);
+			}
+			workers.execute(task);
+		} catch (RejectedExecutionException e) {
+			task.cancel(false);
+			throw e;
+		}
+		return task;
+	}
+
+	public Future<List<Map<String, Object>>> submit(String goal) {
+		return submit(goal, 0, TimeUnit.NANOSECONDS);
+	}
+
+	public Future<List<Map<String, Object>>> submit(String goal, long timeout, TimeUnit unit) {
+		return execute(new GoalCallable(goal, null), timeout, unit);
+	}
+
+	public Future<List<Map<String, Object>>> submit(PrologTerm term, PrologTerm... terms) {
+		PrologTerm[] goals = new PrologTerm[terms.length + 1];
+		System.arraycopy(terms, 0, goals, 1, terms.length);
+		goals[0] = term;
+		return submit(goals, 0, TimeUnit.NANOSECONDS);
+	}
+
+	public Future<List<Map<String, Object>>> submit(PrologTerm[] terms, long timeout, TimeUnit unit) {
+		return execute(new GoalCallable(null, terms), timeout, unit);
+	}
+
+	public List<Future<List<Map<String, Object>>>> submitAll(List<String> goals) {
+		return submitAll(goals, 0, TimeUnit.NANOSECONDS);
+	}
+
+	public List<Future<List<Map<String, Object>>>> submitAll(List<String> goals, long timeout, TimeUnit unit) {
+		List<Future<List<Map<String, Object>>>> futures = new ArrayList<Future<List<Map<String, Object>>>>(
+				goals.size());
+		for (String goal : goals) {
+			futures.add(submit(goal, timeout, unit));
+		}
+		return futures;
+	}
+
+	public PrologEnginePool getEnginePool() {
+		return pool;
+	}
+
+	public int getQueueCapacity() {
+		return queueCapacity;
+	}
+
+	public int getPendingCount() {
+		return pool.getMaxSize() + queueCapacity - capacity.availablePermits();
+	}
+
+	public void shutdown() {
+		workers.shutdown();
+		timer.shutdown();
+		if (ownPool) {
+			pool.dispose();
+		}
+	}
+
+	public void shutdownNow() {
+		workers.shutdownNow();
+		timer.shutdownNow();
+		if (ownPool) {
+			pool.dispose();
+		}
+	}
+
+	public boolean isShutdown() {
+		return workers.isShutdown();
+	}
+
+	public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+		return workers.awaitTermination(timeout, unit);
+	}
+
+	@Override
+	public String toString() {
+		return "DefaultPrologExecutor [pool=" + pool + ", queueCapacity=" + queueCapacity + "]";
+	}
+
+	private final class GoalCallable implements Callable<List<Map<String, Object>>> {
+
+		private final String goal;
+		private final PrologTerm[] goals;
+
+		private GoalCallable(String goal, PrologTerm[] goals) {
+			this.goal = goal;
+			this.goals = goals;
+		}
+
+		public List<Map<String, Object>> call() throws Exception {
+			boolean valid = false;
+			PrologEngine engine = pool.lease();
+			try {
+				PrologQuery query = goal != null ? engine.query(goal) : engine.query(goals);
+				try {
+					List<Map<String, Object>> results = query.allVariablesResults();
+					valid = true;
+					return results;
+				} finally {
+					query.dispose();
+				}
+			} finally {
+				if (valid) {
+					pool.release(engine);
+				} else {
+					pool.invalidate(engine);
+				}
+			}
+		}
+
+	}
+
+	private final class GoalTask extends FutureTask<List<Map<String, Object>>> {
+
+		private volatile ScheduledFuture<?> timeout;
+
+		private GoalTask(Callable<List<Map<String, Object>>> callable) {
+			super(callable);
+		}
+
+		@Override
+		protected void done() {
+			capacity.release();
+			ScheduledFuture<?> t = timeout;
+			if (t != null) {
+				t.cancel(false);
+			}
+		}
+
+	}
+
+	private static final class Timeout implements Runnable {
+
+		private final Future<?> task;
+
+		private Timeout(Future<?> task) {
+			this.task = task;
+		}
+
+		public void run() {
+			task.cancel(true);
+		}
+
+	}
+
+	static final class WorkerFactory implements ThreadFactory {
+
+		private final String name;
+		private final AtomicInteger counter = new AtomicInteger();
+
+		WorkerFactory(String name) {
+			this.name = name;
+		}
+
+		public Thread newThread(Runnable r) {
+			Thread thread = new Thread(r, name + "-" + counter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+
+	}
+
+}
@@ -0,0 +1,506 @@
+/*-
+ * #%L
+ * prolobjectlink-jpi
+ * %%
+ * Copyright (C) 2020 - 2021 Prolobjectlink Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package io.github.prolobjectlink.prolog;
+
+import static io.github.prolobjectlink.prolog.PrologTermType.ATOM_TYPE;
+import static io.github.prolobjectlink.prolog.PrologTermType.NIL_TYPE;
+import static io.github.prolobjectlink.prolog.PrologTermType.TRUE_TYPE;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Default {@link PrologObjectMapper} implementation. The mapped fields,
+ * constructors and field kinds are resolved once per class and cached, so the
+ * mapping of every object only read or write the fields. The primitive fields
+ * are read and written with the primitive field accessors without boxing.
+ * 
+ * @author Jose Zalacain
+ * @since 1.2
+ */
+final class DefaultPrologObjectMapper implements PrologObjectMapper {
+
+	private static final int BOOLEAN = 1;
+	private static final int BYTE = 2;
+	private static final int SHORT = 3;
+	private static final int CHARACTER = 4;
+	private static final int INTEGER = 5;
+	private static final int LONG = 6;
+	private static final int FLOAT = 7;
+	private static final int DOUBLE = 8;
+	private static final int STRING = 9;
+	private static final int TERM = 10;
+	private static final int OBJECT = 11;
+
+	private final PrologProvider provider;
+	private final ConcurrentMap<Class<?>, ClassMapping> mappings;
+
+	DefaultPrologObjectMapper(PrologProvider provider) {
+		this.provider = provider;
+		this.mappings = new ConcurrentHashMap<Class<?>, ClassMapping>();
+	}
+
+	public PrologProvider getProvider() {
+		return provider;
+	}
+
+	public String getFunctor(Class<?> type) {
+		return mapping(type).functor;
+	}
+
+	public int getArity(Class<?> type) {
+		return mapping(type).fields.length;
+	}
+
+	public PrologTerm toTerm(Object object) {
+		if (object == null) {
+			return provider.prologNil();
+		}
+		ClassMapping mapping = mapping(object.getClass());
+		Field[] fields = mapping.fields;
+		PrologTerm[] arguments = new PrologTerm[fields.length];
+		try {
+			for (int i = 0; i < fields.length; i++) {
+				arguments[i] = toArgument(object, fields[i], mapping.kinds[i]);
+			}
+		} catch (IllegalAccessException e) {
+			throw new MappingError("Can't read the fields of " + object.getClass(), e);
+		}
+		return provider.newStructure(mapping.functor, arguments);
+	}
+
+	public PrologTerm[] toTerms(Collection<?> objects) {
+		PrologTerm[] terms = new PrologTerm[objects.size()];
+		int i = 0;
+		for (Object object : objects) {
+			terms[i++] = toTerm(object);
+		}
+		return terms;
+	}
+
+	public <T> T fromTerm(PrologTerm term, Class<T> type) {
+		if (term.getType() == NIL_TYPE) {
+			return null;
+		}
+		if (!term.isStructure()) {
+			throw new StructureExpectedError(term);
+		}
+		ClassMapping mapping = mapping(type);
+		if (term.getArity() != mapping.fields.length || !term.getFunctor().equals(mapping.functor)) {
+			throw new MappingError("The term " + term + " is not a " + mapping.functor + "/"
+					+ mapping.fields.length + " structure");
+		}
+		return type.cast(fromArguments(mapping, term.getArguments()));
+	}
+
+	public <T> List<T> fromTerms(PrologTerm[] terms, Class<T> type) {
+		List<T> objects = new ArrayList<T>(terms.length);
+		for (PrologTerm term : terms) {
+			objects.add(fromTerm(term, type));
+		}
+		return objects;
+	}
+
+	public void assertz(PrologEngine engine, Collection<?> objects) {
+		for (Object object : objects) {
+			engine.assertz(toTerm(object));
+		}
+	}
+
+	public <T> List<T> fromFacts(PrologEngine engine, Class<T> type) {
+		ClassMapping mapping = mapping(type);
+		int arity = mapping.fields.length;
+		PrologTerm[] variables = new PrologTerm[arity];
+		for (int i = 0; i < arity; i++) {
+			variables[i] = provider.newVariable("F" + i, i);
+		}
+		PrologTerm goal = provider.newStructure(mapping.functor, variables);
+		PrologQuery query = engine.query(goal);
+		try {
+			Map<String, PrologTerm>[] solutions = query.allVariablesSolutions();
+			List<T> objects = new ArrayList<T>(solutions.length);
+			PrologTerm[] arguments = new PrologTerm[arity];
+			for (Map<String, PrologTerm> solution : solutions) {
+				for (int i = 0; i < arity; i++) {
+					arguments[i] = solution.get("F" + i);
+				}
+				objects.add(type.cast(fromArguments(mapping, arguments)));
+			}
+			return objects;
+		} finally {
+			query.dispose();
+		}
+	}
+
+	/**
+	 * Class mapping for the given class, resolved at first use.
+	 */
+	private ClassMapping mapping(Class<?> type) {
+		ClassMapping mapping = mappings.get(type);
+		if (mapping == null) {
+			mapping = new ClassMapping(type);
+			ClassMapping previous = mappings.putIfAbsent(type, mapping);
+			if (previous != null) {
+				mapping = previous;
+			}
+		}
+		return mapping;
+	}
+
+	private PrologTerm toArgument(Object object, Field field, int kind) throws IllegalAccessException {
+		switch (kind) {
+		case BOOLEAN:
+			if (field.getType().isPrimitive()) {
+				return field.getBoolean(object) ? provider.prologTrue() : provider.prologFalse();
+			}
+			break;
+		case BYTE:
+		case SHORT:
+		case INTEGER:
+			if (field.getType().isPrimitive()) {
+				return provider.newInteger(field.getInt(object));
+			}
+			break;
+		case CHARACTER:
+			if (field.getType().isPrimitive()) {
+				return provider.newAtom(String.valueOf(field.getChar(object)));
+			}
+			break;
+		case LONG:
+			if (field.getType().isPrimitive()) {
+				return provider.newLong(field.getLong(object));
+			}
+			break;
+		case FLOAT:
+			if (field.getType().isPrimitive()) {
+				return provider.newFloat(field.getFloat(object));
+			}
+			break;
+		case DOUBLE:
+			if (field.getType().isPrimitive()) {
+				return provider.newDouble(field.getDouble(object));
+			}
+			break;
+		default:
+			break;
+		}
+		return toArgument(field.get(object), kind);
+	}
+
+	/**
+	 * Term for a field reference value. The boxed values use the field kind, so
+	 * strings are always atoms and never variables.
+	 */
+	private PrologTerm toArgument(Object value, int kind) {
+		if (value == null) {
+			return provider.prologNil();
+		}
+		switch (kind) {
+		case BOOLEAN:
+			return (Boolean) value ? provider.prologTrue() : provider.prologFalse();
+		case BYTE:
+		case SHORT:
+		case INTEGER:
+			return provider.newInteger((Number) value);
+		case CHARACTER:
+			return provider.newAtom(String.valueOf(value));
+		case LONG:
+			return provider.newLong((Number) value);
+		case FLOAT:
+			return provider.newFloat((Number) value);
+		case DOUBLE:
+			return provider.newDouble((Number) value);
+		case STRING:
+			return provider.newAtom((String) value);
+		case TERM:
+			return (PrologTerm) value;
+		default:
+			if (value instanceof PrologTerm) {
+				return (PrologTerm) value;
+			}
+			Class<?> type = value.getClass();
+			int valueKind = kind(type);
+			if (valueKind != OBJECT) {
+				return toArgument(value, valueKind);
+			} else if (value instanceof Enum<?>) {
+				return provider.newAtom(((Enum<?>) value).name());
+			} else if (value instanceof Collection<?>) {
+				Collection<?> collection = (Collection<?>) value;
+				PrologTerm[] elements = new PrologTerm[collection.size()];
+				int i = 0;
+				for (Object element : collection) {
+					elements[i++] = toArgument(element, OBJECT);
+				}
+				return provider.newList(elements);
+			} else if (value instanceof Object[]) {
+				return provider.getJavaConverter().toTerm(value);
+			}
+			return toTerm(value);
+		}
+	}
+
+	private Object fromArguments(ClassMapping mapping, PrologTerm[] arguments) {
+		Field[] fields = mapping.fields;
+		Object[] values = new Object[fields.length];
+		for (int i = 0; i < fields.length; i++) {
+			values[i] = fromArgument(arguments[i], fields[i].getType(), mapping.kinds[i]);
+		}
+		try {
+			if (mapping.constructor != null) {
+				return mapping.constructor.newInstance(values);
+			}
+			Object object = mapping.defaultConstructor.newInstance();
+			for (int i = 0; i < fields.length; i++) {
+				if (values[i] != null || !fields[i].getType().isPrimitive()) {
+					fields[i].set(object, values[i]);
+				}
+			}
+			return object;
+		} catch (InstantiationException e) {
+			throw new MappingError("Can't create an instance of " + mapping.type, e);
+		} catch (IllegalAccessException e) {
+			throw new MappingError("Can't create an instance of " + mapping.type, e);
+		} catch (InvocationTargetException e) {
+			throw new MappingError("Can't create an instance of " + mapping.type, e.getCause());
+		}
+	}
+
+	private Object fromArgument(PrologTerm term, Class<?> type, int kind) {
+		if (term == null || term.getType() == NIL_TYPE) {
+			return null;
+		}
+		switch (kind) {
+		case BOOLEAN:
+			return term.getType() == TRUE_TYPE || "true".equals(term.getFunctor());
+		case BYTE:
+			return Byte.valueOf((byte) number(term).getIntegerValue());
+		case SHORT:
+			return Short.valueOf((short) number(term).getIntegerValue());
+		case INTEGER:
+			return Integer.valueOf(number(term).getIntegerValue());
+		case LONG:
+			return Long.valueOf(number(term).getLongValue());
+		case FLOAT:
+			return Float.valueOf(number(term).getFloatValue());
+		case DOUBLE:
+			return Double.valueOf(number(term).getDoubleValue());
+		case CHARACTER:
+			String string = string(term);
+			if (string.length() != 1) {
+				throw new MappingError("The term " + term + " is not a character");
+			}
+			return Character.valueOf(string.charAt(0));
+		case STRING:
+			return string(term);
+		case TERM:
+			return term;
+		default:
+			if (type.isEnum()) {
+				return enumConstant(type, string(term));
+			} else if (term.isList() && type.isAssignableFrom(ArrayList.class)) {
+				PrologTerm[] elements = term.getArguments();
+				List<Object> list = new ArrayList<Object>(elements.length);
+				for (PrologTerm element : elements) {
+					list.add(fromArgument(element, Object.class, OBJECT));
+				}
+				return list;
+			} else if (term.isStructure() && type != Object.class) {
+				return fromTerm(term, type);
+			}
+			return provider.getJavaConverter().toObject(term);
+		}
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private Object enumConstant(Class<?> type, String name) {
+		try {
+			return Enum.valueOf((Class) type, name);
+		} catch (IllegalArgumentException e) {
+			throw new MappingError("The atom " + name + " is not a constant of " + type, e);
+		}
+	}
+
+	private PrologNumber number(PrologTerm term) {
+		if (!term.isNumber()) {
+			throw new MappingError("The term " + term + " is not a number");
+		}
+		return (PrologNumber) term;
+	}
+
+	private String string(PrologTerm term) {
+		if (term.getType() == ATOM_TYPE) {
+			return ((PrologAtom) term).getStringValue();
+		} else if (term.isAtom()) {
+			return term.getFunctor();
+		}
+		throw new MappingError("The term " + term + " is not an atom");
+	}
+
+	private static int kind(Class<?> type) {
+		if (type == boolean.class || type == Boolean.class) {
+			return BOOLEAN;
+		} else if (type == byte.class || type == Byte.class) {
+			return BYTE;
+		} else if (type == short.class || type == Short.class) {
+			return SHORT;
+		} else if (type == char.class || type == Character.class) {
+			return CHARACTER;
+		} else if (type == int.class || type == Integer.class) {
+			return INTEGER;
+		} else if (type == long.class || type == Long.class) {
+			return LONG;
+		} else if (type == float.class || type == Float.class) {
+			return FLOAT;
+		} else if (type == double.class || type == Double.class) {
+			return DOUBLE;
+		} else if (type == String.class) {
+			return STRING;
+		} else if (PrologTerm.class.isAssignableFrom(type)) {
+			return TERM;
+		}
+		return OBJECT;
+	}
+
+	/**
+	 * Resolved mapping of a class. Read only after creation.
+	 */
+	private static final class ClassMapping {
+
+		private final Class<?> type;
+		private final String functor;
+		private final Field[] fields;
+		private final int[] kinds;
+		private final Constructor<?> constructor;
+		private final Constructor<?> defaultConstructor;
+
+		private ClassMapping(Class<?> type) {
+			if (type.isPrimitive() || type.isArray() || type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+				throw new MappingError("The class " + type + " can't be mapped to a structure");
+			}
+			this.type = type;
+			String name = type.getSimpleName();
+			if (name.length() == 0) {
+				throw new MappingError("The anonymous class " + type + " can't be mapped to a structure");
+			}
+			this.functor = Character.toLowerCase(name.charAt(0)) + name.substring(1);
+			this.fields = fields(type);
+			this.kinds = new int[fields.length];
+			Class<?>[] types = new Class<?>[fields.length];
+			for (int i = 0; i < fields.length; i++) {
+				types[i] = fields[i].getType();
+				kinds[i] = kind(types[i]);
+			}
+			Constructor<?> allFields = null;
+			Constructor<?> noArguments = null;
+			for (Constructor<?> c : type.getDeclaredConstructors()) {
+				Class<?>[] parameters = c.getParameterTypes();
+				if (fields.length > 0 && Arrays.equals(parameters, types)) {
+					allFields = c;
+				} else if (parameters.length == 0) {
+					noArguments = c;
+				}
+			}
+			if (allFields != null && !distinct(types)) {
+				// same type parameters can't be matched with the fields by name
+				if (noArguments == null) {
+					throw new MappingError("The class " + type + " don't have a no arguments constructor "
+							+ "and the constructor with the fields types have many parameters of the same type");
+				}
+				allFields = null;
+			}
+			if (allFields == null && noArguments == null) {
+				throw new MappingError("The class " + type + " don't have a no arguments constructor "
+						+ "or a constructor with the fields types");
+			}
+			try {
+				if (allFields != null) {
+					allFields.setAccessible(true);
+				} else {
+					noArguments.setAccessible(true);
+				}
+			} catch (SecurityException e) {
+				throw new MappingError("The constructor of " + type + " is not accessible", e);
+			}
+			this.constructor = allFields;
+			this.defaultConstructor = allFields != null ? null : noArguments;
+		}
+
+		private static boolean distinct(Class<?>[] types) {
+			for (int i = 0; i < types.length; i++) {
+				for (int j = i + 1; j < types.length; j++) {
+					if (types[i] == types[j]) {
+						return false;
+					}
+				}
+			}
+			return true;
+		}
+
+		private static final Comparator<Field> FIELD_NAME_ORDER = new Comparator<Field>() {
+			public int compare(Field f1, Field f2) {
+				return f1.getName().compareTo(f2.getName());
+			}
+		};
+
+		private static Field[] fields(Class<?> type) {
+			LinkedList<Class<?>> hierarchy = new LinkedList<Class<?>>();
+			for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+				hierarchy.addFirst(c);
+			}
+			List<Field> fields = new ArrayList<Field>();
+			for (Class<?> c : hierarchy) {
+				// the declared fields order is unspecified, sorted by name
+				Field[] declared = c.getDeclaredFields();
+				Arrays.sort(declared, FIELD_NAME_ORDER);
+				for (Field field : declared) {
+					int modifiers = field.getModifiers();
+					if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers) && !field.isSynthetic()) {
+						try {
+							field.setAccessible(true);
+						} catch (SecurityException e) {
+							throw new MappingError("The field " + field + " is not accessible", e);
+						}
+						fields.add(field);
+					}
+				}
+			}
+			return fields.toArray(new Field[fields.size()]);
+		}
+
+	}
+
+}
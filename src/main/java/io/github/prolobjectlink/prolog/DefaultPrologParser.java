@@ -0,0 +1,215 @@
+/*-
+ * #%L
+ * prolobjectlink-jpi
+ * %%
+ * Copyright (C) 2020 - 2021 Prolobjectlink Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package io.github.prolobjectlink.prolog;
+
+import java.io.File;
+import java.io.Reader;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Prolog parser that parse terms and clauses using only the provider term
+ * parser, without create any engine. The clauses are created by the provider,
+ * so they are the same clause type that the provider engines return. The
+ * programs are consulted by a new provider engine, so the directives, grammar
+ * rules and term expansions are resolved like in the engine. The parser is
+ * stateless and can be shared by many threads.
+ * <p>
+ * If the parser is created with a positive cache size the parsed terms are
+ * keep in a least recently used cache keyed by the source text. If the
+ * provider terms cache is enabled the provider terms are immutable, so the
+ * ground terms are shared by all hits and the non ground terms are copied with
+ * fresh variables in every hit. In other case every hit return a deep copy of
+ * the cached term, so the changes done by some caller don't have effect over
+ * the cached term.
+ * 
+ * @author Jose Zalacain
+ * @since 1.2
+ */
+final class DefaultPrologParser implements PrologParser {
+
+	private final AbstractProvider provider;
+	private final ParseCache cache;
+
+	DefaultPrologParser(AbstractProvider provider) {
+		this(provider, 0);
+	}
+
+	DefaultPrologParser(AbstractProvider provider, int cacheSize) {
+		if (cacheSize < 0) {
+			throw new IllegalArgumentException("Negative parse cache size " + cacheSize);
+		}
+		this.cache = cacheSize > 0 ? new ParseCache(cacheSize) : null;
+		this.provider = provider;
+	}
+
+	public PrologTerm parseTerm(String term) {
+		if (cache == null) {
+			return provider.parseTerm(term);
+		}
+		Parsed parsed;
+		synchronized (cache) {
+			parsed = cache.get(term);
+		}
+		if (parsed == null) {
+			// parse outside the lock, a concurrent parse only waste work
+			parsed = new Parsed(provider.parseTerm(term));
+			synchronized (cache) {
+				cache.put(term, parsed);
+			}
+		}
+		if (!provider.isTermCacheEnabled()) {
+			// mutable provider terms, nothing of the cached term is shared
+			return PrologTerms.deepCopy(provider, parsed.term);
+		} else if (parsed.ground) {
+			return parsed.term;
+		}
+		return PrologTerms.copy(provider, parsed.term);
+	}
+
+	public PrologTerm[] parseTerms(String stringTerms) {
+		return provider.parseTerms(stringTerms);
+	}
+
+	public PrologList parseList(String stringList) {
+		PrologTerm term = parseTerm(stringList);
+		if (!term.isList()) {
+			throw new ListExpectedError(term);
+		}
+		return (PrologList) term;
+	}
+
+	public PrologStructure parseStructure(String stringStructure) {
+		PrologTerm term = parseTerm(stringStructure);
+		if (!term.isStructure()) {
+			throw new StructureExpectedError(term);
+		}
+		return (PrologStructure) term;
+	}
+
+	public PrologClause parseClause(String clause) {
+		String text = clause.trim();
+		int length = text.length();
+		if (length > 1 && text.charAt(length - 1) == '.'
+				&& PrologClauseReader.SYMBOLS.indexOf(text.charAt(length - 2)) < 0) {
+			text = text.substring(0, length - 1);
+		}
+		return newClause(parseTerm(text));
+	}
+
+	public Set<PrologClause> parseProgram(String file) {
+		return provider.parseProgram(file);
+	}
+
+	public Set<PrologClause> parseProgram(File in) {
+		return provider.parseProgram(in);
+	}
+
+	public Set<PrologClause> parseProgram(Reader in) {
+		return provider.parseProgram(in);
+	}
+
+	private PrologClause newClause(PrologTerm term) {
+		if (term.hasIndicator(":-", 2)) {
+			return provider.newClause(term.getArgument(0), term.getArgument(1));
+		}
+		return provider.newClause(term, null);
+	}
+
+	public <K extends PrologTerm, V extends Object> Map<String, PrologTerm>[] toTermMapArray(Map<String, V>[] map,
+			Class<K> from) {
+		return provider.toTermMapArray(map, from);
+	}
+
+	public <K extends PrologTerm, V extends Object> Map<String, PrologTerm> toTermMap(Map<String, V> map,
+			Class<K> from) {
+		return provider.toTermMap(map, from);
+	}
+
+	public <K extends PrologTerm> K[][] toTermMatrix(Object[][] objects, Class<K[][]> from) {
+		return provider.toTermMatrix(objects, from);
+	}
+
+	public <K extends PrologTerm> K[] toTermArray(Object[] objects, Class<K[]> from) {
+		return provider.toTermArray(objects, from);
+	}
+
+	public <K extends PrologTerm> K toTerm(Object o, Class<K> from) {
+		return provider.toTerm(o, from);
+	}
+
+	public <K> K fromTerm(PrologTerm term, Class<K> to) {
+		return provider.fromTerm(term, to);
+	}
+
+	public <K> K[] fromTermArray(PrologTerm[] terms, Class<K[]> to) {
+		return provider.fromTermArray(terms, to);
+	}
+
+	public <K> K fromTerm(PrologTerm head, PrologTerm[] body, Class<K> to) {
+		return provider.fromTerm(head, body, to);
+	}
+
+	/**
+	 * Parsed term and if it is ground.
+	 */
+	private static final class Parsed {
+
+		private final PrologTerm term;
+		private final boolean ground;
+
+		private Parsed(PrologTerm term) {
+			this.ground = PrologTerms.isGround(term);
+			this.term = term;
+		}
+
+	}
+
+	/**
+	 * Least recently used cache for the parsed terms.
+	 * 
+	 * @author Jose Zalacain
+	 * @since 1.2
+	 */
+	private static final class ParseCache extends LinkedHashMap<String, Parsed> {
+
+		private static final long serialVersionUID = -6219317411906580317L;
+		private final int capacity;
+
+		private ParseCache(int capacity) {
+			super(16, 0.75F, true);
+			this.capacity = capacity;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Parsed> eldest) {
+			return size() > capacity;
+		}
+
+	}
+
+}
@@ -37,65 +37,64 @@ final class DefaultQueryBuilder extends AbstractBuilder implements PrologQueryBu
 	}
 
 	public PrologQueryBuilder begin(String functor, PrologTerm... arguments) {
-		append(functor, arguments);
-		return this;
+		return begin(term(functor, arguments));
 	}
 
 	public PrologQueryBuilder begin(PrologTerm term) {
+		clear();
 		append(term);
 		return this;
 	}
 
 	public PrologQueryBuilder comma(PrologTerm body) {
-		append(',');
-		append(' ');
 		append(body);
 		return this;
 	}
 
 	public PrologQueryBuilder comma(String functor, PrologTerm... arguments) {
-		append(',');
-		append(' ');
-		append(functor, arguments);
+		append(term(functor, arguments));
 		return this;
 	}
 
 	public PrologQueryBuilder comma(PrologTerm left, String operator, PrologTerm right) {
-		append(',');
-		append(' ');
-		append(left, operator, right);
+		append(term(left, operator, right));
 		return this;
 	}
 
 	public PrologQueryBuilder semicolon(PrologTerm term) {
-		append(';');
-		append(' ');
-		append(term);
+		alternative(term);
 		return this;
 	}
 
 	public PrologQueryBuilder semicolon(String functor, PrologTerm... arguments) {
-		append(';');
-		append(' ');
-		append(functor, arguments);
+		alternative(term(functor, arguments));
 		return this;
 	}
 
 	public PrologQueryBuilder semicolon(PrologTerm left, String operator, PrologTerm right) {
-		append(';');
-		append(' ');
-		append(left, operator, right);
+		alternative(term(left, operator, right));
 		return this;
 	}
 
 	public PrologQuery query() {
-		String q = "" + builder + "";
-		builder = new StringBuilder();
-		return engine.query(q);
+		// the same named variables in many goals are the same query variable
+		PrologQuery query;
+		if (hasAlternatives()) {
+			query = engine.query(PrologTerms.shareNames(provider, disjunction())[0]);
+		} else {
+			query = engine.query(PrologTerms.shareNames(provider, goals()));
+		}
+		clear();
+		return query;
 	}
 
 	public String getQueryString() {
-		return "" + builder + "";
+		return format();
+	}
+
+	@Override
+	public String toString() {
+		return getQueryString();
 	}
 
 }
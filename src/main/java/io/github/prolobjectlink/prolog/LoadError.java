@@ -0,0 +1,52 @@
+/*-
+ * #%L
+ * prolobjectlink-jpi
+ * %%
+ * Copyright (C) 2020 - 2021 Prolobjectlink Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package io.github.prolobjectlink.prolog;
+
+/**
+ * Runtime error raised when a program can't be read while it is loaded clause
+ * by clause or parsed. The load stop at the first error and raise this error
+ * with the original cause. The clauses loaded before the error remain in the
+ * engine.
+ * 
+ * @author Jose Zalacain
+ * @since 1.2
+ */
+public final class LoadError extends PrologError {
+
+	private static final long serialVersionUID = -3377246452174553612L;
+
+	/**
+	 * Create a load runtime error passing the cause that stop the program load.
+	 * 
+	 * @param cause cause of the load error.
+	 * @since 1.2
+	 */
+	public LoadError(Throwable cause) {
+		super("Program load failed", cause);
+		initCause(cause);
+	}
+
+}
@@ -0,0 +1,63 @@
+/*-
+ * #%L
+ * prolobjectlink-jpi
+ * %%
+ * Copyright (C) 2020 - 2021 Prolobjectlink Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package io.github.prolobjectlink.prolog;
+
+/**
+ * Runtime error raised when a Java object can't be mapped to a Prolog
+ * structure or a Prolog structure can't be mapped to a Java object using a
+ * {@link PrologObjectMapper}.
+ * 
+ * @author Jose Zalacain
+ * @since 1.2
+ */
+public final class MappingError extends PrologError {
+
+	private static final long serialVersionUID = -5521873349015563280L;
+
+	/**
+	 * Create a mapping runtime error with the given message.
+	 * 
+	 * @param message error message
+	 * @since 1.2
+	 */
+	public MappingError(String message) {
+		super(message);
+	}
+
+	/**
+	 * Create a mapping runtime error with the given message and the original
+	 * cause of the mapping failure.
+	 * 
+	 * @param message error message
+	 * @param cause   cause of the mapping error.
+	 * @since 1.2
+	 */
+	public MappingError(String message, Throwable cause) {
+		super(message, cause);
+		initCause(cause);
+	}
+
+}
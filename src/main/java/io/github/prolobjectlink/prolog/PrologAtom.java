@@ -70,6 +70,8 @@ public interface PrologAtom extends PrologTerm {
 	 * with [a-z][A-Za-z0-9_]* regular expression. If the string passed to build an
 	 * atom don't match with the before mentioned regular expression the atom
 	 * constructor can be capable of create a complex atom automatically.
+	 * Drivers that intern atoms can reject the change of a shared atom raising
+	 * an {@link UnsupportedOperationException}.
 	 * 
 	 * @param value string value for this atom
 	 * @since 1.0
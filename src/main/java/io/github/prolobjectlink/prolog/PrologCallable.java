@@ -32,16 +32,46 @@ class PrologCallable implements Callable<List<List<Object>>> {
 
 	private final PrologTerm[] goals;
 	private final PrologEngine engine;
+	private final PrologEnginePool pool;
 	private final PrologProvider provider;
 
 	PrologCallable(PrologProvider provider, PrologTerm... goals) {
 		this.engine = provider.newEngine();
 		this.provider = provider;
 		this.goals = goals;
+		this.pool = null;
+	}
+
+	PrologCallable(PrologEnginePool pool, PrologTerm... goals) {
+		this.provider = pool.getProvider();
+		this.engine = null;
+		this.goals = goals;
+		this.pool = pool;
 	}
 
 	public List<List<Object>> call() throws Exception {
-		return engine.query(goals).allResults();
+		if (pool == null) {
+			return engine.query(goals).allResults();
+		}
+		// the engine is leased for this call only, a failed engine is discarded
+		boolean valid = false;
+		PrologEngine leased = pool.lease();
+		try {
+			PrologQuery query = leased.query(goals);
+			try {
+				List<List<Object>> results = query.allResults();
+				valid = true;
+				return results;
+			} finally {
+				query.dispose();
+			}
+		} finally {
+			if (valid) {
+				pool.release(leased);
+			} else {
+				pool.invalidate(leased);
+			}
+		}
 	}
 
 	public PrologProvider getProvider() {
@@ -0,0 +1,189 @@
+/*-
+ * #%L
+ * prolobjectlink-jpi
+ * %%
+ * Copyright (C) 2020 - 2021 Prolobjectlink Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package io.github.prolobjectlink.prolog;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Read a prolog program from a character stream clause by clause. The stream
+ * is split at the end dots, that are dots not part of a symbol token and
+ * followed by a layout character, a comment or the end of the stream. The
+ * quoted atoms, strings, back quoted strings and char codes are copied without
+ * changes and the comments are discarded. Only the current clause text is
+ * hold in memory, so a program of any size can be read with bounded memory.
+ * 
+ * @author Jose Zalacain
+ * @since 1.2
+ */
+final class PrologClauseReader {
+
+	static final String SYMBOLS = "+-*/\\^<>=~:.?@#&$";
+
+	// number of characters read
+	private long count;
+
+	// pushed back character, -2 if none
+	private int pushed = -2;
+	private final Reader reader;
+	private final StringBuilder clause = new StringBuilder();
+
+	PrologClauseReader(Reader reader) {
+		this.reader = reader instanceof BufferedReader ? reader : new BufferedReader(reader);
+	}
+
+	/**
+	 * Read the next clause text without the end dot.
+	 * 
+	 * @return the next clause text, null at the end of the stream.
+	 * @throws IOException if an I/O error occurs
+	 */
+	String readClause() throws IOException {
+		clause.setLength(0);
+		int c = read();
+		while (c != -1) {
+			if (c == '\'' || c == '"' || c == '`') {
+				readQuoted(c);
+			} else if (c == '0' && peek() == '\'' && !isAlphanumeric(last())) {
+				clause.append((char) c);
+				clause.append((char) read());
+				readCharCode();
+			} else if (c == '%') {
+				skipLineComment();
+			} else if (c == '/' && peek() == '*') {
+				read();
+				skipBlockComment();
+			} else if (c == '.' && SYMBOLS.indexOf(last()) < 0 && isEnd(peek())) {
+				String text = clause.toString().trim();
+				if (text.length() > 0) {
+					return text;
+				}
+			} else {
+				clause.append((char) c);
+			}
+			c = read();
+		}
+		String text = clause.toString().trim();
+		return text.length() > 0 ? text : null;
+	}
+
+	/**
+	 * Number of characters read from the stream.
+	 * 
+	 * @return number of characters read from the stream.
+	 */
+	long getCount() {
+		return count;
+	}
+
+	private void readQuoted(int quote) throws IOException {
+		clause.append((char) quote);
+		int c = read();
+		while (c != -1) {
+			clause.append((char) c);
+			if (c == '\\') {
+				c = read();
+				if (c != -1) {
+					clause.append((char) c);
+				}
+			} else if (c == quote) {
+				if (peek() != quote) {
+					return;
+				}
+				clause.append((char) read());
+			}
+			c = read();
+		}
+	}
+
+	private void readCharCode() throws IOException {
+		int c = read();
+		if (c != -1) {
+			clause.append((char) c);
+			if ((c == '\\' || c == '\'') && peek() != -1) {
+				clause.append((char) read());
+			}
+		}
+	}
+
+	private void skipLineComment() throws IOException {
+		int c = read();
+		while (c != -1 && c != '\n') {
+			c = read();
+		}
+		clause.append('\n');
+	}
+
+	private void skipBlockComment() throws IOException {
+		int c = read();
+		while (c != -1) {
+			if (c == '*' && peek() == '/') {
+				read();
+				break;
+			}
+			c = read();
+		}
+		clause.append(' ');
+	}
+
+	private boolean isEnd(int next) {
+		return next == -1 || next == '%' || Character.isWhitespace(next);
+	}
+
+	private boolean isAlphanumeric(int c) {
+		return c == '_' || Character.isLetterOrDigit(c);
+	}
+
+	private int last() {
+		int length = clause.length();
+		return length > 0 ? clause.charAt(length - 1) : ' ';
+	}
+
+	private int peek() throws IOException {
+		if (pushed == -2) {
+			pushed = reader.read();
+			if (pushed != -1) {
+				count++;
+			}
+		}
+		return pushed;
+	}
+
+	private int read() throws IOException {
+		if (pushed != -2) {
+			int c = pushed;
+			pushed = -2;
+			return c;
+		}
+		int c = reader.read();
+		if (c != -1) {
+			count++;
+		}
+		return c;
+	}
+
+}
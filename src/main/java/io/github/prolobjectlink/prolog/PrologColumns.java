@@ -0,0 +1,394 @@
+/*-
+ * #%L
+ * prolobjectlink-jpi
+ * %%
+ * Copyright (C) 2020 - 2021 Prolobjectlink Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package io.github.prolobjectlink.prolog;
+
+import static io.github.prolobjectlink.prolog.PrologTermType.DOUBLE_TYPE;
+import static io.github.prolobjectlink.prolog.PrologTermType.FLOAT_TYPE;
+import static io.github.prolobjectlink.prolog.PrologTermType.INTEGER_TYPE;
+import static io.github.prolobjectlink.prolog.PrologTermType.LONG_TYPE;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Columnar query results. The variables names are hold once and the values of
+ * every variable are stored in a column array specialized by the values type.
+ * A column where all values are integers is an {@code int[]}, a column with
+ * integers and longs is a {@code long[]}, a column with any mix of numbers
+ * with some float or double is a {@code double[]} and any other column is an
+ * {@code Object[]} with the values converted by the provider Java converter.
+ * The numeric columns don't box the values and don't allocate per solution.
+ * </p>
+ * 
+ * <pre>
+ * PrologColumns columns = engine.query("point(X, Y)").allColumns();
+ * double[] xs = columns.getDoubleColumn(columns.indexOf("X"));
+ * for (int row = 0; row &lt; columns.getRowCount(); row++) {
+ * 	sum += xs[row];
+ * }
+ * </pre>
+ * 
+ * @author Jose Zalacain
+ * @since 1.2
+ */
+public final class PrologColumns {
+
+	/** Column of int values */
+	public static final int INT_COLUMN = 1;
+
+	/** Column of long values */
+	public static final int LONG_COLUMN = 2;
+
+	/** Column of double values */
+	public static final int DOUBLE_COLUMN = 3;
+
+	/** Column of Java objects */
+	public static final int OBJECT_COLUMN = 4;
+
+	private final String[] names;
+	private final int[] types;
+	private final Object[] columns;
+	private final PrologJavaConverter converter;
+	private int rows;
+
+	PrologColumns(String[] names, int capacity, PrologJavaConverter converter) {
+		this.names = names;
+		this.types = new int[names.length];
+		this.columns = new Object[names.length];
+		this.converter = converter;
+		int size = Math.max(capacity, 1);
+		for (int i = 0; i < names.length; i++) {
+			types[i] = INT_COLUMN;
+			columns[i] = new int[size];
+		}
+	}
+
+	/**
+	 * Append a solution row. The values are in the same order than the variables
+	 * names.
+	 */
+	void add(PrologTerm[] values) {
+		for (int i = 0; i < names.length; i++) {
+			set(i, rows, values[i]);
+		}
+		rows++;
+	}
+
+	/**
+	 * Trim the columns to the rows number.
+	 */
+	void trim() {
+		for (int i = 0; i < columns.length; i++) {
+			if (capacity(i) != rows) {
+				columns[i] = resize(i, rows);
+			}
+		}
+	}
+
+	private void set(int column, int row, PrologTerm value) {
+		if (row == capacity(column)) {
+			columns[column] = resize(column, row * 2);
+		}
+		int type = types[column];
+		int kind = value != null ? value.getType() : 0;
+		if (type == INT_COLUMN && kind == INTEGER_TYPE) {
+			((int[]) columns[column])[row] = ((PrologNumber) value).getIntegerValue();
+		} else if (type == LONG_COLUMN && (kind == INTEGER_TYPE || kind == LONG_TYPE)) {
+			((long[]) columns[column])[row] = ((PrologNumber) value).getLongValue();
+		} else if (type == DOUBLE_COLUMN && isNumber(kind)) {
+			((double[]) columns[column])[row] = ((PrologNumber) value).getDoubleValue();
+		} else if (type == OBJECT_COLUMN) {
+			((Object[]) columns[column])[row] = value != null ? converter.toObject(value) : null;
+		} else {
+			widen(column, row, kind);
+			set(column, row, value);
+		}
+	}
+
+	/**
+	 * Convert the given column to the narrowest column type able to hold the
+	 * current values and the new value kind.
+	 */
+	private void widen(int column, int row, int kind) {
+		int target = OBJECT_COLUMN;
+		if (kind == INTEGER_TYPE) {
+			target = INT_COLUMN;
+		} else if (kind == LONG_TYPE) {
+			target = LONG_COLUMN;
+		} else if (kind == FLOAT_TYPE || kind == DOUBLE_TYPE) {
+			target = DOUBLE_COLUMN;
+		}
+		// the column type only grow, int < long < double < object
+		target = Math.max(target, types[column] + 1);
+		int capacity = capacity(column);
+		Object widened;
+		switch (target) {
+		case LONG_COLUMN:
+			long[] longs = new long[capacity];
+			for (int i = 0; i < row; i++) {
+				longs[i] = getLong(i, column);
+			}
+			widened = longs;
+			break;
+		case DOUBLE_COLUMN:
+			double[] doubles = new double[capacity];
+			for (int i = 0; i < row; i++) {
+				doubles[i] = getDouble(i, column);
+			}
+			widened = doubles;
+			break;
+		default:
+			Object[] objects = new Object[capacity];
+			for (int i = 0; i < row; i++) {
+				objects[i] = getObject(i, column);
+			}
+			widened = objects;
+			break;
+		}
+		columns[column] = widened;
+		types[column] = target;
+	}
+
+	private static boolean isNumber(int kind) {
+		return kind == INTEGER_TYPE || kind == LONG_TYPE || kind == FLOAT_TYPE || kind == DOUBLE_TYPE;
+	}
+
+	private int capacity(int column) {
+		switch (types[column]) {
+		case INT_COLUMN:
+			return ((int[]) columns[column]).length;
+		case LONG_COLUMN:
+			return ((long[]) columns[column]).length;
+		case DOUBLE_COLUMN:
+			return ((double[]) columns[column]).length;
+		default:
+			return ((Object[]) columns[column]).length;
+		}
+	}
+
+	private Object resize(int column, int length) {
+		switch (types[column]) {
+		case INT_COLUMN:
+			return Arrays.copyOf((int[]) columns[column], length);
+		case LONG_COLUMN:
+			return Arrays.copyOf((long[]) columns[column], length);
+		case DOUBLE_COLUMN:
+			return Arrays.copyOf((double[]) columns[column], length);
+		default:
+			return Arrays.copyOf((Object[]) columns[column], length);
+		}
+	}
+
+	/**
+	 * Number of solutions rows.
+	 * 
+	 * @return the number of rows
+	 * @since 1.2
+	 */
+	public int getRowCount() {
+		return rows;
+	}
+
+	/**
+	 * Number of columns, that is the number of not anonymous variables in the
+	 * query.
+	 * 
+	 * @return the number of columns
+	 * @since 1.2
+	 */
+	public int getColumnCount() {
+		return names.length;
+	}
+
+	/**
+	 * Variable name of the given column.
+	 * 
+	 * @param column column index
+	 * @return the variable name of the given column
+	 * @since 1.2
+	 */
+	public String getName(int column) {
+		return names[column];
+	}
+
+	/**
+	 * Column index of the given variable name.
+	 * 
+	 * @param name variable name
+	 * @return the column index or -1 if the variable is not present
+	 * @since 1.2
+	 */
+	public int indexOf(String name) {
+		for (int i = 0; i < names.length; i++) {
+			if (names[i].equals(name)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Type of the given column. One of {@link #INT_COLUMN},
+	 * {@link #LONG_COLUMN}, {@link #DOUBLE_COLUMN} or {@link #OBJECT_COLUMN}.
+	 * 
+	 * @param column column index
+	 * @return the column type
+	 * @since 1.2
+	 */
+	public int getColumnType(int column) {
+		return types[column];
+	}
+
+	/**
+	 * Values of an {@link #INT_COLUMN} column. The returned array is the column
+	 * storage and must not be modified.
+	 * 
+	 * @param column column index
+	 * @return the column values
+	 * @throws ClassCastException if the column is not an int column
+	 * @since 1.2
+	 */
+	public int[] getIntColumn(int column) {
+		return (int[]) columns[column];
+	}
+
+	/**
+	 * Values of a {@link #LONG_COLUMN} column. The returned array is the column
+	 * storage and must not be modified.
+	 * 
+	 * @param column column index
+	 * @return the column values
+	 * @throws ClassCastException if the column is not a long column
+	 * @since 1.2
+	 */
+	public long[] getLongColumn(int column) {
+		return (long[]) columns[column];
+	}
+
+	/**
+	 * Values of a {@link #DOUBLE_COLUMN} column. The returned array is the column
+	 * storage and must not be modified.
+	 * 
+	 * @param column column index
+	 * @return the column values
+	 * @throws ClassCastException if the column is not a double column
+	 * @since 1.2
+	 */
+	public double[] getDoubleColumn(int column) {
+		return (double[]) columns[column];
+	}
+
+	/**
+	 * Values of an {@link #OBJECT_COLUMN} column. The returned array is the
+	 * column storage and must not be modified.
+	 * 
+	 * @param column column index
+	 * @return the column values
+	 * @throws ClassCastException if the column is not an object column
+	 * @since 1.2
+	 */
+	public Object[] getObjectColumn(int column) {
+		return (Object[]) columns[column];
+	}
+
+	/**
+	 * Value at the given row and column as int. Valid for int columns only.
+	 * 
+	 * @param row    row index
+	 * @param column column index
+	 * @return the value at the given row and column
+	 * @throws ClassCastException if the column is not an int column
+	 * @since 1.2
+	 */
+	public int getInt(int row, int column) {
+		return ((int[]) columns[column])[row];
+	}
+
+	/**
+	 * Value at the given row and column as long. Valid for int and long columns.
+	 * 
+	 * @param row    row index
+	 * @param column column index
+	 * @return the value at the given row and column
+	 * @throws ClassCastException if the column is not an int or long column
+	 * @since 1.2
+	 */
+	public long getLong(int row, int column) {
+		if (types[column] == INT_COLUMN) {
+			return ((int[]) columns[column])[row];
+		}
+		return ((long[]) columns[column])[row];
+	}
+
+	/**
+	 * Value at the given row and column as double. Valid for int, long and double
+	 * columns.
+	 * 
+	 * @param row    row index
+	 * @param column column index
+	 * @return the value at the given row and column
+	 * @throws ClassCastException if the column is an object column
+	 * @since 1.2
+	 */
+	public double getDouble(int row, int column) {
+		switch (types[column]) {
+		case INT_COLUMN:
+			return ((int[]) columns[column])[row];
+		case LONG_COLUMN:
+			return ((long[]) columns[column])[row];
+		default:
+			return ((double[]) columns[column])[row];
+		}
+	}
+
+	/**
+	 * Value at the given row and column as Java object. The numeric values are
+	 * boxed.
+	 * 
+	 * @param row    row index
+	 * @param column column index
+	 * @return the value at the given row and column
+	 * @since 1.2
+	 */
+	public Object getObject(int row, int column) {
+		switch (types[column]) {
+		case INT_COLUMN:
+			return ((int[]) columns[column])[row];
+		case LONG_COLUMN:
+			return ((long[]) columns[column])[row];
+		case DOUBLE_COLUMN:
+			return ((double[]) columns[column])[row];
+		default:
+			return ((Object[]) columns[column])[row];
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "PrologColumns [names=" + Arrays.toString(names) + ", rows=" + rows + "]";
+	}
+
+}
@@ -0,0 +1,106 @@
+/*-
+ * #%L
+ * prolobjectlink-jpi
+ * %%
+ * Copyright (C) 2020 - 2021 Prolobjectlink Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package io.github.prolobjectlink.prolog;
+
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * <p>
+ * Prolog cursor is a pull based view over the solutions of a {@link PrologQuery}.
+ * The solutions are fetched on demand from the under-laying engine in windows
+ * of bounded size, so the cursor never hold in memory more solutions than the
+ * window size. The way to create a new prolog cursor is invoking
+ * {@link PrologQuery#cursor()} or {@link PrologQuery#cursor(int)}.
+ * </p>
+ * 
+ * <pre>
+ * PrologQuery query = engine.query("dark(X)");
+ * PrologCursor cursor = query.cursor(64);
+ * try {
+ * 	for (Map&lt;String, PrologTerm&gt; solution : cursor) {
+ * 		System.out.println(solution.get(&quot;X&quot;));
+ * 	}
+ * } finally {
+ * 	cursor.close();
+ * }
+ * </pre>
+ * 
+ * <p>
+ * The cursor implement {@link Iterator} and {@link Iterable} over the variables
+ * solutions. In runtimes with stream support the cursor can be adapted to a
+ * solution stream using
+ * {@code StreamSupport.stream(Spliterators.spliteratorUnknownSize(cursor, Spliterator.ORDERED), false)}
+ * and closing the cursor on stream close.
+ * </p>
+ * 
+ * @author Jose Zalacain
+ * @since 1.2
+ */
+public interface PrologCursor extends Iterator<Map<String, PrologTerm>>, Iterable<Map<String, PrologTerm>> {
+
+	/**
+	 * Query over the current cursor fetch the solutions.
+	 * 
+	 * @return query over the current cursor fetch the solutions.
+	 * @since 1.2
+	 */
+	public PrologQuery getQuery();
+
+	/**
+	 * Maximum number of solutions fetched from the engine and hold by the cursor
+	 * at the same time.
+	 * 
+	 * @return maximum number of solutions hold by the cursor.
+	 * @since 1.2
+	 */
+	public int getWindowSize();
+
+	/**
+	 * Number of solutions fetched from the engine until now.
+	 * 
+	 * @return number of solutions fetched from the engine.
+	 * @since 1.2
+	 */
+	public long getFetchCount();
+
+	/**
+	 * Check if the current cursor was closed.
+	 * 
+	 * @return true if the current cursor was closed, false if not
+	 * @since 1.2
+	 */
+	public boolean isClosed();
+
+	/**
+	 * Release the buffered solutions and dispose the query over the current
+	 * cursor. After close the cursor don't have more solutions.
+	 * 
+	 * @since 1.2
+	 */
+	public void close();
+
+}
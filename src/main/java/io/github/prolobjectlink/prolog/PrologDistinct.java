@@ -0,0 +1,174 @@
+/*-
+ * #%L
+ * prolobjectlink-jpi
+ * %%
+ * Copyright (C) 2020 - 2021 Prolobjectlink Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package io.github.prolobjectlink.prolog;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Solutions deduplication filter. The exact filter keep a hash set of the
+ * seen solutions keyed by the structural solution hash and compare the
+ * solutions with equals only on hash collision, so the deduplication of n
+ * solutions is O(n). The bounded filter is a Bloom filter of fixed size that
+ * never accept a repeated solution but can reject a small fraction of the
+ * distinct solutions (the false positive rate).
+ * 
+ * @author Jose Zalacain
+ * @since 1.2
+ */
+final class PrologDistinct {
+
+	// exact mode
+	private final Set<Solution> seen;
+
+	// bounded mode
+	private final long[] bits;
+	private final int size;
+	private final int hashes;
+
+	private PrologDistinct(Set<Solution> seen, int size, int hashes) {
+		this.seen = seen;
+		this.size = size;
+		this.hashes = hashes;
+		this.bits = seen == null ? new long[(size + 63) >>> 6] : null;
+	}
+
+	/**
+	 * Create an exact deduplication filter.
+	 * 
+	 * @return an exact deduplication filter
+	 */
+	static PrologDistinct exact() {
+		return new PrologDistinct(new HashSet<Solution>(), 0, 0);
+	}
+
+	/**
+	 * Create a bounded deduplication filter sized for the given number of
+	 * distinct solutions and false positive rate.
+	 * 
+	 * @param expected          expected number of distinct solutions
+	 * @param falsePositiveRate probability to reject a distinct solution
+	 * @return a bounded deduplication filter
+	 * @throws IllegalArgumentException if the expected solutions number is less
+	 *                                  than one or the false positive rate is not
+	 *                                  between zero and one
+	 */
+	static PrologDistinct bounded(int expected, double falsePositiveRate) {
+		if (expected < 1) {
+			throw new IllegalArgumentException("Illegal expected solutions number " + expected);
+		}
+		if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+			throw new IllegalArgumentException("Illegal false positive rate " + falsePositiveRate);
+		}
+		double ln2 = Math.log(2);
+		long bitsNumber = (long) Math.ceil(-expected * Math.log(falsePositiveRate) / (ln2 * ln2));
+		int size = (int) Math.min(Math.max(bitsNumber, 64), Integer.MAX_VALUE - 63);
+		int hashes = Math.max(1, (int) Math.round((double) size / expected * ln2));
+		return new PrologDistinct(null, size, hashes);
+	}
+
+	/**
+	 * Register the given solution.
+	 * 
+	 * @param solution solution terms array
+	 * @return true if the solution was not seen before
+	 */
+	boolean add(PrologTerm[] solution) {
+		long hash = PrologTermHash.hash(solution);
+		return seen != null ? seen.add(new Solution(solution, hash)) : mark(hash);
+	}
+
+	/**
+	 * Register the given variables solution.
+	 * 
+	 * @param solution variables solution map
+	 * @return true if the solution was not seen before
+	 */
+	boolean add(Map<String, PrologTerm> solution) {
+		long hash = PrologTermHash.hash(solution);
+		return seen != null ? seen.add(new Solution(solution, hash)) : mark(hash);
+	}
+
+	/**
+	 * Set the Bloom filter bits of the given hash.
+	 * 
+	 * @return true if some bit was not set before
+	 */
+	private boolean mark(long hash) {
+		int h1 = (int) hash;
+		int h2 = (int) (hash >>> 32);
+		boolean added = false;
+		for (int i = 0; i < hashes; i++) {
+			int combined = h1 + i * h2;
+			int bit = (combined & Integer.MAX_VALUE) % size;
+			long mask = 1L << bit;
+			int word = bit >>> 6;
+			if ((bits[word] & mask) == 0) {
+				bits[word] |= mask;
+				added = true;
+			}
+		}
+		return added;
+	}
+
+	/**
+	 * Seen solution with the precomputed structural hash.
+	 */
+	private static final class Solution {
+
+		private final Object solution;
+		private final long hash;
+
+		private Solution(Object solution, long hash) {
+			this.solution = solution;
+			this.hash = hash;
+		}
+
+		@Override
+		public int hashCode() {
+			return (int) (hash ^ (hash >>> 32));
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof Solution))
+				return false;
+			Solution other = (Solution) obj;
+			if (hash != other.hash)
+				return false;
+			if (solution instanceof PrologTerm[] && other.solution instanceof PrologTerm[]) {
+				return Arrays.equals((PrologTerm[]) solution, (PrologTerm[]) other.solution);
+			}
+			return solution.equals(other.solution);
+		}
+
+	}
+
+}
@@ -27,6 +27,9 @@ package io.github.prolobjectlink.prolog;
 
 import java.io.Reader;
 import java.io.Writer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -339,6 +342,92 @@ public interface PrologEngine extends Iterable<PrologClause> {
 	 */
 	public void include(Reader reader);
 
+	/**
+	 * Consult a prolog program from specified reader reading the program clause
+	 * by clause. Before load the program, all user defined predicates are removed
+	 * from the current engine. Only the current clause text is hold in memory, so
+	 * programs of any size can be consulted with bounded memory. The clauses are
+	 * added at the end of the program and the directives are executed like
+	 * queries. The given listener is notified periodically with the number of
+	 * loaded clauses and read characters. If the prolog program contains syntax
+	 * error a syntax exception should be raised.
+	 * <p>
+	 * The clauses are parsed by the provider and added by this engine, not
+	 * consulted by the under-laying engine, so grammar rules and term expansion
+	 * are not applied and the operators defined by directives are only used if
+	 * the provider parser use them. Programs that need this should be loaded
+	 * with {@link #consult(Reader)}.
+	 * 
+	 * @param reader   The reader to read the prolog program from character streams
+	 * @param listener progress listener, null if the progress is not needed
+	 * @throws LoadError if the program can't be read
+	 * @since 1.2
+	 */
+	public void consult(Reader reader, PrologProgressListener listener);
+
+	/**
+	 * Consult a prolog program from specified byte channel reading the program
+	 * clause by clause. Before load the program, all user defined predicates are
+	 * removed from the current engine. Only the current clause text is hold in
+	 * memory, so programs of any size can be consulted with bounded memory. The
+	 * clauses are added at the end of the program and the directives are executed
+	 * like queries. The given listener is notified periodically with the number of
+	 * loaded clauses and read bytes. If the prolog program contains syntax error a
+	 * syntax exception should be raised.
+	 * <p>
+	 * Like {@link #consult(Reader, PrologProgressListener)} the program is not
+	 * consulted by the under-laying engine, use {@link #consult(Reader)} for
+	 * programs with grammar rules or term expansion.
+	 * 
+	 * @param channel  The channel to read the prolog program bytes
+	 * @param charset  charset used to decode the read bytes
+	 * @param listener progress listener, null if the progress is not needed
+	 * @throws LoadError if the program can't be read
+	 * @since 1.2
+	 */
+	public void consult(ReadableByteChannel channel, Charset charset, PrologProgressListener listener);
+
+	/**
+	 * Include a prolog program from specified reader reading the program clause by
+	 * clause. Only the current clause text is hold in memory, so programs of any
+	 * size can be included with bounded memory. The clauses are added at the end
+	 * of the program and the directives are executed like queries. The given
+	 * listener is notified periodically with the number of loaded clauses and read
+	 * characters. If the prolog program contains syntax error a syntax exception
+	 * should be raised.
+	 * <p>
+	 * Like {@link #consult(Reader, PrologProgressListener)} the program is not
+	 * consulted by the under-laying engine, use {@link #include(Reader)} for
+	 * programs with grammar rules or term expansion.
+	 * 
+	 * @param reader   The reader to read the prolog program from character streams
+	 * @param listener progress listener, null if the progress is not needed
+	 * @throws LoadError if the program can't be read
+	 * @since 1.2
+	 */
+	public void include(Reader reader, PrologProgressListener listener);
+
+	/**
+	 * Include a prolog program from specified byte channel reading the program
+	 * clause by clause. Only the current clause text is hold in memory, so
+	 * programs of any size can be included with bounded memory. The clauses are
+	 * added at the end of the program and the directives are executed like
+	 * queries. The given listener is notified periodically with the number of
+	 * loaded clauses and read bytes. If the prolog program contains syntax error a
+	 * syntax exception should be raised.
+	 * <p>
+	 * Like {@link #consult(Reader, PrologProgressListener)} the program is not
+	 * consulted by the under-laying engine, use {@link #include(Reader)} for
+	 * programs with grammar rules or term expansion.
+	 * 
+	 * @param channel  The channel to read the prolog program bytes
+	 * @param charset  charset used to decode the read bytes
+	 * @param listener progress listener, null if the progress is not needed
+	 * @throws LoadError if the program can't be read
+	 * @since 1.2
+	 */
+	public void include(ReadableByteChannel channel, Charset charset, PrologProgressListener listener);
+
 	/**
 	 * Save the prolog program present in the current engine to some specific file
 	 * specified by string path.
@@ -350,13 +439,72 @@ public interface PrologEngine extends Iterable<PrologClause> {
 
 	/**
 	 * Write the prolog clauses in program present in the current engine using the
-	 * given driver.
+	 * given driver. Every clause is followed by a new line. The persistence stop
+	 * at the first I/O error raising a {@link PersistenceError}.
 	 * 
 	 * @param writer writer for write prolog clauses in the program.
+	 * @throws PersistenceError if an I/O error occurs
 	 * @since 1.0
 	 */
 	public void persist(Writer writer);
 
+	/**
+	 * Write the prolog clauses in program present in the current engine using the
+	 * given driver. The clauses are serialized in parallel chunks and written in
+	 * program order, every clause followed by a new line. The given listener is
+	 * notified after every written chunk with the number of written clauses and
+	 * characters, so the listener can compute the persistence throughput. The
+	 * persistence stop at the first I/O error raising a {@link PersistenceError}.
+	 * 
+	 * @param writer   writer for write prolog clauses in the program.
+	 * @param listener progress listener, null if the progress is not needed
+	 * @throws PersistenceError if an I/O error occurs
+	 * @since 1.2
+	 */
+	public void persist(Writer writer, PrologProgressListener listener);
+
+	/**
+	 * Save the prolog program present in the current engine to some specific file
+	 * specified by string path using the given format. The format is one of the
+	 * {@link PrologFormat} constants. The {@link PrologFormat#TEXT} format is
+	 * equivalent to {@link #persist(String)}. The {@link PrologFormat#BINARY}
+	 * format save a compact binary snapshot with an atom table and a binary terms
+	 * encoding that can be loaded without text parsing using
+	 * {@link #consult(String, int)}.
+	 * 
+	 * <pre>
+	 * engine.persist(&quot;family.bin&quot;, PrologFormat.BINARY);
+	 * </pre>
+	 * 
+	 * @param path   location of the file
+	 * @param format persistence format, one of the {@link PrologFormat} constants
+	 * @throws PersistenceError if an I/O error occurs saving a binary snapshot
+	 * @since 1.2
+	 */
+	public void persist(String path, int format);
+
+	/**
+	 * Consult a file specified by the string path saved in the given format. The
+	 * format is one of the {@link PrologFormat} constants. The
+	 * {@link PrologFormat#TEXT} format is equivalent to {@link #consult(String)}.
+	 * The {@link PrologFormat#BINARY} format load a binary snapshot saved by
+	 * {@link #persist(String, int)} through a memory mapped file without text
+	 * parsing. The snapshot header, clauses count and checksum are validated
+	 * first, then all user defined predicates are removed from the current
+	 * engine and the clauses are decoded and loaded one by one. If the snapshot
+	 * is not valid the current program is not modified.
+	 * 
+	 * <pre>
+	 * engine.consult(&quot;family.bin&quot;, PrologFormat.BINARY);
+	 * </pre>
+	 * 
+	 * @param path   location of the file to be consulted
+	 * @param format persistence format, one of the {@link PrologFormat} constants
+	 * @throws PersistenceError if an I/O error occurs reading a binary snapshot
+	 * @since 1.2
+	 */
+	public void consult(String path, int format);
+
 	/**
 	 * Remove all predicates that match with the predicate indicator (PI) formed by
 	 * the concatenation of the given string functor and integer arity separated by
@@ -650,6 +798,48 @@ public interface PrologEngine extends Iterable<PrologClause> {
 	 */
 	public void retract(PrologTerm head, PrologTerm... body);
 
+	/**
+	 * Add all given clauses at the end of your predicates in the main memory
+	 * program. The clauses order for the same predicate is preserved. This
+	 * operation is equivalent to invoke {@link #assertz(PrologTerm, PrologTerm...)}
+	 * for every clause, but engine implementations can load the clauses in one
+	 * batch reducing the calls to the wrapped engine. The default implementation
+	 * group the clauses by predicate and add every predicate clauses in sequence.
+	 * 
+	 * <pre>
+	 * List&lt;PrologClause&gt; facts = ...;
+	 * engine.assertzAll(facts);
+	 * </pre>
+	 * 
+	 * @param clauses clauses to be added
+	 * @since 1.2
+	 */
+	public void assertzAll(Collection<PrologClause> clauses);
+
+	/**
+	 * Remove all given clauses from the main memory program. This operation is
+	 * equivalent to invoke {@link #retract(PrologTerm, PrologTerm...)} for every
+	 * clause, but engine implementations can remove the clauses in one batch
+	 * reducing the calls to the wrapped engine. The default implementation group
+	 * the clauses by predicate and remove every predicate clauses in sequence.
+	 * 
+	 * @param clauses clauses to be removed
+	 * @since 1.2
+	 */
+	public void retractAll(Collection<PrologClause> clauses);
+
+	/**
+	 * Remove all clauses of the predicates that match with the given predicates
+	 * indicators. This operation is equivalent to invoke
+	 * {@link #abolish(String, int)} for every predicate indicator, but engine
+	 * implementations can remove the predicates in one batch reducing the calls to
+	 * the wrapped engine.
+	 * 
+	 * @param indicators predicates indicators to be removed
+	 * @since 1.2
+	 */
+	public void abolishAll(Collection<PrologIndicator> indicators);
+
 	/**
 	 * Check that two terms (x and y) unify. Prolog unification algorithm is based
 	 * on three principals rules:
@@ -674,7 +864,9 @@ public interface PrologEngine extends Iterable<PrologClause> {
 
 	/**
 	 * Match to other term returning list of substitutions. Used to compute the most
-	 * general unifier.
+	 * general unifier. The unifier is computed in process with a
+	 * {@link PrologUnifier}, so the variables with the same name in both terms
+	 * are the same variable like in the text {@code t1 = t2}.
 	 * 
 	 * @param t1 the term to unify.
 	 * @param t2 the term to unify.
@@ -789,6 +981,27 @@ public interface PrologEngine extends Iterable<PrologClause> {
 	 */
 	public PrologQuery query(PrologTerm term, PrologTerm... terms);
 
+	/**
+	 * Create a new prepared query for the given query string. The query string
+	 * is a prolog goal where the parameters are variables marked with a question
+	 * mark prefix. The values for the parameters are bound using
+	 * {@link PrologPreparedQuery#bind(String, PrologTerm)} and the bound goal is
+	 * executed using {@link PrologPreparedQuery#query()}. The query string is
+	 * parsed only the first time and the parsed goals are cached by the engine
+	 * in a least recently used cache, so preparing the same query string many
+	 * times don't parse the query string again.
+	 * 
+	 * <pre>
+	 * PrologPreparedQuery prepared = engine.prepare(&quot;parent(?X, Y)&quot;);
+	 * List&lt;Map&lt;String, PrologTerm&gt;&gt; children = prepared.bind(&quot;X&quot;, &quot;tom&quot;).query().all();
+	 * </pre>
+	 * 
+	 * @param query prolog goal with parameters marked with question mark.
+	 * @return a new prepared query instance.
+	 * @since 1.2
+	 */
+	public PrologPreparedQuery prepare(String query);
+
 	/**
 	 * Create a new prolog query and return the prolog terms that conform the
 	 * solution set for the current query. The solution set is a prolog terms map
@@ -838,7 +1051,8 @@ public interface PrologEngine extends Iterable<PrologClause> {
 	 * Create a new prolog query and return the list of (N) prolog terms that
 	 * conform the solution set for the current query. Each list item is a prolog
 	 * terms map and every map entry is a pair variable name and variable instance
-	 * value for the variables not anonymous involved in the query.
+	 * value for the variables not anonymous involved in the query. The query is
+	 * not driven past the n-th solution.
 	 * 
 	 * @param n    query result instance number
 	 * @param goal string with prolog syntax to be query
@@ -849,10 +1063,16 @@ public interface PrologEngine extends Iterable<PrologClause> {
 	public List<Map<String, PrologTerm>> queryN(int n, String goal);
 
 	/**
+	 * Create a new prolog query and return the list of (N) prolog terms that
+	 * conform the solution set for the current query. Each list item is a prolog
+	 * terms map and every map entry is a pair variable name and variable instance
+	 * value for the variables not anonymous involved in the query. The query is
+	 * not driven past the n-th solution.
 	 * 
-	 * @param n
-	 * @param goal
-	 * @return
+	 * @param n    query result instance number
+	 * @param goal prolog term to be query
+	 * @return the list of prolog terms that conform the solution set for the
+	 *         current query.
 	 * @since 1.1
 	 */
 	public List<Map<String, PrologTerm>> queryN(int n, PrologTerm goal);
@@ -861,7 +1081,8 @@ public interface PrologEngine extends Iterable<PrologClause> {
 	 * Create a new prolog query and return the list of (N) prolog terms that
 	 * conform the solution set for the current query. Each list item is a prolog
 	 * terms map and every map entry is a pair variable name and variable instance
-	 * value for the variables not anonymous involved in the query.
+	 * value for the variables not anonymous involved in the query. The query is
+	 * not driven past the n-th solution.
 	 * 
 	 * <pre>
 	 * PrologVariable x = provider.newVariable("X", 0);
@@ -1059,7 +1280,9 @@ public interface PrologEngine extends Iterable<PrologClause> {
 	/**
 	 * Make and return a copy of the clause map present in the current engine. The
 	 * map key is a functor/arity string and the value is a prolog clause family
-	 * list.
+	 * list. If the engine maintain a program index, the returned map is instead an
+	 * unmodifiable live view of the program index and the call cost don't depend
+	 * of the program size.
 	 * 
 	 * @return a clause map present in the current engine.
 	 * @since 1.0
@@ -1067,7 +1290,9 @@ public interface PrologEngine extends Iterable<PrologClause> {
 	public Map<String, List<PrologClause>> getProgramMap();
 
 	/**
-	 * Make and return a copy of the clause set present in the current engine.
+	 * Make and return a copy of the clause set present in the current engine. If
+	 * the engine maintain a program index, the returned set is instead an
+	 * unmodifiable live view of the program index.
 	 * 
 	 * @return a clause set present in the current engine.
 	 * @since 1.0
@@ -0,0 +1,261 @@
+/*-
+ * #%L
+ * prolobjectlink-jpi
+ * %%
+ * Copyright (C) 2020 - 2021 Prolobjectlink Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package io.github.prolobjectlink.prolog;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * Prolog engine pool keep a bounded set of ready to be operate prolog engines
+ * created from the same {@link PrologProvider}. The engine creation include
+ * built-ins loading and the program consult, so reuse the engines avoid pay
+ * this bootstrap cost for every unit of work.
+ * </p>
+ * 
+ * <p>
+ * The engines are obtained invoking {@link #lease()} and must be returned to
+ * the pool invoking {@link #release(PrologEngine)} after use it. If the leased
+ * engine stay in inconsistent state this engine can be discarded invoking
+ * {@link #invalidate(PrologEngine)}. The clauses asserted or retracted over a
+ * leased engine remain after release, therefore the engine users should
+ * leave the engine program in the same state that was found.
+ * </p>
+ * 
+ * <pre>
+ * PrologEnginePool pool = provider.newEnginePool("zoo.pl", 2, 8);
+ * PrologEngine engine = pool.lease();
+ * try {
+ * 	List&lt;Map&lt;String, PrologTerm&gt;&gt; solutions = engine.queryAll("dark(X)");
+ * } finally {
+ * 	pool.release(engine);
+ * }
+ * </pre>
+ * 
+ * The pool keep at least {@link #getMinSize()} engines created and never create
+ * more than {@link #getMaxSize()} engines. Idle engines over the minimum size
+ * are evicted after the idle timeout. If all engines are leased, the lease
+ * operation wait until some engine is released or the lease timeout is
+ * reached, in this last case a {@link LeaseTimeoutError} is raised.
+ * 
+ * @author Jose Zalacain
+ * @since 1.2
+ */
+public interface PrologEnginePool {
+
+	/**
+	 * Take an engine from the pool waiting at most the current lease timeout if
+	 * all engines are leased.
+	 * 
+	 * @return a ready to be operate prolog engine.
+	 * @throws LeaseTimeoutError if the lease timeout is reached
+	 * @since 1.2
+	 */
+	public PrologEngine lease();
+
+	/**
+	 * Take an engine from the pool waiting at most the given timeout if all
+	 * engines are leased.
+	 * 
+	 * @param timeout maximum time to wait for an engine
+	 * @param unit    time unit of the timeout argument
+	 * @return a ready to be operate prolog engine.
+	 * @throws LeaseTimeoutError if the given timeout is reached
+	 * @since 1.2
+	 */
+	public PrologEngine lease(long timeout, TimeUnit unit);
+
+	/**
+	 * Return a leased engine to the pool. After release, the engine can be leased
+	 * by other pool users and should not be used by the releaser.
+	 * 
+	 * @param engine leased engine to be returned
+	 * @throws IllegalArgumentException if the engine was not leased from this
+	 *                                  pool
+	 * @since 1.2
+	 */
+	public void release(PrologEngine engine);
+
+	/**
+	 * Discard a leased engine disposing it. The leased place is free and a new
+	 * engine will be created when it is needed.
+	 * 
+	 * @param engine leased engine to be discarded
+	 * @throws IllegalArgumentException if the engine was not leased from this
+	 *                                  pool
+	 * @since 1.2
+	 */
+	public void invalidate(PrologEngine engine);
+
+	/**
+	 * Dispose the idle engines over the minimum pool size that are idle more time
+	 * than the idle timeout. The eviction is performed too when the engines are
+	 * released.
+	 * 
+	 * @return number of evicted engines
+	 * @since 1.2
+	 */
+	public int evict();
+
+	/**
+	 * Maximum time to wait for an engine in {@link #lease()} operation.
+	 * 
+	 * @param timeout maximum time to wait for an engine
+	 * @param unit    time unit of the timeout argument
+	 * @since 1.2
+	 */
+	public void setLeaseTimeout(long timeout, TimeUnit unit);
+
+	/**
+	 * Time that an engine over the minimum pool size can stay idle before to be
+	 * evicted.
+	 * 
+	 * @param timeout maximum idle time
+	 * @param unit    time unit of the timeout argument
+	 * @since 1.2
+	 */
+	public void setIdleTimeout(long timeout, TimeUnit unit);
+
+	/**
+	 * Enable or disable the health check over idle engines before lease it. The
+	 * health check use {@link PrologEngine#verify()} and the engines that don't
+	 * report a correct integration are discarded. By default is enabled.
+	 * 
+	 * @param testOnLease true for check the engine health before lease it
+	 * @since 1.2
+	 */
+	public void setTestOnLease(boolean testOnLease);
+
+	/**
+	 * Minimum number of engines keep alive by the pool.
+	 * 
+	 * @return minimum number of engines keep alive by the pool.
+	 * @since 1.2
+	 */
+	public int getMinSize();
+
+	/**
+	 * Maximum number of engines created by the pool.
+	 * 
+	 * @return maximum number of engines created by the pool.
+	 * @since 1.2
+	 */
+	public int getMaxSize();
+
+	/**
+	 * Number of engines created by the pool, leased or idle.
+	 * 
+	 * @return number of engines created by the pool.
+	 * @since 1.2
+	 */
+	public int getSize();
+
+	/**
+	 * Number of engines currently leased.
+	 * 
+	 * @return number of engines currently leased.
+	 * @since 1.2
+	 */
+	public int getActiveCount();
+
+	/**
+	 * Number of engines currently ready to be leased.
+	 * 
+	 * @return number of engines currently ready to be leased.
+	 * @since 1.2
+	 */
+	public int getIdleCount();
+
+	/**
+	 * Current pool saturation computed like leased engines number divided by
+	 * maximum pool size. A value of 1.0 indicate that the lease operations will
+	 * wait for released engines.
+	 * 
+	 * @return current pool saturation between 0.0 and 1.0
+	 * @since 1.2
+	 */
+	public double getSaturation();
+
+	/**
+	 * Number of successful lease operations.
+	 * 
+	 * @return number of successful lease operations.
+	 * @since 1.2
+	 */
+	public long getLeaseCount();
+
+	/**
+	 * Number of lease operations that found the pool saturated and need wait for
+	 * a released engine.
+	 * 
+	 * @return number of lease operations that found the pool saturated.
+	 * @since 1.2
+	 */
+	public long getSaturationCount();
+
+	/**
+	 * Number of lease operations that reach the timeout without obtain an engine.
+	 * 
+	 * @return number of lease operations that reach the timeout.
+	 * @since 1.2
+	 */
+	public long getTimeoutCount();
+
+	/**
+	 * Accumulated time waited by all successful lease operations.
+	 * 
+	 * @param unit time unit for the returned value
+	 * @return accumulated lease wait time.
+	 * @since 1.2
+	 */
+	public long getTotalLeaseWaitTime(TimeUnit unit);
+
+	/**
+	 * Maximum time waited by a successful lease operation.
+	 * 
+	 * @param unit time unit for the returned value
+	 * @return maximum lease wait time.
+	 * @since 1.2
+	 */
+	public long getMaxLeaseWaitTime(TimeUnit unit);
+
+	/**
+	 * Get a Prolog provider instance used by the pool to create engines.
+	 * 
+	 * @return a Prolog provider instance.
+	 * @since 1.2
+	 */
+	public PrologProvider getProvider();
+
+	/**
+	 * Dispose all idle engines and close the pool. The engines leased at the
+	 * moment of dispose are disposed when they are released. After dispose the
+	 * pool can't lease more engines.
+	 * 
+	 * @since 1.2
+	 */
+	public void dispose();
+
+}
@@ -0,0 +1,196 @@
+/*-
+ * #%L
+ * prolobjectlink-jpi
+ * %%
+ * Copyright (C) 2020 - 2021 Prolobjectlink Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package io.github.prolobjectlink.prolog;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * Prolog executor run batches of goals concurrently over the engines of a
+ * {@link PrologEnginePool}. Every submitted goal is resolved on a worker thread
+ * that lease an engine, query the goal collecting all variables results and
+ * return the engine to the pool. The result of every goal is available through
+ * the returned {@link Future}.
+ * </p>
+ * 
+ * <pre>
+ * PrologExecutor executor = provider.newExecutor(4, 64);
+ * Future&lt;List&lt;Map&lt;String, Object&gt;&gt;&gt; dark = executor.submit("dark(X)");
+ * Future&lt;List&lt;Map&lt;String, Object&gt;&gt;&gt; big = executor.submit("big(X)");
+ * List&lt;Map&lt;String, Object&gt;&gt; results = dark.get();
+ * executor.shutdown();
+ * </pre>
+ * 
+ * <p>
+ * The executor have a bounded queue of pending goals. When the queue is full
+ * the submit operations block the caller until some running goal is completed,
+ * applying back-pressure over the goals producers. The goals submitted with a
+ * timeout are cancelled if they are not completed in the given time. Cancel a
+ * goal interrupt the worker thread, but the under-laying engine can complete
+ * the running query if it is not interruptible.
+ * </p>
+ * 
+ * @author Jose Zalacain
+ * @since 1.2
+ */
+public interface PrologExecutor {
+
+	/**
+	 * Submit a string goal with prolog syntax to be resolved by some engine of
+	 * the executor pool.
+	 * 
+	 * @param goal string with prolog syntax to be query
+	 * @return future list of variables results for the given goal
+	 * @since 1.2
+	 */
+	public Future<List<Map<String, Object>>> submit(String goal);
+
+	/**
+	 * Submit a string goal with prolog syntax to be resolved by some engine of
+	 * the executor pool. The goal is cancelled if it is not completed in the
+	 * given time.
+	 * 
+	 * @param goal    string with prolog syntax to be query
+	 * @param timeout maximum time to resolve the goal
+	 * @param unit    time unit of the timeout argument
+	 * @return future list of variables results for the given goal
+	 * @since 1.2
+	 */
+	public Future<List<Map<String, Object>>> submit(String goal, long timeout, TimeUnit unit);
+
+	/**
+	 * Submit the conjunction of the given terms to be resolved by some engine of
+	 * the executor pool.
+	 * 
+	 * @param term  prolog term to be query
+	 * @param terms prolog term array to be query.
+	 * @return future list of variables results for the given goal
+	 * @since 1.2
+	 */
+	public Future<List<Map<String, Object>>> submit(PrologTerm term, PrologTerm... terms);
+
+	/**
+	 * Submit the conjunction of the given terms to be resolved by some engine of
+	 * the executor pool. The goal is cancelled if it is not completed in the
+	 * given time.
+	 * 
+	 * @param terms   prolog term array to be query.
+	 * @param timeout maximum time to resolve the goal
+	 * @param unit    time unit of the timeout argument
+	 * @return future list of variables results for the given goal
+	 * @since 1.2
+	 */
+	public Future<List<Map<String, Object>>> submit(PrologTerm[] terms, long timeout, TimeUnit unit);
+
+	/**
+	 * Submit a batch of string goals with prolog syntax. The returned futures list
+	 * have the same order that the given goals list.
+	 * 
+	 * @param goals list of strings with prolog syntax to be query
+	 * @return future list of variables results for every given goal
+	 * @since 1.2
+	 */
+	public List<Future<List<Map<String, Object>>>> submitAll(List<String> goals);
+
+	/**
+	 * Submit a batch of string goals with prolog syntax. Every goal is cancelled
+	 * if it is not completed in the given time. The returned futures list have the
+	 * same order that the given goals list.
+	 * 
+	 * @param goals   list of strings with prolog syntax to be query
+	 * @param timeout maximum time to resolve every goal
+	 * @param unit    time unit of the timeout argument
+	 * @return future list of variables results for every given goal
+	 * @since 1.2
+	 */
+	public List<Future<List<Map<String, Object>>>> submitAll(List<String> goals, long timeout, TimeUnit unit);
+
+	/**
+	 * Prolog engine pool used to resolve the submitted goals.
+	 * 
+	 * @return prolog engine pool used to resolve the submitted goals.
+	 * @since 1.2
+	 */
+	public PrologEnginePool getEnginePool();
+
+	/**
+	 * Maximum number of submitted goals waiting for a free worker.
+	 * 
+	 * @return maximum number of pending goals
+	 * @since 1.2
+	 */
+	public int getQueueCapacity();
+
+	/**
+	 * Number of submitted goals that are running or waiting for a free worker.
+	 * 
+	 * @return number of submitted goals not completed
+	 * @since 1.2
+	 */
+	public int getPendingCount();
+
+	/**
+	 * Initiates an orderly shutdown in which previously submitted goals are
+	 * executed, but no new goals will be accepted.
+	 * 
+	 * @since 1.2
+	 */
+	public void shutdown();
+
+	/**
+	 * Attempts to stop all actively executing goals and halts the processing of
+	 * waiting goals.
+	 * 
+	 * @since 1.2
+	 */
+	public void shutdownNow();
+
+	/**
+	 * Check if the current executor was shutdown.
+	 * 
+	 * @return true if the current executor was shutdown, false if not
+	 * @since 1.2
+	 */
+	public boolean isShutdown();
+
+	/**
+	 * Blocks until all goals have completed execution after a shutdown request,
+	 * or the timeout occurs, or the current thread is interrupted, whichever
+	 * happens first.
+	 * 
+	 * @param timeout the maximum time to wait
+	 * @param unit    the time unit of the timeout argument
+	 * @return true if this executor terminated and false if the timeout elapsed
+	 *         before termination
+	 * @throws InterruptedException if interrupted while waiting
+	 * @since 1.2
+	 */
+	public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException;
+
+}
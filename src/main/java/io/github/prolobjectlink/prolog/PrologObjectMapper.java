@@ -0,0 +1,180 @@
+/*-
+ * #%L
+ * prolobjectlink-jpi
+ * %%
+ * Copyright (C) 2020 - 2021 Prolobjectlink Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package io.github.prolobjectlink.prolog;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * <p>
+ * Prolog object mapper convert Java objects to Prolog structures and vice
+ * versa. The structure functor is the object class simple name with the first
+ * letter in lower case and the structure arguments are the object instance
+ * fields, super class fields first and the fields of every class sorted by
+ * name. The Java reflection don't specify the fields declaration order, so the
+ * name order give the same structure in every virtual machine. Static,
+ * transient and synthetic fields are not mapped.
+ * </p>
+ * 
+ * <pre>
+ * class Person { int age; String name; }
+ * PrologObjectMapper mapper = provider.newObjectMapper();
+ * mapper.assertz(engine, persons); // person(30, john). ...
+ * List&lt;Person&gt; adults = mapper.fromFacts(engine, Person.class);
+ * </pre>
+ * 
+ * <p>
+ * String and character fields are mapped to atoms, boolean fields to
+ * {@code true} and {@code false}, numeric fields to the equivalent Prolog
+ * numbers and null values to {@code nil}. Fields of other types are mapped
+ * with the provider Java converter if it is possible or as nested structures
+ * in other case. The field accessors are resolved once per class and cached by
+ * the mapper, so the mapper instance should be reused.
+ * </p>
+ * 
+ * <p>
+ * The objects are created from structures using the constructor with the
+ * same parameter types than the mapped fields in the mapped order (immutable
+ * classes) or the no arguments constructor and setting the fields after. The
+ * parameters names are not known, so the fields constructor is used only if
+ * all parameter types are different. In other case the class need a no
+ * arguments constructor, if it don't have one a {@link MappingError} is
+ * raised.
+ * </p>
+ * 
+ * @author Jose Zalacain
+ * @since 1.2
+ */
+public interface PrologObjectMapper {
+
+	/**
+	 * Provider used to create the mapped terms.
+	 * 
+	 * @return the mapper provider
+	 * @since 1.2
+	 */
+	public PrologProvider getProvider();
+
+	/**
+	 * Structure functor for the objects of the given class.
+	 * 
+	 * @param type mapped class
+	 * @return structure functor for the given class
+	 * @throws MappingError if the given class can't be mapped
+	 * @since 1.2
+	 */
+	public String getFunctor(Class<?> type);
+
+	/**
+	 * Structure arity for the objects of the given class, that is the number of
+	 * mapped fields.
+	 * 
+	 * @param type mapped class
+	 * @return structure arity for the given class
+	 * @throws MappingError if the given class can't be mapped
+	 * @since 1.2
+	 */
+	public int getArity(Class<?> type);
+
+	/**
+	 * Create the Prolog structure equivalent to the given object.
+	 * 
+	 * @param object object to be mapped
+	 * @return the Prolog structure equivalent to the given object or
+	 *         {@code nil} if the object is null
+	 * @throws MappingError if the given object can't be mapped
+	 * @since 1.2
+	 */
+	public PrologTerm toTerm(Object object);
+
+	/**
+	 * Create the Prolog structures equivalent to the given objects.
+	 * 
+	 * @param objects objects to be mapped
+	 * @return the Prolog structures equivalent to the given objects in iteration
+	 *         order
+	 * @throws MappingError if some given object can't be mapped
+	 * @since 1.2
+	 */
+	public PrologTerm[] toTerms(Collection<?> objects);
+
+	/**
+	 * Create the Java object of the given class equivalent to the given Prolog
+	 * structure.
+	 * 
+	 * @param term Prolog structure to be mapped
+	 * @param type class of the created object
+	 * @param      <T> created object type
+	 * @return the Java object equivalent to the given structure or null if the
+	 *         given term is {@code nil}
+	 * @throws StructureExpectedError if the given term is not a structure
+	 * @throws MappingError           if the structure functor or arity don't
+	 *                                match with the given class or the object
+	 *                                can't be created
+	 * @since 1.2
+	 */
+	public <T> T fromTerm(PrologTerm term, Class<T> type);
+
+	/**
+	 * Create the Java objects of the given class equivalent to the given Prolog
+	 * structures.
+	 * 
+	 * @param terms Prolog structures to be mapped
+	 * @param type  class of the created objects
+	 * @param       <T> created objects type
+	 * @return the Java objects equivalent to the given structures in the same
+	 *         order
+	 * @throws MappingError if some structure can't be mapped
+	 * @since 1.2
+	 */
+	public <T> List<T> fromTerms(PrologTerm[] terms, Class<T> type);
+
+	/**
+	 * Add to the given engine one fact for every given object. The facts are
+	 * added at the end of the engine program.
+	 * 
+	 * @param engine  engine where the facts are added
+	 * @param objects objects to be added as facts
+	 * @throws MappingError if some given object can't be mapped
+	 * @since 1.2
+	 */
+	public void assertz(PrologEngine engine, Collection<?> objects);
+
+	/**
+	 * Create the Java objects of the given class for every fact in the given
+	 * engine with the class functor and arity. The objects are returned in the
+	 * solutions order.
+	 * 
+	 * @param engine engine where the facts are queried
+	 * @param type   class of the created objects
+	 * @param        <T> created objects type
+	 * @return the Java objects equivalent to the engine facts
+	 * @throws MappingError if some fact can't be mapped
+	 * @since 1.2
+	 */
+	public <T> List<T> fromFacts(PrologEngine engine, Class<T> type);
+
+}
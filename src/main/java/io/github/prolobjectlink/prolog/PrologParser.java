@@ -26,15 +26,18 @@
 package io.github.prolobjectlink.prolog;
 
 import java.io.File;
+import java.io.Reader;
 import java.util.Set;
 
 /**
  * Prolog parser interface used for build terms from string with Prolog syntax.
+ * Every provider is a parser. Standalone parsers, optionally with a cache of
+ * the parsed terms, are created using {@link PrologProvider#newParser(int)}.
  * 
  * @author Jose Zalacain
  * @since 1.0
  */
-interface PrologParser extends PrologMapper {
+public interface PrologParser extends PrologMapper {
 
 	/**
 	 * Parse the string with Prolog syntax and create an equivalent Prolog term
@@ -92,6 +95,7 @@ interface PrologParser extends PrologMapper {
 	 * 
 	 * @param file file path to be parsed.
 	 * @return a Prolog clause set found in the file.
+	 * @throws LoadError if the file don't exist
 	 * @since 1.0
 	 */
 	public Set<PrologClause> parseProgram(String file);
@@ -102,8 +106,22 @@ interface PrologParser extends PrologMapper {
 	 * 
 	 * @param in file to be parsed.
 	 * @return a Prolog clause set found in the file.
+	 * @throws LoadError if the file don't exist
 	 * @since 1.0
 	 */
 	public Set<PrologClause> parseProgram(File in);
 
+	/**
+	 * Parse the Prolog text read from the given character stream and return a
+	 * Prolog clause set found in the stream. The text is consulted by a new
+	 * engine like the program files. The stream is read until the end and is not
+	 * closed.
+	 * 
+	 * @param in character stream to be parsed.
+	 * @return a Prolog clause set found in the stream.
+	 * @throws LoadError if the stream can't be read
+	 * @since 1.2
+	 */
+	public Set<PrologClause> parseProgram(Reader in);
+
 }
@@ -0,0 +1,196 @@
+/*-
+ * #%L
+ * prolobjectlink-jpi
+ * %%
+ * Copyright (C) 2020 - 2021 Prolobjectlink Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package io.github.prolobjectlink.prolog;
+
+import java.util.Set;
+
+/**
+ * <p>
+ * Prolog prepared query is a parameterized query parsed once and executed many
+ * times with different parameters values. The way to create a new prepared
+ * query is invoking {@link PrologEngine#prepare(String)}. The query string is
+ * a prolog goal where the parameters are variables marked with a question mark
+ * prefix. The parsed goals are cached by the engine, so preparing again the
+ * same query string don't parse the query string again.
+ * </p>
+ * 
+ * <pre>
+ * PrologPreparedQuery prepared = engine.prepare("parent(?X, Y)");
+ * prepared.bind("X", "tom");
+ * PrologQuery query = prepared.query();
+ * List&lt;Map&lt;String, PrologTerm&gt;&gt; solutions = query.all();
+ * query.dispose();
+ * prepared.bind("X", "bob");
+ * List&lt;Map&lt;String, PrologTerm&gt;&gt; others = prepared.query().all();
+ * </pre>
+ * 
+ * <p>
+ * The bound values are substituted like prolog term arguments without string
+ * concatenation, so the bound atoms don't need quotes escaping. Any variable
+ * present in the query can be bound, the question mark only document the
+ * expected parameters. The unbound variables remain free variables in the
+ * executed goal. A prepared query instance is not thread safe, but many
+ * prepared query instances can be created from the same query string.
+ * </p>
+ * 
+ * @author Jose Zalacain
+ * @since 1.2
+ */
+public interface PrologPreparedQuery {
+
+	/**
+	 * Engine where the prepared query is executed.
+	 * 
+	 * @return engine where the prepared query is executed.
+	 * @since 1.2
+	 */
+	public PrologEngine getEngine();
+
+	/**
+	 * Query string used to prepare the current query.
+	 * 
+	 * @return query string used to prepare the current query.
+	 * @since 1.2
+	 */
+	public String getQueryString();
+
+	/**
+	 * Names of the variables marked like parameters with a question mark prefix
+	 * in the query string.
+	 * 
+	 * @return parameters names in the query string.
+	 * @since 1.2
+	 */
+	public Set<String> getParameterNames();
+
+	/**
+	 * Names of all not anonymous variables present in the prepared query.
+	 * 
+	 * @return variables names in the prepared query.
+	 * @since 1.2
+	 */
+	public Set<String> getVariableNames();
+
+	/**
+	 * Bind the variable with the given name to the given prolog term.
+	 * 
+	 * @param name  variable name
+	 * @param value prolog term to be substituted
+	 * @return the current prepared query
+	 * @throws IllegalArgumentException if the variable is not present in the
+	 *                                  prepared query
+	 * @since 1.2
+	 */
+	public PrologPreparedQuery bind(String name, PrologTerm value);
+
+	/**
+	 * Bind the variable with the given name to an atom with the given value.
+	 * 
+	 * @param name  variable name
+	 * @param value atom value to be substituted
+	 * @return the current prepared query
+	 * @throws IllegalArgumentException if the variable is not present in the
+	 *                                  prepared query
+	 * @since 1.2
+	 */
+	public PrologPreparedQuery bind(String name, String value);
+
+	/**
+	 * Bind the variable with the given name to an integer number.
+	 * 
+	 * @param name  variable name
+	 * @param value integer value to be substituted
+	 * @return the current prepared query
+	 * @throws IllegalArgumentException if the variable is not present in the
+	 *                                  prepared query
+	 * @since 1.2
+	 */
+	public PrologPreparedQuery bind(String name, int value);
+
+	/**
+	 * Bind the variable with the given name to a long number.
+	 * 
+	 * @param name  variable name
+	 * @param value long value to be substituted
+	 * @return the current prepared query
+	 * @throws IllegalArgumentException if the variable is not present in the
+	 *                                  prepared query
+	 * @since 1.2
+	 */
+	public PrologPreparedQuery bind(String name, long value);
+
+	/**
+	 * Bind the variable with the given name to a double number.
+	 * 
+	 * @param name  variable name
+	 * @param value double value to be substituted
+	 * @return the current prepared query
+	 * @throws IllegalArgumentException if the variable is not present in the
+	 *                                  prepared query
+	 * @since 1.2
+	 */
+	public PrologPreparedQuery bind(String name, double value);
+
+	/**
+	 * Bind the variable with the given name to the prolog term equivalent to the
+	 * given Java object. The conversion is made by
+	 * {@link PrologJavaConverter#toTerm(Object)}.
+	 * 
+	 * @param name  variable name
+	 * @param value Java object to be converted and substituted
+	 * @return the current prepared query
+	 * @throws IllegalArgumentException if the variable is not present in the
+	 *                                  prepared query
+	 * @since 1.2
+	 */
+	public PrologPreparedQuery bind(String name, Object value);
+
+	/**
+	 * Remove all bound values. After clear, all variables are free variables.
+	 * 
+	 * @return the current prepared query
+	 * @since 1.2
+	 */
+	public PrologPreparedQuery clear();
+
+	/**
+	 * Goals of the prepared query after substitute the bound values.
+	 * 
+	 * @return goals of the prepared query after substitute the bound values.
+	 * @since 1.2
+	 */
+	public PrologTerm[] getGoals();
+
+	/**
+	 * Create a new prolog query for the goals of the prepared query after
+	 * substitute the bound values.
+	 * 
+	 * @return a new prolog query for the prepared query.
+	 * @since 1.2
+	 */
+	public PrologQuery query();
+
+}
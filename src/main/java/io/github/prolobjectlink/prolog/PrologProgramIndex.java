@@ -0,0 +1,447 @@
+/*-
+ * #%L
+ * prolobjectlink-jpi
+ * %%
+ * Copyright (C) 2020 - 2021 Prolobjectlink Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package io.github.prolobjectlink.prolog;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Predicate index over the clauses of a prolog program. The clauses are
+ * grouped by predicate indicator (functor/arity) keeping the program order and
+ * every predicate have argument sub-indexes that group the clauses by the head
+ * argument in the indexed positions. By default only the first argument is
+ * indexed. Atomic arguments are hashed by value and compound arguments by
+ * functor/arity. The program map and the program clause set are
+ * exposed like unmodifiable live views, so after the index construction the
+ * program map access is O(1) and the predicate clauses access is O(k) where k
+ * is the number of clauses in the predicate.
+ * <p>
+ * The index is maintained incrementally by {@link AbstractEngine} when the
+ * engine implementation notify the program changes. The index is not thread
+ * safe, like the engines instances.
+ * </p>
+ * 
+ * @author Jose Zalacain
+ * @since 1.2
+ */
+final class PrologProgramIndex {
+
+	static final int[] FIRST_ARGUMENT = new int[] { 0 };
+
+	// total of indexed clauses
+	private int size;
+
+	// indexed argument positions
+	private int[] positions;
+	private final Map<String, int[]> predicatePositions;
+
+	// predicates indexed by functor/arity
+	private final Map<String, Predicate> predicates;
+
+	// unmodifiable clause lists indexed by functor/arity
+	private final Map<String, List<PrologClause>> clauses;
+
+	// unmodifiable views
+	private final Map<String, List<PrologClause>> programMap;
+	private final Set<PrologClause> programClauses;
+
+	PrologProgramIndex() {
+		predicatePositions = new HashMap<String, int[]>();
+		predicates = new HashMap<String, Predicate>();
+		positions = FIRST_ARGUMENT;
+		clauses = new LinkedHashMap<String, List<PrologClause>>();
+		programMap = Collections.unmodifiableMap(clauses);
+		programClauses = new ClauseSet();
+	}
+
+	void addFirst(PrologClause clause) {
+		predicate(clause.getIndicator()).add(0, clause);
+		size++;
+	}
+
+	void addLast(PrologClause clause) {
+		Predicate predicate = predicate(clause.getIndicator());
+		predicate.add(predicate.list.size(), clause);
+		size++;
+	}
+
+	boolean remove(PrologClause clause) {
+		String key = clause.getIndicator();
+		Predicate predicate = predicates.get(key);
+		if (predicate != null && predicate.remove(clause)) {
+			if (predicate.list.isEmpty()) {
+				predicates.remove(key);
+				clauses.remove(key);
+			}
+			size--;
+			return true;
+		}
+		return false;
+	}
+
+	int removeAll(String functor, int arity) {
+		String key = functor + "/" + arity;
+		Predicate predicate = predicates.remove(key);
+		if (predicate != null) {
+			clauses.remove(key);
+			size -= predicate.list.size();
+			return predicate.list.size();
+		}
+		return 0;
+	}
+
+	void clear() {
+		predicates.clear();
+		clauses.clear();
+		size = 0;
+	}
+
+	int size() {
+		return size;
+	}
+
+	boolean isEmpty() {
+		return size == 0;
+	}
+
+	Map<String, List<PrologClause>> getProgramMap() {
+		return programMap;
+	}
+
+	Set<PrologClause> getProgramClauses() {
+		return programClauses;
+	}
+
+	/**
+	 * Clauses for the given predicate indicator in program order.
+	 * 
+	 * @param indicator functor/arity predicate indicator
+	 * @return unmodifiable clauses list, empty list if the predicate don't exist.
+	 */
+	List<PrologClause> getClauses(String indicator) {
+		List<PrologClause> list = clauses.get(indicator);
+		return list != null ? list : Collections.<PrologClause>emptyList();
+	}
+
+	/**
+	 * Set the argument positions indexed by default. The positions are zero based
+	 * like {@link PrologTerm#getArgument(int)}. The predicates with specific
+	 * argument positions are not affected.
+	 * 
+	 * @param positions default indexed argument positions
+	 */
+	void setPositions(int[] positions) {
+		this.positions = positions.clone();
+		for (Entry<String, Predicate> entry : predicates.entrySet()) {
+			if (!predicatePositions.containsKey(entry.getKey())) {
+				entry.getValue().reindex(this.positions);
+			}
+		}
+	}
+
+	/**
+	 * Set the argument positions indexed for the given predicate. The positions
+	 * are zero based like {@link PrologTerm#getArgument(int)}.
+	 * 
+	 * @param indicator functor/arity predicate indicator
+	 * @param positions indexed argument positions for the predicate
+	 */
+	void setPositions(String indicator, int[] positions) {
+		int[] copy = positions.clone();
+		predicatePositions.put(indicator, copy);
+		Predicate predicate = predicates.get(indicator);
+		if (predicate != null) {
+			predicate.reindex(copy);
+		}
+	}
+
+	/**
+	 * True if the given predicate is present in the index and all predicate
+	 * clauses are facts.
+	 * 
+	 * @param indicator functor/arity predicate indicator
+	 * @return true if the given predicate is present and have only facts.
+	 */
+	boolean isFactOnly(String indicator) {
+		Predicate predicate = predicates.get(indicator);
+		return predicate != null && predicate.rules == 0;
+	}
+
+	/**
+	 * Candidate clauses for the given head in program order. The candidates are
+	 * the predicate clauses that have in the indexed arguments a variable or a
+	 * term with the same index key that the given head argument. When many
+	 * arguments are indexed, the argument with less candidates is used. Only the
+	 * candidate clauses can unify with the given head.
+	 * 
+	 * @param head clause head to be looked up
+	 * @return unmodifiable candidates clauses list, null if the predicate is not
+	 *         present in the index.
+	 */
+	List<PrologClause> lookup(PrologTerm head) {
+		Predicate predicate = predicates.get(head.getIndicator());
+		if (predicate == null) {
+			return null;
+		}
+		return predicate.lookup(head);
+	}
+
+	/**
+	 * Index key for the head argument at the given position. Atoms are keyed by
+	 * your name, integers and floating numbers by your value, compounds by
+	 * functor/arity. Missing arguments, variables and unknown terms have a null
+	 * key that match with any other key.
+	 * 
+	 * @param head     clause head
+	 * @param position zero based argument position
+	 * @return argument index key, null if the argument can't be indexed.
+	 */
+	static Object key(PrologTerm head, int position) {
+		if (position >= head.getArity()) {
+			return null;
+		}
+		PrologTerm argument = head.getArgument(position);
+		if (argument.isVariable()) {
+			return null;
+		} else if (argument.isEmptyList()) {
+			return "[]";
+		} else if (argument.isAtom()) {
+			String functor = argument.getFunctor();
+			if (functor.length() > 1 && functor.startsWith("\'") && functor.endsWith("\'")) {
+				functor = functor.substring(1, functor.length() - 1);
+			}
+			return "a" + functor;
+		} else if (argument.isInteger() || argument.isLong()) {
+			return "i" + ((PrologNumber) argument).getLongValue();
+		} else if (argument.isFloat() || argument.isDouble()) {
+			return "f" + ((PrologNumber) argument).getDoubleValue();
+		} else if (argument.isList()) {
+			return "[|]";
+		} else if (argument.isStructure()) {
+			return "s" + argument.getFunctor() + "/" + argument.getArity();
+		}
+		return null;
+	}
+
+	private Predicate predicate(String indicator) {
+		Predicate predicate = predicates.get(indicator);
+		if (predicate == null) {
+			int[] p = predicatePositions.get(indicator);
+			predicate = new Predicate(p != null ? p : positions);
+			predicates.put(indicator, predicate);
+			clauses.put(indicator, predicate.view);
+		}
+		return predicate;
+	}
+
+	/**
+	 * Clauses of a predicate in program order with the argument sub-indexes.
+	 */
+	private static final class Predicate {
+
+		// number of rules
+		private int rules;
+		private ArgumentIndex[] indexes;
+		private final List<PrologClause> list;
+		private final List<PrologClause> view;
+
+		private Predicate(int[] positions) {
+			list = new ArrayList<PrologClause>();
+			view = Collections.unmodifiableList(list);
+			reindex(positions);
+		}
+
+		private void reindex(int[] positions) {
+			indexes = new ArgumentIndex[positions.length];
+			for (int i = 0; i < positions.length; i++) {
+				indexes[i] = new ArgumentIndex(positions[i]);
+				for (PrologClause clause : list) {
+					indexes[i].add(false, clause);
+				}
+			}
+		}
+
+		private void add(int index, PrologClause clause) {
+			list.add(index, clause);
+			if (!clause.isFact()) {
+				rules++;
+			}
+			for (ArgumentIndex argumentIndex : indexes) {
+				argumentIndex.add(index == 0, clause);
+			}
+		}
+
+		private boolean remove(PrologClause clause) {
+			if (list.remove(clause)) {
+				if (!clause.isFact()) {
+					rules--;
+				}
+				for (ArgumentIndex argumentIndex : indexes) {
+					argumentIndex.remove(clause);
+				}
+				return true;
+			}
+			return false;
+		}
+
+		private List<PrologClause> lookup(PrologTerm head) {
+			ArgumentIndex selected = null;
+			List<PrologClause> keyed = null;
+			Object selectedKey = null;
+			int candidates = list.size();
+			for (ArgumentIndex argumentIndex : indexes) {
+				Object key = key(head, argumentIndex.position);
+				if (key != null) {
+					List<PrologClause> l = argumentIndex.keyed.get(key);
+					int n = argumentIndex.unkeyed + (l != null ? l.size() : 0);
+					if (selected == null || n < candidates) {
+						selected = argumentIndex;
+						selectedKey = key;
+						candidates = n;
+						keyed = l;
+					}
+				}
+			}
+			if (selected == null || selected.unkeyed == list.size()) {
+				return view;
+			} else if (selected.unkeyed == 0) {
+				return keyed != null ? Collections.unmodifiableList(keyed) : Collections.<PrologClause>emptyList();
+			}
+			// merge keyed and unkeyed clauses in program order
+			List<PrologClause> merged = new ArrayList<PrologClause>(candidates);
+			for (PrologClause clause : list) {
+				Object k = key(clause.getHead(), selected.position);
+				if (k == null || k.equals(selectedKey)) {
+					merged.add(clause);
+				}
+			}
+			return merged;
+		}
+
+	}
+
+	/**
+	 * Clauses of a predicate grouped by the index key of the argument in a given
+	 * position. The clauses with null key are only counted.
+	 */
+	private static final class ArgumentIndex {
+
+		// number of clauses with null key
+		private int unkeyed;
+		private final int position;
+		private final Map<Object, List<PrologClause>> keyed;
+
+		private ArgumentIndex(int position) {
+			this.keyed = new HashMap<Object, List<PrologClause>>();
+			this.position = position;
+		}
+
+		private void add(boolean first, PrologClause clause) {
+			Object key = key(clause.getHead(), position);
+			if (key == null) {
+				unkeyed++;
+			} else {
+				List<PrologClause> l = keyed.get(key);
+				if (l == null) {
+					l = new ArrayList<PrologClause>();
+					keyed.put(key, l);
+				}
+				l.add(first ? 0 : l.size(), clause);
+			}
+		}
+
+		private void remove(PrologClause clause) {
+			Object key = key(clause.getHead(), position);
+			if (key == null) {
+				unkeyed--;
+			} else {
+				List<PrologClause> l = keyed.get(key);
+				l.remove(clause);
+				if (l.isEmpty()) {
+					keyed.remove(key);
+				}
+			}
+		}
+
+	}
+
+	/**
+	 * Unmodifiable set view over all indexed clauses.
+	 */
+	private final class ClauseSet extends AbstractSet<PrologClause> {
+
+		@Override
+		public Iterator<PrologClause> iterator() {
+			return new ClauseIterator();
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			if (o instanceof PrologClause) {
+				PrologClause clause = (PrologClause) o;
+				return getClauses(clause.getIndicator()).contains(clause);
+			}
+			return false;
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+	}
+
+	private final class ClauseIterator extends AbstractIterator<PrologClause> {
+
+		private final Iterator<List<PrologClause>> lists = clauses.values().iterator();
+		private Iterator<PrologClause> current = Collections.<PrologClause>emptyList().iterator();
+
+		public boolean hasNext() {
+			while (!current.hasNext() && lists.hasNext()) {
+				current = lists.next().iterator();
+			}
+			return current.hasNext();
+		}
+
+		public PrologClause next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			return current.next();
+		}
+
+	}
+
+}
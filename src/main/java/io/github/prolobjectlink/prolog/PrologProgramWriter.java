@@ -0,0 +1,248 @@
+/*-
+ * #%L
+ * prolobjectlink-jpi
+ * %%
+ * Copyright (C) 2020 - 2021 Prolobjectlink Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package io.github.prolobjectlink.prolog;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Write the program clauses to a character stream. The clauses are serialized
+ * in chunks into reusable buffers and the chunks are written in program order,
+ * every clause followed by a new line. The number of chunks in progress is
+ * bounded, so the memory used don't depend of the program size. By default the
+ * clauses are serialized in the caller thread while the previous chunk is
+ * written, with the writer compression if any, by a daemon thread pool shared
+ * by all the writers. If the provider terms are thread safe, the chunks of big
+ * programs are also serialized in parallel by the shared pool. Small programs
+ * that fit in one chunk are serialized and written in the caller thread. The
+ * write stop at the first I/O error.
+ * 
+ * @author Jose Zalacain
+ * @since 1.2
+ */
+final class PrologProgramWriter {
+
+	private static final int CHUNK_SIZE = 4096;
+	private static final int PARALLELISM = Runtime.getRuntime().availableProcessors();
+
+	// chunks serialized and waiting to be written
+	private final Deque<Future<StringBuilder>> pending;
+
+	// serialization buffers ready to be reused
+	private final Deque<StringBuilder> buffers;
+
+	// serialize the chunks in the shared pool
+	private final boolean parallel;
+
+	private char[] chars = new char[8192];
+	private long clauses;
+	private long bytes;
+
+	PrologProgramWriter(boolean parallel) {
+		pending = new ArrayDeque<Future<StringBuilder>>();
+		buffers = new ArrayDeque<StringBuilder>();
+		this.parallel = parallel;
+	}
+
+	/**
+	 * Write all program clauses using the given writer.
+	 * 
+	 * @param program  program clauses
+	 * @param writer   writer for write the program clauses
+	 * @param listener progress listener, null if the progress is not needed
+	 * @throws IOException if an I/O error occurs
+	 */
+	void write(Iterable<PrologClause> program, Writer writer, PrologProgressListener listener) throws IOException {
+		long start = System.nanoTime();
+		try {
+			List<PrologClause> chunk = new ArrayList<PrologClause>(CHUNK_SIZE);
+			for (PrologClause clause : program) {
+				chunk.add(clause);
+				if (chunk.size() == CHUNK_SIZE) {
+					if (parallel) {
+						pending.addLast(SharedExecutor.INSTANCE.submit(new Serializer(chunk, buffer())));
+						chunk = new ArrayList<PrologClause>(CHUNK_SIZE);
+						while (pending.size() >= 2 * PARALLELISM) {
+							flush(writer, pending.removeFirst(), listener, start);
+						}
+					} else {
+						StringBuilder buffer = new Serializer(chunk, buffer()).call();
+						chunk.clear();
+						// only one chunk is written at the same time
+						if (!pending.isEmpty()) {
+							complete(pending.removeFirst(), listener, start);
+						}
+						pending.addLast(SharedExecutor.INSTANCE.submit(new Flusher(writer, buffer)));
+					}
+				}
+			}
+			while (!pending.isEmpty()) {
+				if (parallel) {
+					flush(writer, pending.removeFirst(), listener, start);
+				} else {
+					complete(pending.removeFirst(), listener, start);
+				}
+			}
+			if (!chunk.isEmpty()) {
+				StringBuilder buffer = new Serializer(chunk, buffer()).call();
+				write(writer, buffer, chunk.size());
+				recycle(buffer);
+			}
+			writer.flush();
+			if (listener != null) {
+				listener.progress(clauses, bytes, System.nanoTime() - start);
+			}
+		} finally {
+			for (Future<StringBuilder> future : pending) {
+				future.cancel(true);
+			}
+		}
+	}
+
+	/**
+	 * Wait for a serialized chunk and write it in the caller thread.
+	 */
+	private void flush(Writer writer, Future<StringBuilder> future, PrologProgressListener listener, long start)
+			throws IOException {
+		StringBuilder chunk = get(future);
+		write(writer, chunk, CHUNK_SIZE);
+		recycle(chunk);
+		if (listener != null) {
+			listener.progress(clauses, bytes, System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Wait for a chunk written by the shared pool.
+	 */
+	private void complete(Future<StringBuilder> future, PrologProgressListener listener, long start)
+			throws IOException {
+		recycle(get(future));
+		if (listener != null) {
+			listener.progress(clauses, bytes, System.nanoTime() - start);
+		}
+	}
+
+	private StringBuilder get(Future<StringBuilder> future) throws IOException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new PersistenceError(e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			throw new PersistenceError(e.getCause());
+		}
+	}
+
+	private void write(Writer writer, StringBuilder chunk, int count) throws IOException {
+		int length = chunk.length();
+		if (chars.length < length) {
+			chars = new char[Math.max(length, chars.length * 2)];
+		}
+		chunk.getChars(0, length, chars, 0);
+		writer.write(chars, 0, length);
+		bytes += length;
+		clauses += count;
+	}
+
+	private void recycle(StringBuilder chunk) {
+		chunk.setLength(0);
+		buffers.addLast(chunk);
+	}
+
+	private StringBuilder buffer() {
+		StringBuilder buffer = buffers.pollFirst();
+		return buffer != null ? buffer : new StringBuilder(CHUNK_SIZE * 32);
+	}
+
+	/**
+	 * Lazy holder of the shared thread pool, created at the first program bigger
+	 * than one chunk.
+	 */
+	private static final class SharedExecutor {
+
+		private static final ExecutorService INSTANCE = Executors.newFixedThreadPool(PARALLELISM,
+				new DefaultPrologExecutor.WorkerFactory("prolog-writer"));
+
+	}
+
+	/**
+	 * Serialize a chunk of clauses into the given buffer.
+	 */
+	private static final class Serializer implements Callable<StringBuilder> {
+
+		private final List<PrologClause> chunk;
+		private final StringBuilder buffer;
+
+		private Serializer(List<PrologClause> chunk, StringBuilder buffer) {
+			this.buffer = buffer;
+			this.chunk = chunk;
+		}
+
+		public StringBuilder call() {
+			for (PrologClause clause : chunk) {
+				buffer.append(clause);
+				buffer.append('\n');
+			}
+			return buffer;
+		}
+
+	}
+
+	/**
+	 * Write a serialized chunk of clauses. The chunks are written one at a time,
+	 * so the writer state is only used by one thread at the same time.
+	 */
+	private final class Flusher implements Callable<StringBuilder> {
+
+		private final Writer writer;
+		private final StringBuilder chunk;
+
+		private Flusher(Writer writer, StringBuilder chunk) {
+			this.writer = writer;
+			this.chunk = chunk;
+		}
+
+		public StringBuilder call() throws IOException {
+			write(writer, chunk, CHUNK_SIZE);
+			return chunk;
+		}
+
+	}
+
+}
@@ -0,0 +1,63 @@
+/*-
+ * #%L
+ * prolobjectlink-jpi
+ * %%
+ * Copyright (C) 2020 - 2021 Prolobjectlink Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package io.github.prolobjectlink.prolog;
+
+/**
+ * Listener notified about the progress of long running program operations like
+ * streaming consult or program persistence. The listener is notified
+ * periodically during the operation and one last time when the operation is
+ * completed. The notified values are accumulated from the operation start, so
+ * the listener can compute the operation throughput dividing the processed
+ * clauses or bytes by the elapsed time.
+ * 
+ * <pre>
+ * engine.consult(reader, new PrologProgressListener() {
+ * 
+ * 	public void progress(long clauses, long bytes, long nanos) {
+ * 		System.out.println(clauses + " clauses loaded");
+ * 	}
+ * 
+ * });
+ * </pre>
+ * 
+ * @author Jose Zalacain
+ * @since 1.2
+ */
+public interface PrologProgressListener {
+
+	/**
+	 * Notify the operation progress.
+	 * 
+	 * @param clauses number of clauses processed from the operation start.
+	 * @param bytes   number of bytes processed from the operation start. When the
+	 *                operation work over a character stream the number of
+	 *                characters is notified.
+	 * @param nanos   elapsed time in nanoseconds from the operation start.
+	 * @since 1.2
+	 */
+	public void progress(long clauses, long bytes, long nanos);
+
+}
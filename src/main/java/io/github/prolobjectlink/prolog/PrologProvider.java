@@ -136,6 +136,105 @@ public interface PrologProvider extends PrologParser {
 	 */
 	public PrologEngine newEngine(String file);
 
+	/**
+	 * Create a new prolog engine pool that keep between the given minimum and
+	 * maximum number of engines. The created engines are clause empty and only
+	 * have the defaults supported built-ins. The minimum number of engines are
+	 * created at pool creation time.
+	 * 
+	 * @param minSize minimum number of engines keep alive by the pool
+	 * @param maxSize maximum number of engines created by the pool
+	 * @return new prolog engine pool instance
+	 * @throws IllegalArgumentException if minimum size is negative, maximum size
+	 *                                  is less than one or minimum size is
+	 *                                  greater than maximum size
+	 * @since 1.2
+	 */
+	public PrologEnginePool newEnginePool(int minSize, int maxSize);
+
+	/**
+	 * Create a new prolog engine pool that keep between the given minimum and
+	 * maximum number of engines. Every created engine consult the given file
+	 * loading the clauses present in this file and the defaults supported
+	 * built-ins. The minimum number of engines are created and warmed up at pool
+	 * creation time.
+	 * 
+	 * @param file    file path to be consulted by every pooled engine
+	 * @param minSize minimum number of engines keep alive by the pool
+	 * @param maxSize maximum number of engines created by the pool
+	 * @return new prolog engine pool instance
+	 * @throws IllegalArgumentException if minimum size is negative, maximum size
+	 *                                  is less than one or minimum size is
+	 *                                  greater than maximum size
+	 * @since 1.2
+	 */
+	public PrologEnginePool newEnginePool(String file, int minSize, int maxSize);
+
+	/**
+	 * Create a new object mapper that convert Java objects to Prolog structures
+	 * and vice versa using the terms created by this provider. The mapper cache
+	 * the resolved mapping of every class, so it should be reused.
+	 * 
+	 * @return new object mapper instance
+	 * @since 1.2
+	 */
+	public PrologObjectMapper newObjectMapper();
+
+	/**
+	 * Create a new prolog parser that parse terms and clauses without create any
+	 * engine. The programs are consulted by a new engine. The parser is thread
+	 * safe and should be reused.
+	 * 
+	 * @return new prolog parser instance
+	 * @since 1.2
+	 */
+	public PrologParser newParser();
+
+	/**
+	 * Create a new prolog parser that parse terms and clauses without create any
+	 * engine. The programs are consulted by a new engine. The parsed terms are keep in a least recently used cache
+	 * keyed by the source text with at most the given number of terms. The
+	 * ground terms are shared and the others are copied with fresh variables in
+	 * every cache hit when the provider terms are immutable, in other case every
+	 * hit return a new copy of the cached term. The parser is thread safe and should be reused.
+	 * 
+	 * @param cacheSize maximum number of cached terms, zero for no cache
+	 * @return new prolog parser instance
+	 * @throws IllegalArgumentException if the cache size is negative
+	 * @since 1.2
+	 */
+	public PrologParser newParser(int cacheSize);
+
+	/**
+	 * Create a new prolog executor that resolve the submitted goals concurrently
+	 * over an engine pool owned by the executor. The executor run at most the
+	 * given parallelism number of goals at the same time and accept at most the
+	 * given queue capacity of waiting goals. The engine pool is disposed when the
+	 * executor is shutdown.
+	 * 
+	 * @param parallelism   maximum number of goals resolved at the same time
+	 * @param queueCapacity maximum number of goals waiting for a free worker
+	 * @return new prolog executor instance
+	 * @throws IllegalArgumentException if parallelism is less than one or queue
+	 *                                  capacity is negative
+	 * @since 1.2
+	 */
+	public PrologExecutor newExecutor(int parallelism, int queueCapacity);
+
+	/**
+	 * Create a new prolog executor that resolve the submitted goals concurrently
+	 * over the engines leased from the given engine pool. The executor run at
+	 * most the maximum pool size number of goals at the same time and accept at
+	 * most the given queue capacity of waiting goals.
+	 * 
+	 * @param pool          engine pool used to resolve the submitted goals
+	 * @param queueCapacity maximum number of goals waiting for a free worker
+	 * @return new prolog executor instance
+	 * @throws IllegalArgumentException if queue capacity is negative
+	 * @since 1.2
+	 */
+	public PrologExecutor newExecutor(PrologEnginePool pool, int queueCapacity);
+
 	/**
 	 * Create a prolog atom term setting like atom value the given string.
 	 * 
@@ -157,7 +157,8 @@ public interface PrologQuery extends Iterator<Collection<PrologTerm>>, Iterable<
 	/**
 	 * Return a Prolog terms matrix of n x m order that conform the solution set for
 	 * the current query where n is the solution number and m is a free variable
-	 * number in the query.
+	 * number in the query. The query is not driven past the n-th solution, if the
+	 * query have less than n solutions the resulting matrix have less rows.
 	 * 
 	 * @param n array order or Prolog term rows number
 	 * @return a Prolog terms matrix of n x m order that conform the solution set
@@ -168,7 +169,8 @@ public interface PrologQuery extends Iterator<Collection<PrologTerm>>, Iterable<
 	/**
 	 * Return an array of n size with maps of variables name key and Prolog terms as
 	 * value that conform the solution set for the current query where n is the
-	 * solution number.
+	 * solution number. The query is not driven past the n-th solution, if the
+	 * query have less than n solutions the resulting array is shorter.
 	 * 
 	 * @param n array order or Prolog term items number
 	 * @return an array of n size with maps of variables name key and Prolog terms
@@ -255,7 +257,8 @@ public interface PrologQuery extends Iterator<Collection<PrologTerm>>, Iterable<
 	/**
 	 * Return a list of list of Java Objects that conform the solution set for the
 	 * current query where n is the solution number and m is a free variable number
-	 * in the query.
+	 * in the query. The query is not driven past the n-th solution, if the query
+	 * have less than n solutions the resulting list is shorter.
 	 * 
 	 * @param n list order or Java objects rows number
 	 * @return a list of list of Java Objects that conform the solution set
@@ -266,7 +269,8 @@ public interface PrologQuery extends Iterator<Collection<PrologTerm>>, Iterable<
 	/**
 	 * Return a list of n size with maps of variables name key and Java objects as
 	 * value that conform the solution set for the current query where n is the
-	 * solution number.
+	 * solution number. The query is not driven past the n-th solution, if the
+	 * query have less than n solutions the resulting list is shorter.
 	 * 
 	 * @param n list order or Java objects items number
 	 * @return a list of n size with maps of variables name key and Java objects as
@@ -295,6 +299,80 @@ public interface PrologQuery extends Iterator<Collection<PrologTerm>>, Iterable<
 	 */
 	public List<Map<String, Object>> allVariablesResults();
 
+	/**
+	 * Return the remaining distinct solutions of the current query. The repeated
+	 * solutions are detected using a structural hash of the solution terms and
+	 * compared with equals only when the hashes are the same, so the cost is
+	 * linear in the solutions number. The solutions are returned in the order of
+	 * the first occurrence.
+	 * 
+	 * @return a Prolog terms matrix with the remaining distinct solutions
+	 * @since 1.2
+	 */
+	public PrologTerm[][] distinct();
+
+	/**
+	 * Return the remaining distinct variables solutions of the current query. The
+	 * repeated solutions are detected using a structural hash of the solution
+	 * maps and compared with equals only when the hashes are the same, so the
+	 * cost is linear in the solutions number. The solutions are returned in the
+	 * order of the first occurrence.
+	 * 
+	 * @return a list with the remaining distinct variables solutions maps
+	 * @since 1.2
+	 */
+	public List<Map<String, PrologTerm>> distinctVariables();
+
+	/**
+	 * Create a pull based cursor over the distinct solutions of the current
+	 * query. The cursor keep the hashes of the returned solutions, so the memory
+	 * grow with the number of distinct solutions.
+	 * 
+	 * @return a cursor over the distinct solutions of the current query.
+	 * @since 1.2
+	 */
+	public PrologCursor distinctCursor();
+
+	/**
+	 * Create a pull based cursor over the distinct solutions of the current query
+	 * with bounded memory. The returned solutions are deduplicated with a Bloom
+	 * filter sized for the given expected number of distinct solutions and false
+	 * positive rate. The cursor never return a repeated solution, but a distinct
+	 * solution can be skipped with a probability near to the false positive rate
+	 * while the distinct solutions number is not greater than the expected.
+	 * 
+	 * @param expected          expected number of distinct solutions
+	 * @param falsePositiveRate probability to skip a distinct solution
+	 * @return a cursor over the distinct solutions of the current query.
+	 * @throws IllegalArgumentException if the expected solutions number is less
+	 *                                  than one or the false positive rate is not
+	 *                                  between zero and one
+	 * @since 1.2
+	 */
+	public PrologCursor distinctCursor(int expected, double falsePositiveRate);
+
+	/**
+	 * Return the remaining solutions of the current query in columnar form. The
+	 * variables names are hold once and the values of every variable are stored
+	 * in a column array specialized by the values type, so the numeric values
+	 * are not boxed and no map is created per solution.
+	 * 
+	 * @return the remaining solutions of the current query in columnar form
+	 * @since 1.2
+	 */
+	public PrologColumns allColumns();
+
+	/**
+	 * Return at most n solutions of the current query in columnar form. The query
+	 * is not driven past the n-th solution, if the query have less than n
+	 * solutions the resulting columns are shorter.
+	 * 
+	 * @param n maximum number of solutions rows
+	 * @return at most n solutions of the current query in columnar form
+	 * @since 1.2
+	 */
+	public PrologColumns nColumns(int n);
+
 	/**
 	 * Return a map of variables name key and Prolog terms as value that conform the
 	 * solution set for the current query.
@@ -320,7 +398,8 @@ public interface PrologQuery extends Iterator<Collection<PrologTerm>>, Iterable<
 	/**
 	 * Return a list of n size with maps of variables name key and Prolog terms as
 	 * value that conform the solution set for the current query where n is the
-	 * solution number.
+	 * solution number. The query is not driven past the n-th solution, if the
+	 * query have less than n solutions the resulting list is shorter.
 	 * 
 	 * @return an list of n size with maps of variables name key and Prolog terms as
 	 *         value that conform the solution set
@@ -339,6 +418,29 @@ public interface PrologQuery extends Iterator<Collection<PrologTerm>>, Iterable<
 	 */
 	public List<Map<String, PrologTerm>> all();
 
+	/**
+	 * Create a pull based cursor over the solutions of the current query. The
+	 * solutions are fetched on demand from the under-laying engine using a default
+	 * window size. Equivalent to {@code cursor(128)}.
+	 * 
+	 * @return a cursor over the solutions of the current query.
+	 * @since 1.2
+	 */
+	public PrologCursor cursor();
+
+	/**
+	 * Create a pull based cursor over the solutions of the current query. The
+	 * solutions are fetched on demand from the under-laying engine and the cursor
+	 * never hold more than the given window of solutions. Close the cursor
+	 * dispose the current query.
+	 * 
+	 * @param window maximum number of solutions hold by the cursor
+	 * @return a cursor over the solutions of the current query.
+	 * @throws IllegalArgumentException if the window size is less than one
+	 * @since 1.2
+	 */
+	public PrologCursor cursor(int window);
+
 	/**
 	 * Release all allocations for the query
 	 * 
@@ -0,0 +1,137 @@
+/*-
+ * #%L
+ * prolobjectlink-jpi
+ * %%
+ * Copyright (C) 2020 - 2021 Prolobjectlink Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package io.github.prolobjectlink.prolog;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Cursor class implementation for Prolog Query. Fetch the query solutions in
+ * windows of bounded size using {@link PrologQuery#hasMoreSolutions()} and
+ * {@link PrologQuery#nextVariablesSolution()}. A distinct cursor skip the
+ * solutions rejected by the deduplication filter.
+ * 
+ * @author Jose Zalacain
+ * @since 1.2
+ */
+final class PrologQueryCursor extends AbstractIterator<Map<String, PrologTerm>> implements PrologCursor {
+
+	private long fetched;
+	private boolean closed;
+	private final int window;
+	private final PrologQuery query;
+	private final Deque<Map<String, PrologTerm>> buffer;
+	private final PrologDistinct distinct;
+
+	/**
+	 * Create a new query cursor over given PrologQuery.
+	 * 
+	 * @param query  PrologQuery to fetch the solutions
+	 * @param window maximum number of solutions hold by the cursor
+	 */
+	PrologQueryCursor(PrologQuery query, int window) {
+		this(query, window, null);
+	}
+
+	/**
+	 * Create a new distinct query cursor over given PrologQuery.
+	 * 
+	 * @param query    PrologQuery to fetch the solutions
+	 * @param window   maximum number of solutions hold by the cursor
+	 * @param distinct deduplication filter, null to return all solutions
+	 */
+	PrologQueryCursor(PrologQuery query, int window, PrologDistinct distinct) {
+		if (window < 1) {
+			throw new IllegalArgumentException("Illegal cursor window size " + window);
+		}
+		this.query = query;
+		this.window = window;
+		this.buffer = new ArrayDeque<Map<String, PrologTerm>>(window);
+		this.distinct = distinct;
+	}
+
+	/**
+	 * Fetch the next solutions window if the buffer is empty
+	 */
+	private void fetch() {
+		while (buffer.size() < window && query.hasMoreSolutions()) {
+			Map<String, PrologTerm> solution = query.nextVariablesSolution();
+			if (distinct == null || distinct.add(solution)) {
+				buffer.addLast(solution);
+			}
+			fetched++;
+		}
+	}
+
+	public PrologQuery getQuery() {
+		return query;
+	}
+
+	public int getWindowSize() {
+		return window;
+	}
+
+	public long getFetchCount() {
+		return fetched;
+	}
+
+	public boolean isClosed() {
+		return closed;
+	}
+
+	public Iterator<Map<String, PrologTerm>> iterator() {
+		return this;
+	}
+
+	public boolean hasNext() {
+		if (closed) {
+			return false;
+		}
+		if (buffer.isEmpty()) {
+			fetch();
+		}
+		return !buffer.isEmpty();
+	}
+
+	public Map<String, PrologTerm> next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		return buffer.removeFirst();
+	}
+
+	public void close() {
+		if (!closed) {
+			closed = true;
+			buffer.clear();
+			query.dispose();
+		}
+	}
+
+}
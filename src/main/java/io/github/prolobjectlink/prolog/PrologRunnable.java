@@ -46,15 +46,23 @@ class PrologRunnable extends FutureTask<List<List<Object>>> implements RunnableF
 		this(new PrologCallable(provider, goals));
 	}
 
+	PrologRunnable(PrologEnginePool pool, PrologTerm... goals) {
+		this(new PrologCallable(pool, goals));
+	}
+
 	public PrologProvider getProvider() {
 		return callable.getProvider();
 	}
 
+	@Override
 	public List<List<Object>> get() throws InterruptedException, ExecutionException {
+		// run on the caller thread if no executor has started this task,
+		// otherwise wait for the running execution to complete
+		run();
 		List<List<Object>> list = new ArrayList<List<Object>>();
 		try {
-			list = callable.call();
-		} catch (Exception e) {
+			list = super.get();
+		} catch (ExecutionException e) {
 			Logger.getLogger(Prolog.class.getName()).log(Level.FINEST, null, e);
 		}
 		return list;
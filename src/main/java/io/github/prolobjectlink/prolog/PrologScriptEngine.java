@@ -97,19 +97,15 @@ public final class PrologScriptEngine extends AbstractScriptEngine implements Sc
 		// check code goal to query
 		if (code.startsWith("?-")) {
 
-			// replace all bindings
-			for (Entry<String, Object> entry : bindings.entrySet()) {
-				code = code.replace(entry.getKey(), "" + entry.getValue() + "");
+			// bind the goal variables present in bindings
+			PrologPreparedQuery prepared = prolog.prepare(code);
+			for (String name : prepared.getVariableNames()) {
+				if (bindings.containsKey(name)) {
+					prepared.bind(name, toTerm(bindings.get(name)));
+				}
 			}
 
-			code = code.substring(2).trim();
-
-			// remove dot at the end if needed
-			if (code.endsWith(".")) {
-				code = code.substring(0, code.length() - 1);
-			}
-
-			PrologQuery query = prolog.query(code);
+			PrologQuery query = prepared.query();
 			if (!query.hasSolution()) {
 				return false;
 			}
@@ -146,4 +142,16 @@ public final class PrologScriptEngine extends AbstractScriptEngine implements Sc
 		return prolog.getProvider();
 	}
 
+	private PrologTerm toTerm(Object value) {
+		if (value instanceof PrologTerm) {
+			return (PrologTerm) value;
+		}
+		try {
+			return getProvider().getJavaConverter().toTerm(value);
+		} catch (UnknownTermError e) {
+			// keep the textual form for values without prolog equivalent
+			return getProvider().parseTerm("" + value + "");
+		}
+	}
+
 }
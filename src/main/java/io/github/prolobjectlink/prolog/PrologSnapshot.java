@@ -0,0 +1,455 @@
+/*-
+ * #%L
+ * prolobjectlink-jpi
+ * %%
+ * Copyright (C) 2020 - 2021 Prolobjectlink Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package io.github.prolobjectlink.prolog;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Binary snapshot of a prolog program. The snapshot file have a fixed size
+ * header, the clauses section and the atoms table section. The atoms table is
+ * written at the end because the atoms are collected while the clauses are
+ * encoded.
+ * 
+ * <pre>
+ * header  : magic(int) version(int) atoms-offset(long) clauses(long) crc32(long)
+ * clauses : { length(int) term }*
+ * atoms   : count(int) { length(int) utf-8-bytes }*
+ * </pre>
+ * 
+ * Every term is a tag byte followed by the tag specific data. Atoms, functors,
+ * variables names and unknown terms text are references to the atoms table.
+ * The checksum is the CRC-32 of the clauses section. The snapshot is validated
+ * in one sequential pass and then loaded through memory mapped windows of the
+ * file, so the load don't parse text and don't copy the file into the heap.
+ * 
+ * @author Jose Zalacain
+ * @since 1.2
+ */
+final class PrologSnapshot {
+
+	private static final int MAGIC = 0x504C4253;
+	private static final int VERSION = 2;
+	private static final int HEADER_SIZE = 32;
+	private static final int WINDOW_SIZE = 64 * 1024 * 1024;
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	private static final byte VARIABLE = 0;
+	private static final byte ATOM = 1;
+	private static final byte INTEGER = 2;
+	private static final byte LONG = 3;
+	private static final byte FLOAT = 4;
+	private static final byte DOUBLE = 5;
+	private static final byte STRUCTURE = 6;
+	private static final byte LIST = 7;
+	private static final byte EMPTY_LIST = 8;
+	private static final byte TEXT = 9;
+
+	private PrologSnapshot() {
+	}
+
+	/**
+	 * Write the program of the given engine to the given file path.
+	 * 
+	 * @param engine engine with the program to be written
+	 * @param path   snapshot file path
+	 * @throws IOException if an I/O error occurs
+	 */
+	static void write(PrologEngine engine, String path) throws IOException {
+		PrologProvider provider = engine.getProvider();
+		FileOutputStream file = new FileOutputStream(path);
+		try {
+			// the header is completed at the end
+			file.write(new byte[HEADER_SIZE]);
+			CRC32 checksum = new CRC32();
+			BufferedOutputStream buffered = new BufferedOutputStream(file, 64 * 1024);
+			DataOutputStream out = new DataOutputStream(new CheckedOutputStream(buffered, checksum));
+
+			// clauses section
+			Encoder encoder = new Encoder();
+			long clauses = 0;
+			for (PrologClause clause : engine) {
+				PrologTerm term = clause.getHead();
+				if (!clause.isFact()) {
+					term = provider.newStructure(":-", clause.getHead(), clause.getBody());
+				}
+				encoder.reset();
+				encoder.encode(term);
+				out.writeInt(encoder.size());
+				encoder.writeTo(out);
+				clauses++;
+			}
+
+			// atoms section
+			out.flush();
+			long crc = checksum.getValue();
+			long offset = file.getChannel().position();
+			List<String> atoms = encoder.atoms;
+			out.writeInt(atoms.size());
+			for (String atom : atoms) {
+				byte[] bytes = atom.getBytes(UTF8);
+				out.writeInt(bytes.length);
+				out.write(bytes);
+			}
+			out.flush();
+
+			// complete the header
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+			header.putInt(MAGIC);
+			header.putInt(VERSION);
+			header.putLong(offset);
+			header.putLong(clauses);
+			header.putLong(crc);
+			header.flip();
+			file.getChannel().write(header, 0);
+		} finally {
+			file.close();
+		}
+	}
+
+	/**
+	 * Open the snapshot file in the given path for load. The header, the clauses
+	 * count and the clauses section checksum are validated in one pass before
+	 * return, so a bad snapshot is detected before decode any clause. The
+	 * clauses are decoded one by one by the returned loader.
+	 * 
+	 * @param provider provider used to create the read terms
+	 * @param path     snapshot file path
+	 * @return the snapshot loader positioned at the first clause
+	 * @throws IOException if an I/O error occurs or the file is not a valid
+	 *                     snapshot
+	 */
+	static Loader open(PrologProvider provider, String path) throws IOException {
+		RandomAccessFile file = new RandomAccessFile(path, "r");
+		boolean valid = false;
+		try {
+			FileChannel channel = file.getChannel();
+			long size = channel.size();
+			if (size < HEADER_SIZE) {
+				throw new IOException(path + " is not a prolog snapshot");
+			}
+			ByteBuffer header = channel.map(MapMode.READ_ONLY, 0, HEADER_SIZE);
+			if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+				throw new IOException(path + " is not a prolog snapshot");
+			}
+			long offset = header.getLong();
+			long clauses = header.getLong();
+			long checksum = header.getLong();
+			if (offset < HEADER_SIZE || offset > size - 4 || clauses < 0) {
+				throw new IOException("Corrupted prolog snapshot " + path);
+			}
+			verify(channel, offset, clauses, checksum, path);
+			Decoder decoder = new Decoder(provider, channel, readAtoms(channel, offset, size), offset);
+			Loader loader = new Loader(file, decoder, clauses);
+			valid = true;
+			return loader;
+		} finally {
+			if (!valid) {
+				file.close();
+			}
+		}
+	}
+
+	/**
+	 * Check that the clauses section have the given number of clauses and the
+	 * given checksum. The section is read sequentially without keep any clause.
+	 */
+	private static void verify(FileChannel channel, long end, long clauses, long checksum, String path)
+			throws IOException {
+		CRC32 crc = new CRC32();
+		// the stream is not closed, closing it close the channel
+		InputStream in = new BufferedInputStream(Channels.newInputStream(channel.position(HEADER_SIZE)), 64 * 1024);
+		DataInputStream data = new DataInputStream(new CheckedInputStream(in, crc));
+		long position = HEADER_SIZE;
+		for (long i = 0; i < clauses; i++) {
+			if (end - position < 4) {
+				throw new IOException("Truncated prolog snapshot " + path);
+			}
+			int length = data.readInt();
+			position += 4;
+			if (length < 0 || end - position < length) {
+				throw new IOException("Truncated prolog snapshot " + path);
+			}
+			for (int skipped = 0; skipped < length;) {
+				int n = data.skipBytes(length - skipped);
+				if (n <= 0) {
+					throw new IOException("Truncated prolog snapshot " + path);
+				}
+				skipped += n;
+			}
+			position += length;
+		}
+		if (position != end || crc.getValue() != checksum) {
+			throw new IOException("Corrupted prolog snapshot " + path);
+		}
+	}
+
+	private static String[] readAtoms(FileChannel channel, long offset, long size) throws IOException {
+		ByteBuffer buffer = channel.map(MapMode.READ_ONLY, offset, size - offset);
+		String[] atoms = new String[buffer.getInt()];
+		byte[] bytes = new byte[64];
+		for (int i = 0; i < atoms.length; i++) {
+			int length = buffer.getInt();
+			if (length > bytes.length) {
+				bytes = new byte[Math.max(length, bytes.length * 2)];
+			}
+			buffer.get(bytes, 0, length);
+			atoms[i] = new String(bytes, 0, length, UTF8);
+		}
+		return atoms;
+	}
+
+	/**
+	 * Loader of a validated snapshot that decode the clauses one by one, so
+	 * only the current clause is keep in the heap.
+	 */
+	static final class Loader implements Closeable {
+
+		private final long clauses;
+		private final Decoder decoder;
+		private final RandomAccessFile file;
+		private long read;
+
+		private Loader(RandomAccessFile file, Decoder decoder, long clauses) {
+			this.clauses = clauses;
+			this.decoder = decoder;
+			this.file = file;
+		}
+
+		boolean hasNext() {
+			return read < clauses;
+		}
+
+		PrologTerm next() throws IOException {
+			read++;
+			return decoder.next();
+		}
+
+		public void close() throws IOException {
+			file.close();
+		}
+
+	}
+
+	/**
+	 * Term encoder over a reusable byte buffer that collect the atoms table.
+	 */
+	private static final class Encoder extends ByteArrayOutputStream {
+
+		private final DataOutputStream data = new DataOutputStream(this);
+		private final Map<String, Integer> indexes = new HashMap<String, Integer>();
+		private final List<String> atoms = new ArrayList<String>();
+
+		private Encoder() {
+			super(256);
+		}
+
+		private void encode(PrologTerm term) throws IOException {
+			if (term.isVariable()) {
+				data.writeByte(VARIABLE);
+				data.writeInt(atom(((PrologVariable) term).getName()));
+			} else if (term.isEmptyList()) {
+				data.writeByte(EMPTY_LIST);
+			} else if (term.isAtom()) {
+				data.writeByte(ATOM);
+				data.writeInt(atom(term.getFunctor()));
+			} else if (term.isInteger()) {
+				data.writeByte(INTEGER);
+				data.writeInt(((PrologNumber) term).getIntegerValue());
+			} else if (term.isLong()) {
+				data.writeByte(LONG);
+				data.writeLong(((PrologNumber) term).getLongValue());
+			} else if (term.isFloat()) {
+				data.writeByte(FLOAT);
+				data.writeFloat(((PrologNumber) term).getFloatValue());
+			} else if (term.isDouble()) {
+				data.writeByte(DOUBLE);
+				data.writeDouble(((PrologNumber) term).getDoubleValue());
+			} else if (term.isList()) {
+				encodeList((PrologList) term);
+			} else if (term.isStructure()) {
+				data.writeByte(STRUCTURE);
+				data.writeInt(atom(term.getFunctor()));
+				data.writeInt(term.getArity());
+				for (PrologTerm argument : term.getArguments()) {
+					encode(argument);
+				}
+			} else {
+				data.writeByte(TEXT);
+				data.writeInt(atom("" + term + ""));
+			}
+		}
+
+		private void encodeList(PrologList list) throws IOException {
+			List<PrologTerm> elements = new ArrayList<PrologTerm>();
+			PrologTerm current = list;
+			while (current.isList() && !current.isEmptyList()) {
+				PrologList cell = (PrologList) current;
+				elements.add(cell.getHead());
+				current = cell.getTail();
+			}
+			data.writeByte(LIST);
+			data.writeInt(elements.size());
+			for (PrologTerm element : elements) {
+				encode(element);
+			}
+			encode(current);
+		}
+
+		private int atom(String atom) {
+			Integer index = indexes.get(atom);
+			if (index == null) {
+				index = atoms.size();
+				indexes.put(atom, index);
+				atoms.add(atom);
+			}
+			return index;
+		}
+
+	}
+
+	/**
+	 * Term decoder over memory mapped windows of the clauses section.
+	 */
+	private static final class Decoder {
+
+		private final long end;
+		private final String[] atoms;
+		private final FileChannel channel;
+		private final PrologProvider provider;
+		private final PrologAtom[] atomTerms;
+		private final Map<String, PrologVariable> variables;
+
+		// absolute position of the current window
+		private long window;
+		private ByteBuffer buffer;
+
+		private Decoder(PrologProvider provider, FileChannel channel, String[] atoms, long end) {
+			this.variables = new HashMap<String, PrologVariable>();
+			this.atomTerms = new PrologAtom[atoms.length];
+			this.buffer = ByteBuffer.allocate(0);
+			this.window = HEADER_SIZE;
+			this.provider = provider;
+			this.channel = channel;
+			this.atoms = atoms;
+			this.end = end;
+		}
+
+		private PrologTerm next() throws IOException {
+			ensure(4);
+			int length = buffer.getInt();
+			ensure(length);
+			variables.clear();
+			return decode();
+		}
+
+		private void ensure(int length) throws IOException {
+			if (buffer.remaining() < length) {
+				window += buffer.position();
+				long size = Math.min(Math.max(WINDOW_SIZE, length), end - window);
+				if (size < length) {
+					throw new IOException("Truncated prolog snapshot");
+				}
+				buffer = channel.map(MapMode.READ_ONLY, window, size);
+			}
+		}
+
+		private PrologTerm decode() throws IOException {
+			byte tag = buffer.get();
+			switch (tag) {
+			case VARIABLE:
+				String name = atoms[buffer.getInt()];
+				if ("_".equals(name)) {
+					return provider.newVariable(name, variables.size());
+				}
+				PrologVariable variable = variables.get(name);
+				if (variable == null) {
+					variable = provider.newVariable(name, variables.size());
+					variables.put(name, variable);
+				}
+				return variable;
+			case ATOM:
+				int index = buffer.getInt();
+				PrologAtom atom = atomTerms[index];
+				if (atom == null) {
+					atom = provider.newAtom(atoms[index]);
+					atomTerms[index] = atom;
+				}
+				return atom;
+			case INTEGER:
+				return provider.newInteger(buffer.getInt());
+			case LONG:
+				return provider.newLong(buffer.getLong());
+			case FLOAT:
+				return provider.newFloat(buffer.getFloat());
+			case DOUBLE:
+				return provider.newDouble(buffer.getDouble());
+			case STRUCTURE:
+				String functor = atoms[buffer.getInt()];
+				PrologTerm[] arguments = new PrologTerm[buffer.getInt()];
+				for (int i = 0; i < arguments.length; i++) {
+					arguments[i] = decode();
+				}
+				return provider.newStructure(functor, arguments);
+			case LIST:
+				PrologTerm[] elements = new PrologTerm[buffer.getInt()];
+				for (int i = 0; i < elements.length; i++) {
+					elements[i] = decode();
+				}
+				PrologTerm tail = decode();
+				return tail.isEmptyList() ? provider.newList(elements) : provider.newList(elements, tail);
+			case EMPTY_LIST:
+				return provider.newList();
+			case TEXT:
+				return provider.parseTerm(atoms[buffer.getInt()]);
+			default:
+				throw new IOException("Unknown prolog snapshot tag " + tag);
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,211 @@
+/*-
+ * #%L
+ * prolobjectlink-jpi
+ * %%
+ * Copyright (C) 2020 - 2021 Prolobjectlink Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package io.github.prolobjectlink.prolog;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * <p>
+ * Compact query solution row. The variables names array is shared by all the
+ * solutions of a query and every solution only hold the array of variables
+ * values in the same order, so create a solution allocate one small array
+ * instead of a hash table. The solution implements {@link Map} with the
+ * variables names as keys and the variables values as values, so it can be
+ * returned from {@link PrologQuery#nextVariablesSolution()} and the others
+ * variables solution methods.
+ * </p>
+ * 
+ * <pre>
+ * String[] names = { "X", "Y" }; // once per query
+ * return new PrologSolution(names, new PrologTerm[] { x, y });
+ * </pre>
+ * 
+ * <p>
+ * The keys are iterated in the names order. The value of an existing variable
+ * can be replaced with {@link #put(String, PrologTerm)} but the variables can't
+ * be added or removed. The equality and hash code are the {@link Map}
+ * equality and hash code, so a solution is equals to a hash map with the same
+ * entries.
+ * </p>
+ * 
+ * @author Jose Zalacain
+ * @since 1.2
+ */
+public final class PrologSolution extends AbstractMap<String, PrologTerm> implements Map<String, PrologTerm> {
+
+	private final String[] names;
+	private final PrologTerm[] values;
+
+	/**
+	 * Create a solution row with the given variables names and values. The
+	 * arrays are not copied, the names array is intended to be shared by all the
+	 * solutions of a query and must not be modified.
+	 * 
+	 * @param names  variables names
+	 * @param values variables values in the same order than the names
+	 * @throws IllegalArgumentException if the arrays lengths are different
+	 * @since 1.2
+	 */
+	public PrologSolution(String[] names, PrologTerm[] values) {
+		if (names.length != values.length) {
+			throw new IllegalArgumentException("The names and values have different lengths");
+		}
+		this.names = names;
+		this.values = values;
+	}
+
+	private int indexOf(Object name) {
+		// names are usually the same instances used as keys
+		for (int i = 0; i < names.length; i++) {
+			if (names[i] == name) {
+				return i;
+			}
+		}
+		if (name != null) {
+			for (int i = 0; i < names.length; i++) {
+				if (names[i].equals(name)) {
+					return i;
+				}
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Variable name at the given position.
+	 * 
+	 * @param index variable position
+	 * @return the variable name at the given position
+	 * @since 1.2
+	 */
+	public String getName(int index) {
+		return names[index];
+	}
+
+	/**
+	 * Variable value at the given position.
+	 * 
+	 * @param index variable position
+	 * @return the variable value at the given position
+	 * @since 1.2
+	 */
+	public PrologTerm getValue(int index) {
+		return values[index];
+	}
+
+	/**
+	 * Copy of the variables values in the names order.
+	 * 
+	 * @return the variables values array
+	 * @since 1.2
+	 */
+	public PrologTerm[] toArray() {
+		return values.clone();
+	}
+
+	@Override
+	public int size() {
+		return names.length;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return names.length == 0;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return indexOf(key) >= 0;
+	}
+
+	@Override
+	public PrologTerm get(Object key) {
+		int i = indexOf(key);
+		return i >= 0 ? values[i] : null;
+	}
+
+	@Override
+	public PrologTerm put(String key, PrologTerm value) {
+		int i = indexOf(key);
+		if (i < 0) {
+			throw new UnsupportedOperationException("The solution don't have the variable " + key);
+		}
+		PrologTerm old = values[i];
+		values[i] = value;
+		return old;
+	}
+
+	@Override
+	public Collection<PrologTerm> values() {
+		return Collections.unmodifiableList(Arrays.asList(values));
+	}
+
+	@Override
+	public Set<Entry<String, PrologTerm>> entrySet() {
+		return new AbstractSet<Entry<String, PrologTerm>>() {
+
+			@Override
+			public Iterator<Entry<String, PrologTerm>> iterator() {
+				return new Iterator<Entry<String, PrologTerm>>() {
+
+					private int next;
+
+					public boolean hasNext() {
+						return next < names.length;
+					}
+
+					public Entry<String, PrologTerm> next() {
+						if (next >= names.length) {
+							throw new NoSuchElementException();
+						}
+						int i = next++;
+						return new SimpleImmutableEntry<String, PrologTerm>(names[i], values[i]);
+					}
+
+					public void remove() {
+						throw new UnsupportedOperationException("remove");
+					}
+
+				};
+			}
+
+			@Override
+			public int size() {
+				return names.length;
+			}
+
+		};
+	}
+
+}
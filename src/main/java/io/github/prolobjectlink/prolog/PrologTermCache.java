@@ -0,0 +1,141 @@
+/*-
+ * #%L
+ * prolobjectlink-jpi
+ * %%
+ * Copyright (C) 2020 - 2021 Prolobjectlink Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package io.github.prolobjectlink.prolog;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Provider terms cache. Keep a bounded concurrent intern table for atoms and
+ * preallocated integer and long terms for a small numbers range. When the
+ * intern table is full the new atoms are not interned and the table keep the
+ * atoms interned before. The cached terms are shared by all users of the
+ * provider and must not be modified.
+ * 
+ * @author Jose Zalacain
+ * @since 1.2
+ */
+final class PrologTermCache {
+
+	private final int maxAtoms;
+	private final ConcurrentMap<String, PrologAtom> atoms;
+
+	private final int minNumber;
+	private final int maxNumber;
+	private final PrologInteger[] integers;
+	private final PrologLong[] longs;
+
+	/**
+	 * Create a terms cache preallocating the integer and long terms for the
+	 * numbers in the given range using the given provider.
+	 * 
+	 * @param provider  provider used to create the numbers
+	 * @param maxAtoms  maximum number of interned atoms, zero to don't intern
+	 *                  atoms
+	 * @param minNumber lower bound of the cached numbers range
+	 * @param maxNumber upper bound of the cached numbers range, lower than
+	 *                  minNumber to don't cache numbers
+	 */
+	PrologTermCache(PrologProvider provider, int maxAtoms, int minNumber, int maxNumber) {
+		this.maxAtoms = maxAtoms;
+		this.atoms = new ConcurrentHashMap<String, PrologAtom>(Math.min(maxAtoms, 1024));
+		this.minNumber = minNumber;
+		this.maxNumber = maxNumber;
+		int size = Math.max(maxNumber - minNumber + 1, 0);
+		this.integers = new PrologInteger[size];
+		this.longs = new PrologLong[size];
+		for (int i = 0; i < size; i++) {
+			integers[i] = provider.newInteger(minNumber + i);
+			longs[i] = provider.newLong((long) minNumber + i);
+		}
+	}
+
+	/**
+	 * Interned atom for the given functor.
+	 * 
+	 * @param functor atom functor
+	 * @return the interned atom or null if the functor is not interned
+	 */
+	PrologAtom getAtom(String functor) {
+		return atoms.get(functor);
+	}
+
+	/**
+	 * Intern the given atom. If an atom with the same functor was interned
+	 * before the interned atom is returned. If the intern table is full the
+	 * given atom is returned without be interned.
+	 * 
+	 * @param atom atom to be interned
+	 * @return the interned atom for the given atom functor
+	 */
+	PrologAtom intern(PrologAtom atom) {
+		String functor = atom.getStringValue();
+		PrologAtom interned = atoms.get(functor);
+		if (interned != null) {
+			return interned;
+		} else if (atoms.size() >= maxAtoms) {
+			return atom;
+		}
+		interned = atoms.putIfAbsent(functor, atom);
+		return interned != null ? interned : atom;
+	}
+
+	/**
+	 * Cached integer term for the given value.
+	 * 
+	 * @param value integer value
+	 * @return the cached integer term or null if the value is out of range
+	 */
+	PrologInteger getInteger(long value) {
+		if (value < minNumber || value > maxNumber) {
+			return null;
+		}
+		return integers[(int) (value - minNumber)];
+	}
+
+	/**
+	 * Cached long term for the given value.
+	 * 
+	 * @param value long value
+	 * @return the cached long term or null if the value is out of range
+	 */
+	PrologLong getLong(long value) {
+		if (value < minNumber || value > maxNumber) {
+			return null;
+		}
+		return longs[(int) (value - minNumber)];
+	}
+
+	/**
+	 * Number of interned atoms.
+	 * 
+	 * @return the number of interned atoms
+	 */
+	int getAtomsCount() {
+		return atoms.size();
+	}
+
+}
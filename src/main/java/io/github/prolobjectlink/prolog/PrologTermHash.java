@@ -0,0 +1,320 @@
+/*-
+ * #%L
+ * prolobjectlink-jpi
+ * %%
+ * Copyright (C) 2020 - 2021 Prolobjectlink Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package io.github.prolobjectlink.prolog;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * Structural hash and equality of Prolog terms using the {@link PrologTerm}
+ * interface only, so they work with terms of any provider. The bound variables
+ * are replaced by their values, two free variables are equals only if they
+ * are the same variable and all free variables have the same hash. The
+ * integer and long numbers are equals if they have the same value, the float
+ * and double numbers are equals if they have the same value and the others
+ * atomic terms are equals if they have the same functor (or the same object
+ * for object references).
+ * <p>
+ * The compound hash is computed from the functor, the arity and the arguments
+ * hashes. The hash of an {@link AbstractCompounds} without variables at any
+ * depth, free or bound, is computed once and cached by the compound, and the
+ * cached hashes of the nested compounds are reused. The compounds holding a
+ * bound variable are not cached because the variable can be rebound. The terms are traversed with an explicit stack, so deep terms
+ * and long lists don't overflow the Java stack.
+ * 
+ * @author Jose Zalacain
+ * @since 1.2
+ */
+final class PrologTermHash {
+
+	private static final long SEED = 0x2545F4914F6CDD1DL;
+	private static final long MULTIPLIER = 0x9E3779B97F4A7C15L;
+	private static final long VARIABLE = 0x5851F42D4C957F2DL;
+	private static final int INITIAL_DEPTH = 16;
+
+	private PrologTermHash() {
+	}
+
+	/**
+	 * Structural hash of the given term.
+	 * 
+	 * @param term term to be hashed
+	 * @return the structural hash of the given term
+	 */
+	static long hash(PrologTerm term) {
+		PrologTerm t = deref(term);
+		if (t == null) {
+			return 0;
+		} else if (!isStructured(t)) {
+			return atomic(t);
+		}
+		long cached = cached(t);
+		if (cached != 0) {
+			return cached;
+		}
+
+		// post order traversal, every frame accumulate the arguments hashes
+		PrologTerm[] terms = new PrologTerm[INITIAL_DEPTH];
+		PrologTerm[][] arguments = new PrologTerm[INITIAL_DEPTH][];
+		int[] next = new int[INITIAL_DEPTH];
+		long[] hashes = new long[INITIAL_DEPTH];
+		boolean[] grounds = new boolean[INITIAL_DEPTH];
+		int top = 0;
+		terms[0] = t;
+		arguments[0] = t.getArguments();
+		hashes[0] = start(t);
+		grounds[0] = true;
+
+		while (true) {
+			PrologTerm[] args = arguments[top];
+			int i = next[top];
+			if (i < args.length) {
+				next[top] = i + 1;
+				// a bound variable can be rebound later, so don't cache its holders
+				if (args[i] != null && args[i].isVariable()) {
+					grounds[top] = false;
+				}
+				PrologTerm x = deref(args[i]);
+				if (x != null && isStructured(x)) {
+					long c = cached(x);
+					if (c != 0) {
+						hashes[top] = mix(hashes[top], c);
+						continue;
+					}
+					if (++top == terms.length) {
+						int length = terms.length * 2;
+						terms = Arrays.copyOf(terms, length);
+						arguments = Arrays.copyOf(arguments, length);
+						next = Arrays.copyOf(next, length);
+						hashes = Arrays.copyOf(hashes, length);
+						grounds = Arrays.copyOf(grounds, length);
+					}
+					terms[top] = x;
+					arguments[top] = x.getArguments();
+					next[top] = 0;
+					hashes[top] = start(x);
+					grounds[top] = true;
+				} else {
+					hashes[top] = mix(hashes[top], x != null ? atomic(x) : 0);
+				}
+			} else {
+				long h = finish(hashes[top]);
+				boolean ground = grounds[top];
+				if (ground && terms[top] instanceof AbstractCompounds) {
+					((AbstractCompounds) terms[top]).setStructuralHash(h);
+				}
+				terms[top] = null;
+				arguments[top] = null;
+				if (top == 0) {
+					return h;
+				}
+				top--;
+				hashes[top] = mix(hashes[top], h);
+				grounds[top] &= ground;
+			}
+		}
+	}
+
+	/**
+	 * Structural hash of the given term folded to 32 bits.
+	 * 
+	 * @param term term to be hashed
+	 * @return the structural hash code of the given term
+	 */
+	static int hashCode(PrologTerm term) {
+		long h = hash(term);
+		return (int) (h ^ (h >>> 32));
+	}
+
+	/**
+	 * Structural hash of the given terms array in order.
+	 * 
+	 * @param terms terms to be hashed
+	 * @return the structural hash of the given terms array
+	 */
+	static long hash(PrologTerm[] terms) {
+		long h = SEED + terms.length;
+		for (PrologTerm term : terms) {
+			h = mix(h, hash(term));
+		}
+		return h;
+	}
+
+	/**
+	 * Structural hash of the given variables solution map. The hash don't
+	 * depend on the map iteration order.
+	 * 
+	 * @param map variables solution map to be hashed
+	 * @return the structural hash of the given map
+	 */
+	static long hash(Map<String, PrologTerm> map) {
+		long h = SEED + map.size();
+		for (Entry<String, PrologTerm> entry : map.entrySet()) {
+			h += mix(entry.getKey().hashCode(), hash(entry.getValue()));
+		}
+		return h;
+	}
+
+	/**
+	 * Structural equality of the given terms. The compounds with different
+	 * cached hashes are not compared.
+	 * 
+	 * @param a first term
+	 * @param b second term
+	 * @return true if the given terms are structurally equals
+	 */
+	static boolean equals(PrologTerm a, PrologTerm b) {
+		Deque<PrologTerm> stack = new ArrayDeque<PrologTerm>();
+		PrologTerm x = a;
+		PrologTerm y = b;
+		while (true) {
+			x = deref(x);
+			y = deref(y);
+			if (x != y) {
+				if (x == null || y == null || x.isVariable() || y.isVariable()) {
+					return false;
+				}
+				boolean structured = isStructured(x);
+				if (structured != isStructured(y)) {
+					return false;
+				} else if (!structured) {
+					if (!atomicEquals(x, y)) {
+						return false;
+					}
+				} else {
+					long cx = cached(x);
+					long cy = cached(y);
+					if (cx != 0 && cy != 0 && cx != cy) {
+						return false;
+					}
+					if (x.getArity() != y.getArity() || !x.getFunctor().equals(y.getFunctor())) {
+						return false;
+					}
+					PrologTerm[] xs = x.getArguments();
+					PrologTerm[] ys = y.getArguments();
+					if (xs.length != ys.length) {
+						return false;
+					}
+					for (int i = xs.length - 1; i >= 0; i--) {
+						stack.push(ys[i]);
+						stack.push(xs[i]);
+					}
+				}
+			}
+			if (stack.isEmpty()) {
+				return true;
+			}
+			x = stack.pop();
+			y = stack.pop();
+		}
+	}
+
+	/**
+	 * Equality of not compound terms.
+	 * 
+	 * @param x first atomic term
+	 * @param y second atomic term
+	 * @return true if the given atomic terms are equals
+	 */
+	static boolean atomicEquals(PrologTerm x, PrologTerm y) {
+		if (x.isNumber() || y.isNumber()) {
+			if (!x.isNumber() || !y.isNumber()) {
+				return false;
+			}
+			boolean integral = x.isInteger() || x.isLong();
+			if (integral != (y.isInteger() || y.isLong())) {
+				return false;
+			}
+			PrologNumber n = (PrologNumber) x;
+			PrologNumber m = (PrologNumber) y;
+			return integral ? n.getLongValue() == m.getLongValue()
+					: Double.compare(n.getDoubleValue(), m.getDoubleValue()) == 0;
+		} else if (x.isObjectType() || y.isObjectType()) {
+			Object o = x.getObject();
+			Object p = y.getObject();
+			return x.isObjectType() && y.isObjectType() && (o == null ? p == null : o.equals(p));
+		}
+		return x.getFunctor().equals(y.getFunctor());
+	}
+
+	private static PrologTerm deref(PrologTerm term) {
+		PrologTerm t = term;
+		while (t != null && t.isVariable()) {
+			PrologTerm value = t.getTerm();
+			if (value == null || value == t) {
+				break;
+			}
+			t = value;
+		}
+		return t;
+	}
+
+	private static boolean isStructured(PrologTerm term) {
+		return term.isCompound() && !term.isVariable();
+	}
+
+	private static long cached(PrologTerm term) {
+		return term instanceof AbstractCompounds ? ((AbstractCompounds) term).getStructuralHash() : 0;
+	}
+
+	private static long atomic(PrologTerm term) {
+		if (term.isVariable()) {
+			return VARIABLE;
+		} else if (term.isNumber()) {
+			PrologNumber number = (PrologNumber) term;
+			if (term.isInteger() || term.isLong()) {
+				return number.getLongValue();
+			}
+			double value = number.getDoubleValue();
+			long integral = (long) value;
+			return integral == value ? integral : Double.doubleToLongBits(value);
+		} else if (term.isObjectType()) {
+			Object object = term.getObject();
+			return object != null ? object.hashCode() : 0;
+		}
+		return term.getFunctor().hashCode();
+	}
+
+	private static long start(PrologTerm term) {
+		return mix(SEED, term.getFunctor().hashCode() * 31L + term.getArity());
+	}
+
+	private static long finish(long h) {
+		long x = h * MULTIPLIER;
+		x ^= x >>> 32;
+		// zero mean not cached
+		return x != 0 ? x : 1;
+	}
+
+	private static long mix(long h, long value) {
+		long x = (h ^ value) * MULTIPLIER;
+		return x ^ (x >>> 29);
+	}
+
+}
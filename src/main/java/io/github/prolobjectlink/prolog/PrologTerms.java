@@ -0,0 +1,260 @@
+/*-
+ * #%L
+ * prolobjectlink-jpi
+ * %%
+ * Copyright (C) 2020 - 2021 Prolobjectlink Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package io.github.prolobjectlink.prolog;
+
+import static io.github.prolobjectlink.prolog.PrologTermType.ATOM_TYPE;
+import static io.github.prolobjectlink.prolog.PrologTermType.DOUBLE_TYPE;
+import static io.github.prolobjectlink.prolog.PrologTermType.FLOAT_TYPE;
+import static io.github.prolobjectlink.prolog.PrologTermType.INTEGER_TYPE;
+import static io.github.prolobjectlink.prolog.PrologTermType.LONG_TYPE;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Ground check, copy and variables sharing of Prolog terms using the
+ * {@link PrologTerm} interface only, so they work with terms of any provider.
+ * The terms are traversed with an explicit stack and the lists are traversed
+ * cell by cell, so deep terms and long lists don't overflow the Java stack.
+ * <p>
+ * The named variables are identified by name, so the variables with the same
+ * name in the copied terms are the same variable in the copy, like in a parsed
+ * text. The anonymous variables are always different variables. The sub-terms
+ * without replaced variables are not copied, except in the deep copies that
+ * create new compounds, atoms and numbers for the mutable provider terms.
+ * 
+ * @author Jose Zalacain
+ * @since 1.2
+ */
+final class PrologTerms {
+
+	private PrologTerms() {
+	}
+
+	/**
+	 * True if the given term don't have variables.
+	 * 
+	 * @param term term to be checked
+	 * @return true if the given term is ground
+	 */
+	static boolean isGround(PrologTerm term) {
+		Deque<PrologTerm> stack = new ArrayDeque<PrologTerm>();
+		stack.push(term);
+		while (!stack.isEmpty()) {
+			PrologTerm t = stack.pop();
+			if (t.isVariable()) {
+				return false;
+			} else if (isStructured(t)) {
+				for (PrologTerm argument : arguments(t)) {
+					stack.push(argument);
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Copy of the given term with fresh variables.
+	 * 
+	 * @param provider provider used to create the copy
+	 * @param term     term to be copied
+	 * @return the term copy with fresh variables
+	 */
+	static PrologTerm copy(PrologProvider provider, PrologTerm term) {
+		return new Copier(provider, true, false).copy(term);
+	}
+
+	/**
+	 * Copy of the given term with fresh variables and new compounds, atoms and
+	 * numbers. The special atoms, the empty list and the object references are
+	 * not copied.
+	 * 
+	 * @param provider provider used to create the copy
+	 * @param term     term to be copied
+	 * @return the term deep copy with fresh variables
+	 */
+	static PrologTerm deepCopy(PrologProvider provider, PrologTerm term) {
+		return new Copier(provider, true, true).copy(term);
+	}
+
+	/**
+	 * Copy of the given terms where every named variable is replaced by the
+	 * first variable with the same name found in the given terms. The terms
+	 * without aliased variables are returned without copy.
+	 * 
+	 * @param provider provider used to create the copies
+	 * @param terms    terms to be copied
+	 * @return the terms sharing the same named variables
+	 */
+	static PrologTerm[] shareNames(PrologProvider provider, PrologTerm... terms) {
+		Copier copier = new Copier(provider, false, false);
+		PrologTerm[] copies = new PrologTerm[terms.length];
+		for (int i = 0; i < terms.length; i++) {
+			copies[i] = terms[i] != null ? copier.copy(terms[i]) : null;
+		}
+		return copies;
+	}
+
+	private static boolean isStructured(PrologTerm term) {
+		return term.isCompound() && !term.isVariable() && !term.isEmptyList();
+	}
+
+	/**
+	 * Arguments of a structured term, the lists cells are head and tail pairs.
+	 */
+	private static PrologTerm[] arguments(PrologTerm term) {
+		if (term instanceof PrologList) {
+			PrologList list = (PrologList) term;
+			return new PrologTerm[] { list.getHead(), list.getTail() };
+		}
+		return term.getArguments();
+	}
+
+	/**
+	 * Terms copier that keep the variables mapped by name along many copies. The
+	 * variables are replaced by fresh variables or by the first variable with
+	 * the same name.
+	 */
+	private static final class Copier {
+
+		private final boolean fresh;
+		private final boolean deep;
+		private final PrologProvider provider;
+		private final Map<String, PrologTerm> variables;
+
+		private Copier(PrologProvider provider, boolean fresh, boolean deep) {
+			this.variables = new HashMap<String, PrologTerm>();
+			this.provider = provider;
+			this.fresh = fresh;
+			this.deep = deep;
+		}
+
+		private PrologTerm copy(PrologTerm term) {
+			if (!isStructured(term)) {
+				return copyAtomic(term);
+			}
+
+			// post order traversal, every frame collect the copied arguments
+			Deque<Frame> frames = new ArrayDeque<Frame>();
+			frames.push(new Frame(term));
+			PrologTerm result = null;
+			while (!frames.isEmpty()) {
+				Frame frame = frames.peek();
+				if (result != null) {
+					frame.set(result);
+					result = null;
+				}
+				if (frame.next < frame.arguments.length) {
+					PrologTerm argument = frame.arguments[frame.next];
+					if (argument != null && isStructured(argument)) {
+						frames.push(new Frame(argument));
+					} else {
+						frame.set(argument != null ? copyAtomic(argument) : null);
+					}
+				} else {
+					frames.pop();
+					result = frame.build();
+				}
+			}
+			return result;
+		}
+
+		private PrologTerm copyAtomic(PrologTerm term) {
+			if (!term.isVariable() || !(term instanceof PrologVariable)) {
+				return deep ? newAtomic(term) : term;
+			}
+			PrologVariable variable = (PrologVariable) term;
+			if (variable.isAnonymous()) {
+				return fresh ? provider.newVariable(variable.getPosition()) : variable;
+			}
+			PrologTerm copy = variables.get(variable.getName());
+			if (copy == null) {
+				copy = fresh ? provider.newVariable(variable.getName(), variable.getPosition()) : variable;
+				variables.put(variable.getName(), copy);
+			}
+			return copy;
+		}
+
+		private PrologTerm newAtomic(PrologTerm term) {
+			switch (term.getType()) {
+			case ATOM_TYPE:
+				return provider.newAtom(((PrologAtom) term).getStringValue());
+			case INTEGER_TYPE:
+				return provider.newInteger(((PrologNumber) term).getIntegerValue());
+			case LONG_TYPE:
+				return provider.newLong(((PrologNumber) term).getLongValue());
+			case FLOAT_TYPE:
+				return provider.newFloat(((PrologNumber) term).getFloatValue());
+			case DOUBLE_TYPE:
+				return provider.newDouble(((PrologNumber) term).getDoubleValue());
+			default:
+				return term;
+			}
+		}
+
+		/**
+		 * Copy frame of a structured term.
+		 */
+		private final class Frame {
+
+			private final PrologTerm term;
+			private final PrologTerm[] arguments;
+			private PrologTerm[] values;
+			private int next;
+
+			private Frame(PrologTerm term) {
+				this.arguments = arguments(term);
+				this.term = term;
+			}
+
+			private void set(PrologTerm value) {
+				if (value != arguments[next] && values == null) {
+					values = arguments.clone();
+				}
+				if (values != null) {
+					values[next] = value;
+				}
+				next++;
+			}
+
+			private PrologTerm build() {
+				if (values == null && !deep) {
+					return term;
+				} else if (values == null) {
+					values = arguments;
+				} else if (term instanceof PrologList) {
+					return provider.newList(values[0], values[1]);
+				}
+				return provider.newStructure(term.getFunctor(), values);
+			}
+
+		}
+
+	}
+
+}
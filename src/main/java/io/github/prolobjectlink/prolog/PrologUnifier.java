@@ -0,0 +1,378 @@
+/*-
+ * #%L
+ * prolobjectlink-jpi
+ * %%
+ * Copyright (C) 2020 - 2021 Prolobjectlink Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package io.github.prolobjectlink.prolog;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * <p>
+ * Prolog unifier that work over any provider terms without modify them. The
+ * variables bindings are hold by the unifier and every binding is recorded in
+ * a trail, so a partial unification can be undone to a previous
+ * {@link #mark()}. A failed {@link #unify(PrologTerm, PrologTerm)} undo its own
+ * bindings, so the unifier state is the same than before the call.
+ * </p>
+ * 
+ * <pre>
+ * PrologUnifier unifier = new PrologUnifier(provider);
+ * if (unifier.unify(provider.parseTerm("f(X, g(Y))"), provider.parseTerm("f(a, g(b))"))) {
+ * 	Map&lt;String, PrologTerm&gt; bindings = unifier.getBindings(); // {X=a, Y=b}
+ * }
+ * </pre>
+ * 
+ * <p>
+ * The named variables are identified by name, so the variables with the same
+ * name in both unified terms are the same variable, like in the text
+ * {@code t1 = t2}. The anonymous variables are always different variables. The
+ * variables bound by the provider are replaced by their values. The
+ * unification don't do occurs check, so a variable can be bound to a term
+ * holding the same variable like in {@code X = f(X)}. The substitution leave
+ * such variables unexpanded inside their own value, so {@code X} is
+ * substituted by {@code f(X)}. The terms are traversed with an explicit
+ * stack and the lists are unified cell by cell, so long lists and deep terms
+ * don't overflow the Java stack. The unifier is not thread safe.
+ * </p>
+ * 
+ * @author Jose Zalacain
+ * @since 1.2
+ */
+public final class PrologUnifier {
+
+	private final PrologProvider provider;
+	private final Map<String, PrologTerm> named;
+	private final Map<PrologTerm, PrologTerm> anonymous;
+	private final Map<String, PrologTerm> variables;
+	private final List<Object> trail;
+
+	/**
+	 * Create an empty unifier that use the given provider to create the
+	 * substituted terms.
+	 * 
+	 * @param provider provider used to create the substituted terms
+	 * @since 1.2
+	 */
+	public PrologUnifier(PrologProvider provider) {
+		this.provider = provider;
+		this.named = new HashMap<String, PrologTerm>();
+		this.anonymous = new IdentityHashMap<PrologTerm, PrologTerm>();
+		this.variables = new LinkedHashMap<String, PrologTerm>();
+		this.trail = new ArrayList<Object>();
+	}
+
+	/**
+	 * Current trail position. The bindings done after this mark can be undone
+	 * with {@link #undo(int)}.
+	 * 
+	 * @return the current trail position
+	 * @since 1.2
+	 */
+	public int mark() {
+		return trail.size();
+	}
+
+	/**
+	 * Undo all bindings done after the given mark.
+	 * 
+	 * @param mark trail position returned by {@link #mark()}
+	 * @since 1.2
+	 */
+	public void undo(int mark) {
+		for (int i = trail.size() - 1; i >= mark; i--) {
+			Object key = trail.remove(i);
+			if (key instanceof String) {
+				named.remove(key);
+			} else {
+				anonymous.remove(key);
+			}
+		}
+	}
+
+	/**
+	 * Undo all bindings and forget the seen variables.
+	 * 
+	 * @since 1.2
+	 */
+	public void reset() {
+		undo(0);
+		variables.clear();
+	}
+
+	/**
+	 * Unify the given terms extending the current bindings. If the terms don't
+	 * unify the bindings done by this call are undone.
+	 * 
+	 * @param left  first term
+	 * @param right second term
+	 * @return true if the given terms unify
+	 * @since 1.2
+	 */
+	public boolean unify(PrologTerm left, PrologTerm right) {
+		int mark = mark();
+		Deque<PrologTerm> stack = new ArrayDeque<PrologTerm>();
+		PrologTerm x = left;
+		PrologTerm y = right;
+		while (true) {
+			x = resolve(x);
+			y = resolve(y);
+			if (x != y && !unifyPair(stack, x, y)) {
+				undo(mark);
+				return false;
+			}
+			if (stack.isEmpty()) {
+				return true;
+			}
+			x = stack.pop();
+			y = stack.pop();
+		}
+	}
+
+	private boolean unifyPair(Deque<PrologTerm> stack, PrologTerm x, PrologTerm y) {
+		if (x.isVariable()) {
+			if (!y.isVariable() || !sameVariable(x, y)) {
+				bind(x, y);
+			}
+			return true;
+		} else if (y.isVariable()) {
+			bind(y, x);
+			return true;
+		}
+		boolean structured = isStructured(x);
+		if (structured != isStructured(y)) {
+			return false;
+		} else if (!structured) {
+			return PrologTermHash.atomicEquals(x, y);
+		} else if (x.getArity() != y.getArity() || !x.getFunctor().equals(y.getFunctor())) {
+			return false;
+		}
+		PrologTerm[] xs = arguments(x);
+		PrologTerm[] ys = arguments(y);
+		if (xs.length != ys.length) {
+			return false;
+		}
+		for (int i = xs.length - 1; i >= 0; i--) {
+			stack.push(ys[i]);
+			stack.push(xs[i]);
+		}
+		return true;
+	}
+
+	/**
+	 * Resolve the given term following the variables bindings. The returned term
+	 * is a not bound variable or a not variable term. The arguments of the
+	 * returned term are not resolved.
+	 * 
+	 * @param term term to be resolved
+	 * @return the resolved term
+	 * @since 1.2
+	 */
+	public PrologTerm resolve(PrologTerm term) {
+		PrologTerm t = term;
+		while (t.isVariable()) {
+			PrologTerm value = t.getTerm();
+			if (value != null && value != t) {
+				// bound by the provider
+				t = value;
+				continue;
+			}
+			String name = name(t);
+			if (name != null) {
+				if (!variables.containsKey(name)) {
+					variables.put(name, t);
+				}
+				value = named.get(name);
+			} else {
+				value = anonymous.get(t);
+			}
+			if (value == null) {
+				return t;
+			}
+			t = value;
+		}
+		return t;
+	}
+
+	/**
+	 * True if the given variable is bound by this unifier.
+	 * 
+	 * @param variable variable to be checked
+	 * @return true if the given variable is bound
+	 * @since 1.2
+	 */
+	public boolean isBound(PrologTerm variable) {
+		return variable.isVariable() && !resolve(variable).isVariable();
+	}
+
+	/**
+	 * Create a copy of the given term replacing the bound variables by their
+	 * values. The sub-terms without bound variables are not copied. A variable
+	 * bound to a term that is being substituted (a cyclic binding) is not
+	 * replaced.
+	 * 
+	 * @param term term to be substituted
+	 * @return the substituted term
+	 * @since 1.2
+	 */
+	public PrologTerm substitute(PrologTerm term) {
+		PrologTerm root = resolve(term);
+		if (!isStructured(root)) {
+			return root;
+		}
+
+		// post order traversal, every frame collect the substituted arguments
+		Deque<Frame> frames = new ArrayDeque<Frame>();
+		Map<PrologTerm, PrologTerm> path = new IdentityHashMap<PrologTerm, PrologTerm>();
+		frames.push(new Frame(root, arguments(root)));
+		path.put(root, root);
+		PrologTerm result = null;
+		while (!frames.isEmpty()) {
+			Frame frame = frames.peek();
+			if (result != null) {
+				frame.set(result);
+				result = null;
+			}
+			if (frame.next < frame.arguments.length) {
+				PrologTerm argument = frame.arguments[frame.next];
+				PrologTerm value = argument != null ? resolve(argument) : null;
+				if (value != null && isStructured(value) && path.containsKey(value)) {
+					// cyclic binding, keep the variable
+					frame.set(argument);
+				} else if (value != null && isStructured(value)) {
+					frames.push(new Frame(value, arguments(value)));
+					path.put(value, value);
+				} else {
+					frame.set(value);
+				}
+			} else {
+				frames.pop();
+				path.remove(frame.term);
+				result = frame.build();
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Map of the named variables seen by this unifier and their substituted
+	 * values. The not bound variables are mapped to the resolved variable.
+	 * 
+	 * @return the variables bindings map
+	 * @since 1.2
+	 */
+	public Map<String, PrologTerm> getBindings() {
+		Map<String, PrologTerm> bindings = new HashMap<String, PrologTerm>(variables.size() * 2);
+		for (Entry<String, PrologTerm> entry : variables.entrySet()) {
+			bindings.put(entry.getKey(), substitute(entry.getValue()));
+		}
+		return bindings;
+	}
+
+	private void bind(PrologTerm variable, PrologTerm value) {
+		String name = name(variable);
+		if (name != null) {
+			named.put(name, value);
+			trail.add(name);
+		} else {
+			anonymous.put(variable, value);
+			trail.add(variable);
+		}
+	}
+
+	private boolean sameVariable(PrologTerm x, PrologTerm y) {
+		String name = name(x);
+		return name != null && name.equals(name(y));
+	}
+
+	/**
+	 * Name of the given variable or null for anonymous variables.
+	 */
+	private static String name(PrologTerm variable) {
+		if (variable instanceof PrologVariable) {
+			PrologVariable v = (PrologVariable) variable;
+			return v.isAnonymous() ? null : v.getName();
+		}
+		return null;
+	}
+
+	private static boolean isStructured(PrologTerm term) {
+		return term.isCompound() && !term.isVariable() && !term.isEmptyList();
+	}
+
+	/**
+	 * Arguments of a structured term, the lists cells are head and tail pairs.
+	 */
+	private static PrologTerm[] arguments(PrologTerm term) {
+		if (term instanceof PrologList) {
+			PrologList list = (PrologList) term;
+			return new PrologTerm[] { list.getHead(), list.getTail() };
+		}
+		return term.getArguments();
+	}
+
+	/**
+	 * Substitution frame of a structured term.
+	 */
+	private final class Frame {
+
+		private final PrologTerm term;
+		private final PrologTerm[] arguments;
+		private PrologTerm[] values;
+		private int next;
+
+		private Frame(PrologTerm term, PrologTerm[] arguments) {
+			this.term = term;
+			this.arguments = arguments;
+		}
+
+		private void set(PrologTerm value) {
+			if (value != arguments[next] && values == null) {
+				values = arguments.clone();
+			}
+			if (values != null) {
+				values[next] = value;
+			}
+			next++;
+		}
+
+		private PrologTerm build() {
+			if (values == null) {
+				return term;
+			} else if (term instanceof PrologList) {
+				return provider.newList(values[0], values[1]);
+			}
+			return provider.newStructure(term.getFunctor(), values);
+		}
+
+	}
+
+}